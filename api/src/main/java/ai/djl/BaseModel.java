@@ -16,14 +16,18 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Block;
+import ai.djl.nn.Parameter;
 import ai.djl.util.Pair;
 import ai.djl.util.PairList;
 import ai.djl.util.Utils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -31,7 +35,12 @@ import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -184,33 +193,54 @@ public abstract class BaseModel implements Model {
                         : Integer.parseInt(epochValue);
 
         Path paramFile = modelPath.resolve(String.format("%s-%04d.params", modelName, epoch));
-        try (DataOutputStream dos = new DataOutputStream(Files.newOutputStream(paramFile))) {
-            dos.writeBytes("DJL@");
-            dos.writeInt(MODEL_VERSION);
-            dos.writeUTF(modelName);
-            dos.writeUTF(dataType.name());
-            inputData = block.describeInput();
-            dos.writeInt(inputData.size());
-            for (Pair<String, Shape> desc : inputData) {
-                String name = desc.getKey();
-                if (name == null) {
-                    dos.writeUTF("");
-                } else {
-                    dos.writeUTF(name);
-                }
-                dos.write(desc.getValue().getEncoded());
-            }
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(paramFile))) {
+            save(os, modelName);
+        }
+        this.modelName = modelName;
+        modelDir = modelPath.toAbsolutePath();
+    }
 
-            dos.writeInt(properties.size());
-            for (Map.Entry<String, String> entry : properties.entrySet()) {
-                dos.writeUTF(entry.getKey());
-                dos.writeUTF(entry.getValue());
+    /**
+     * Writes the parameters of the model to an {@link OutputStream} in the same format as {@link
+     * #save(Path, String)}.
+     *
+     * <p>If the stream is a {@link ai.djl.nn.SnapshotOutputStream}, the parameters are copied
+     * instead of encoded, so that a checkpoint can be written on a background thread.
+     *
+     * @param os the {@link OutputStream} to write to
+     * @param modelName the name of the model
+     * @throws IOException if the model could not be written
+     */
+    public void save(OutputStream os, String modelName) throws IOException {
+        if (block == null || !block.isInitialized()) {
+            throw new IllegalStateException("Model has not be trained or loaded yet.");
+        }
+        DataOutputStream dos =
+                os instanceof DataOutputStream ? (DataOutputStream) os : new DataOutputStream(os);
+        dos.writeBytes("DJL@");
+        dos.writeInt(MODEL_VERSION);
+        dos.writeUTF(modelName);
+        dos.writeUTF(dataType.name());
+        inputData = block.describeInput();
+        dos.writeInt(inputData.size());
+        for (Pair<String, Shape> desc : inputData) {
+            String name = desc.getKey();
+            if (name == null) {
+                dos.writeUTF("");
+            } else {
+                dos.writeUTF(name);
             }
+            dos.write(desc.getValue().getEncoded());
+        }
 
-            block.saveParameters(dos);
+        dos.writeInt(properties.size());
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            dos.writeUTF(entry.getKey());
+            dos.writeUTF(entry.getValue());
         }
-        this.modelName = modelName;
-        modelDir = modelPath.toAbsolutePath();
+
+        block.saveParameters(dos);
+        dos.flush();
     }
 
     /** {@inheritDoc} */
@@ -256,7 +286,10 @@ public abstract class BaseModel implements Model {
             throws IOException, MalformedModelException {
         Path paramFile = paramPathResolver(options);
         logger.debug("Try to load model from {}", paramFile);
-        try (DataInputStream dis = new DataInputStream(Files.newInputStream(paramFile))) {
+        boolean lazyLoading = Boolean.parseBoolean(getOption(options, "lazyLoading", "false"));
+        int threads = Integer.parseInt(getOption(options, "loadingThreads", "1"));
+        try (DataInputStream dis =
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(paramFile)))) {
             byte[] buf = new byte[4];
             dis.readFully(buf);
             if (!"DJL@".equals(new String(buf, StandardCharsets.US_ASCII))) {
@@ -288,9 +321,67 @@ public abstract class BaseModel implements Model {
                 properties.put(key, value);
             }
 
+            // deferred arrays keep their values in a direct buffer until they are created, so
+            // they are only used when requested
+            boolean deferred = lazyLoading || threads > 1;
+            for (Parameter parameter : block.getParameters().values()) {
+                parameter.setLazyLoading(deferred);
+            }
             block.loadParameters(manager, dis);
-            logger.debug("DJL model loaded successfully");
         }
+        if (!lazyLoading && threads > 1) {
+            materializeParameters(threads);
+        }
+        logger.debug("DJL model loaded successfully");
         return true;
     }
+
+    /**
+     * Creates the arrays of the parameters read by {@link #readParameters(Map)}.
+     *
+     * <p>The parameter values are read sequentially from the parameter file, but the native arrays
+     * are created in parallel with the given number of threads.
+     *
+     * @param threads the number of threads used to create the arrays
+     */
+    protected void materializeParameters(int threads) {
+        List<Parameter> parameters = block.getParameters().values();
+        if (threads <= 1 || parameters.size() <= 1) {
+            parameters.forEach(Parameter::materialize);
+            return;
+        }
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        Math.min(threads, parameters.size()),
+                        r -> {
+                            Thread thread =
+                                    new Thread(r, "parameter-loader-" + threadId.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[parameters.size()];
+            for (int i = 0; i < futures.length; ++i) {
+                futures[i] = CompletableFuture.runAsync(parameters.get(i)::materialize, executor);
+            }
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String getOption(Map<String, Object> options, String key, String def) {
+        if (options == null) {
+            return def;
+        }
+        Object value = options.get(key);
+        return value == null ? def : value.toString();
+    }
 }
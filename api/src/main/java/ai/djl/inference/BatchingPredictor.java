@@ -0,0 +1,238 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.metric.Metrics;
+import ai.djl.translate.TranslateException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@code BatchingPredictor} aggregates concurrent single item requests into batches before
+ * running them through a {@link Predictor}.
+ *
+ * <p>Each call to {@link #predictAsync(Object)} enqueues the input and returns immediately. A
+ * background thread collects queued inputs and calls {@link Predictor#batchPredict(List)} once
+ * either {@code maxBatchSize} inputs are waiting or {@code maxDelay} has elapsed since the first
+ * input of the batch arrived. The inputs are batched with the translator's {@link
+ * ai.djl.translate.Batchifier}, so the translator must produce inputs that can be batched
+ * together.
+ *
+ * <p>The {@code BatchingPredictor} owns the wrapped {@link Predictor} and closes it when it is
+ * closed. Unlike {@link Predictor}, a {@code BatchingPredictor} is thread safe.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class BatchingPredictor<I, O> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingPredictor.class);
+
+    private Predictor<I, O> predictor;
+    private int maxBatchSize;
+    private long maxDelayNanos;
+    private volatile Metrics metrics;
+
+    private BlockingQueue<Job<I, O>> queue;
+    private Thread worker;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new instance of {@code BatchingPredictor}.
+     *
+     * @param predictor the predictor used to run the batches
+     * @param maxBatchSize the maximum number of inputs in a batch
+     * @param maxDelay the maximum time to wait for a batch to fill up
+     * @param unit the time unit of {@code maxDelay}
+     */
+    public BatchingPredictor(
+            Predictor<I, O> predictor, int maxBatchSize, long maxDelay, TimeUnit unit) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.predictor = predictor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        queue = new LinkedBlockingQueue<>();
+        worker = new Thread(this::run, "batching-predictor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Predicts an item for inference, blocking until its batch has been processed.
+     *
+     * @param input the input
+     * @return the output object defined by the user
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public O predict(I input) throws TranslateException {
+        try {
+            return predictAsync(input).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TranslateException) {
+                throw (TranslateException) cause;
+            }
+            throw new TranslateException(cause);
+        }
+    }
+
+    /**
+     * Enqueues an item for inference.
+     *
+     * <p>The returned future completes exceptionally with a {@link TranslateException} if the
+     * batch containing the item failed.
+     *
+     * @param input the input
+     * @return a {@link CompletableFuture} holding the output object defined by the user
+     * @throws IllegalStateException if the {@code BatchingPredictor} has been closed
+     */
+    public CompletableFuture<O> predictAsync(I input) {
+        if (closed) {
+            throw new IllegalStateException("BatchingPredictor has been closed.");
+        }
+        Job<I, O> job = new Job<>(input);
+        queue.offer(job);
+        // close() may have drained the queue between the check and the offer, in which case
+        // nothing would ever complete the job
+        if (closed && queue.remove(job)) {
+            throw new IllegalStateException("BatchingPredictor has been closed.");
+        }
+        return job.future;
+    }
+
+    /**
+     * Returns the number of inputs waiting to be batched.
+     *
+     * @return the number of inputs waiting to be batched
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Attaches a Metrics param to use for benchmark.
+     *
+     * <p>In addition to the metrics recorded by {@link Predictor}, the size of each batch is
+     * recorded as "BatchSize", and the number of inputs still waiting when a batch is flushed as
+     * "QueueSize".
+     *
+     * @param metrics the Metrics class
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        predictor.setMetrics(metrics);
+    }
+
+    /**
+     * Stops accepting new inputs, processes the inputs that are already queued and closes the
+     * underlying {@link Predictor}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // inputs enqueued concurrently with close() may have missed the worker
+        Job<I, O> job;
+        while ((job = queue.poll()) != null) {
+            job.future.completeExceptionally(
+                    new TranslateException("BatchingPredictor has been closed."));
+        }
+        predictor.close();
+    }
+
+    private void run() {
+        List<Job<I, O>> jobs = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Job<I, O> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                jobs.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (jobs.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Job<I, O> job = queue.poll(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                    if (job == null) {
+                        break;
+                    }
+                    jobs.add(job);
+                }
+            } catch (InterruptedException e) {
+                logger.warn("BatchingPredictor interrupted, flushing pending requests.");
+                closed = true;
+            }
+            if (!jobs.isEmpty()) {
+                flush(jobs);
+                jobs.clear();
+            }
+        }
+    }
+
+    private void flush(List<Job<I, O>> jobs) {
+        int batchSize = jobs.size();
+        List<I> inputs = new ArrayList<>(batchSize);
+        for (Job<I, O> job : jobs) {
+            inputs.add(job.input);
+        }
+        if (metrics != null) {
+            metrics.addMetric("BatchSize", batchSize, "count");
+            metrics.addMetric("QueueSize", queue.size(), "count");
+        }
+        try {
+            List<O> outputs = predictor.batchPredict(inputs);
+            for (int i = 0; i < batchSize; ++i) {
+                jobs.get(i).future.complete(outputs.get(i));
+            }
+        } catch (TranslateException | RuntimeException e) {
+            logger.debug("Batch of {} inputs failed.", batchSize, e);
+            TranslateException cause =
+                    e instanceof TranslateException
+                            ? (TranslateException) e
+                            : new TranslateException(e);
+            for (Job<I, O> job : jobs) {
+                job.future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private static final class Job<I, O> {
+
+        I input;
+        CompletableFuture<O> future;
+
+        Job(I input) {
+            this.input = input;
+            future = new CompletableFuture<>();
+        }
+    }
+}
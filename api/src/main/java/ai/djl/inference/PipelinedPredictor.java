@@ -0,0 +1,297 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDList;
+import ai.djl.translate.TranslateException;
+import ai.djl.translate.TranslatorContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@code PipelinedPredictor} runs the pre-processing, inference and post-processing stages of a
+ * {@link Predictor} on separate executors so that consecutive requests overlap.
+ *
+ * <p>While batch N is running {@link ai.djl.nn.Block#forward} on the engine, batch N+1 can be
+ * pre-processed and batch N-1 post-processed on the given executors. The inference stage always
+ * runs on a single dedicated thread, because a {@link Predictor} shares one {@link
+ * ai.djl.training.ParameterStore} across calls.
+ *
+ * <p>The pre-processing and post-processing stages of different requests can run at the same time
+ * on the given executors, so {@link ai.djl.translate.Translator#processInput} and {@link
+ * ai.djl.translate.Translator#processOutput} must be thread-safe. To pipeline a translator that is
+ * not thread-safe, pass the same single-threaded executor for both stages.
+ *
+ * <p>The returned futures complete exceptionally with a {@link CompletionException} that wraps a
+ * {@link TranslateException} if any of the stages fails. The {@code PipelinedPredictor} owns the
+ * wrapped {@link Predictor}, but not the pre-processing and post-processing executors.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class PipelinedPredictor<I, O> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedPredictor.class);
+
+    private Predictor<I, O> predictor;
+    private Executor preprocessExecutor;
+    private Executor postprocessExecutor;
+    private ExecutorService inferenceExecutor;
+    private Set<CompletableFuture<?>> pending;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new instance of {@code PipelinedPredictor}.
+     *
+     * @param predictor the predictor whose stages are pipelined
+     * @param preprocessExecutor the executor that runs {@link
+     *     ai.djl.translate.Translator#processInput} and batchifying
+     * @param postprocessExecutor the executor that runs unbatchifying and {@link
+     *     ai.djl.translate.Translator#processOutput}, the same single-threaded executor as
+     *     {@code preprocessExecutor} if the translator is not thread-safe
+     */
+    public PipelinedPredictor(
+            Predictor<I, O> predictor, Executor preprocessExecutor, Executor postprocessExecutor) {
+        this.predictor = predictor;
+        this.preprocessExecutor = preprocessExecutor;
+        this.postprocessExecutor = postprocessExecutor;
+        inferenceExecutor =
+                Executors.newSingleThreadExecutor(
+                        r -> {
+                            Thread thread = new Thread(r, "pipelined-predictor");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        pending = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Predicts an item for inference asynchronously.
+     *
+     * @param input the input
+     * @return a {@link CompletableFuture} holding the output object defined by the user
+     */
+    public CompletableFuture<O> predictAsync(I input) {
+        return batchPredictAsync(Collections.singletonList(input)).thenApply(list -> list.get(0));
+    }
+
+    /**
+     * Predicts a batch for inference asynchronously.
+     *
+     * <p>If the translator has no {@link ai.djl.translate.Batchifier}, each input goes through the
+     * pipeline on its own.
+     *
+     * @param inputs a list of inputs
+     * @return a {@link CompletableFuture} holding the list of output objects defined by the user
+     */
+    public CompletableFuture<List<O>> batchPredictAsync(List<I> inputs) {
+        CompletableFuture<List<O>> future = new CompletableFuture<>();
+        // the request is tracked before checking closed, so close() either waits for it or it is
+        // rejected here, before anything is submitted to the inference executor
+        pending.add(future);
+        future.whenComplete((ret, t) -> pending.remove(future));
+        if (closed) {
+            pending.remove(future);
+            throw new IllegalStateException("PipelinedPredictor has been closed.");
+        }
+
+        try {
+            submit(inputs)
+                    .whenComplete(
+                            (ret, t) -> {
+                                if (t == null) {
+                                    future.complete(ret);
+                                } else {
+                                    future.completeExceptionally(t);
+                                }
+                            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        return future;
+    }
+
+    private CompletableFuture<List<O>> submit(List<I> inputs) {
+        if (predictor.translator.getBatchifier() != null) {
+            return submit(inputs, true);
+        }
+
+        List<CompletableFuture<List<O>>> futures = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            futures.add(submit(Collections.singletonList(input), false));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(
+                        v -> {
+                            List<O> ret = new ArrayList<>(futures.size());
+                            for (CompletableFuture<List<O>> f : futures) {
+                                ret.add(f.join().get(0));
+                            }
+                            return ret;
+                        });
+    }
+
+    /**
+     * Predicts a batch for inference, blocking until the batch has gone through all the stages.
+     *
+     * @param inputs a list of inputs
+     * @return a list of output objects defined by the user
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        try {
+            return batchPredictAsync(inputs).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Attaches a Metrics param to use for benchmark.
+     *
+     * @param metrics the Metrics class
+     */
+    public void setMetrics(Metrics metrics) {
+        predictor.setMetrics(metrics);
+    }
+
+    /**
+     * Waits for the requests in flight, then closes the underlying {@link Predictor}.
+     *
+     * <p>The pre-processing and post-processing executors are not shut down.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (CompletableFuture<?> future : pending) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                logger.debug("Pending request failed while closing.", e);
+            }
+        }
+        inferenceExecutor.shutdown();
+        try {
+            // forward tasks must not run on the closed predictor
+            inferenceExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        predictor.close();
+    }
+
+    private CompletableFuture<List<O>> submit(List<I> inputs, boolean batched) {
+        long begin = System.nanoTime();
+        TranslatorContext ctx = predictor.newContext();
+        return CompletableFuture.supplyAsync(
+                        () -> preprocess(ctx, inputs, batched), preprocessExecutor)
+                .thenApplyAsync(this::forward, inferenceExecutor)
+                .thenApplyAsync(list -> postprocess(ctx, list, batched, begin), postprocessExecutor)
+                .whenComplete((ret, t) -> ctx.close());
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private NDList preprocess(TranslatorContext ctx, List<I> inputs, boolean batched) {
+        long begin = System.nanoTime();
+        try {
+            predictor.prepare();
+            NDList list;
+            if (batched) {
+                list = predictor.processInputs(ctx, inputs);
+            } else {
+                list = predictor.translator.processInput(ctx, inputs.get(0));
+            }
+            record("Preprocess", begin, list);
+            return list;
+        } catch (Exception e) {
+            throw wrap(e);
+        }
+    }
+
+    private NDList forward(NDList list) {
+        long begin = System.nanoTime();
+        try {
+            NDList result = predictor.predict(list);
+            record("Inference", begin, result);
+            return result;
+        } catch (RuntimeException e) {
+            throw wrap(e);
+        }
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private List<O> postprocess(
+            TranslatorContext ctx, NDList list, boolean batched, long requestBegin) {
+        long begin = System.nanoTime();
+        try {
+            List<O> ret;
+            if (batched) {
+                ret = predictor.processOutputs(ctx, list);
+            } else {
+                ret = Collections.singletonList(predictor.translator.processOutput(ctx, list));
+            }
+            record("Postprocess", begin, null);
+            Metrics metrics = predictor.metrics;
+            if (metrics != null) {
+                metrics.addMetric("Total", System.nanoTime() - requestBegin, "nano");
+            }
+            return ret;
+        } catch (Exception e) {
+            throw wrap(e);
+        }
+    }
+
+    private void record(String name, long begin, NDList list) {
+        Metrics metrics = predictor.metrics;
+        if (metrics != null) {
+            if (list != null) {
+                predictor.waitToRead(list);
+            }
+            metrics.addMetric(name, System.nanoTime() - begin, "nano");
+        }
+    }
+
+    private static CompletionException wrap(Exception e) {
+        if (e instanceof CompletionException) {
+            return (CompletionException) e;
+        }
+        if (e instanceof TranslateException) {
+            return new CompletionException(e);
+        }
+        return new CompletionException(new TranslateException(e));
+    }
+
+    private static TranslateException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof TranslateException) {
+            return (TranslateException) cause;
+        }
+        return new TranslateException(cause);
+    }
+}
@@ -24,6 +24,7 @@ import ai.djl.translate.Batchifier;
 import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -74,7 +75,7 @@ import org.slf4j.LoggerFactory;
 public class Predictor<I, O> implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(Predictor.class);
-    private Translator<I, O> translator;
+    Translator<I, O> translator;
     private long timestamp;
 
     private boolean prepared;
@@ -112,7 +113,7 @@ public class Predictor<I, O> implements AutoCloseable {
         return batchPredict(Collections.singletonList(input)).get(0);
     }
 
-    private NDList predict(NDList ndList) {
+    NDList predict(NDList ndList) {
         logger.trace("Predictor input data: {}", ndList);
         return block.forward(parameterStore, ndList, false);
     }
@@ -128,10 +129,7 @@ public class Predictor<I, O> implements AutoCloseable {
     public List<O> batchPredict(List<I> inputs) throws TranslateException {
         long begin = System.nanoTime();
         try (PredictorContext context = new PredictorContext()) {
-            if (!prepared) {
-                translator.prepare(manager, model);
-                prepared = true;
-            }
+            prepare();
             Batchifier batchifier = translator.getBatchifier();
             if (batchifier == null) {
                 List<O> ret = new ArrayList<>(inputs.size());
@@ -176,7 +174,18 @@ public class Predictor<I, O> implements AutoCloseable {
         this.metrics = metrics;
     }
 
-    private void waitToRead(NDList list) {
+    synchronized void prepare() throws IOException {
+        if (!prepared) {
+            translator.prepare(manager, model);
+            prepared = true;
+        }
+    }
+
+    TranslatorContext newContext() {
+        return new PredictorContext();
+    }
+
+    void waitToRead(NDList list) {
         for (NDArray array : list) {
             if (array instanceof LazyNDArray) {
                 ((LazyNDArray) array).waitToRead();
@@ -185,7 +194,7 @@ public class Predictor<I, O> implements AutoCloseable {
     }
 
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
-    private NDList processInputs(TranslatorContext ctx, List<I> inputs) throws Exception {
+    NDList processInputs(TranslatorContext ctx, List<I> inputs) throws Exception {
         int batchSize = inputs.size();
         NDList[] preprocessed = new NDList[batchSize];
         for (int i = 0; i < batchSize; ++i) {
@@ -195,7 +204,7 @@ public class Predictor<I, O> implements AutoCloseable {
     }
 
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
-    private List<O> processOutputs(TranslatorContext ctx, NDList list) throws Exception {
+    List<O> processOutputs(TranslatorContext ctx, NDList list) throws Exception {
         NDList[] unbatched = translator.getBatchifier().unbatchify(list);
         List<O> outputs = new ArrayList<>(unbatched.length);
         for (NDList output : unbatched) {
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.Model;
+import ai.djl.metric.Metrics;
+import ai.djl.translate.TranslateException;
+import ai.djl.translate.Translator;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@code PredictorPool} is a bounded pool of {@link Predictor}s that share the same {@link
+ * Model} and {@link Translator}.
+ *
+ * <p>A {@link Predictor} is not thread safe, so each thread must use its own instance. Instead of
+ * creating a predictor per request, or holding one per thread forever, request threads can
+ * {@link #borrow() borrow} a predictor from the pool and {@link #release(Predictor) release} it
+ * once done:
+ *
+ * <pre>
+ * Predictor&lt;Image, Classifications&gt; predictor = pool.borrow();
+ * try {
+ *     Classifications result = predictor.predict(image);
+ * } finally {
+ *     pool.release(predictor);
+ * }
+ * </pre>
+ *
+ * <p>At most {@code maxSize} predictors exist at any time, {@link #borrow()} blocks while all of
+ * them are in use. Newly created predictors can be warmed up with a sample input, and predictors
+ * that stay idle longer than the idle timeout are closed, while keeping at least {@code minIdle}
+ * of them around.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class PredictorPool<I, O> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictorPool.class);
+
+    private Model model;
+    private Translator<I, O> translator;
+    private int maxSize;
+    private int minIdle;
+    private long idleTimeoutNanos;
+    private I warmupInput;
+    private Metrics metrics;
+
+    private BlockingDeque<Entry<I, O>> idle;
+    private Set<Predictor<I, O>> borrowed;
+    private Semaphore permits;
+    private AtomicInteger size;
+    private ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    PredictorPool(Builder<I, O> builder) throws TranslateException {
+        model = builder.model;
+        translator = builder.translator;
+        maxSize = builder.maxSize;
+        minIdle = builder.minIdle;
+        idleTimeoutNanos = builder.idleTimeoutNanos;
+        warmupInput = builder.warmupInput;
+        metrics = builder.metrics;
+
+        idle = new LinkedBlockingDeque<>();
+        borrowed = ConcurrentHashMap.newKeySet();
+        permits = new Semaphore(maxSize, true);
+        size = new AtomicInteger();
+        try {
+            for (int i = 0; i < minIdle; ++i) {
+                idle.offerFirst(new Entry<>(newPredictor()));
+            }
+        } catch (TranslateException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        if (idleTimeoutNanos > 0) {
+            evictor =
+                    Executors.newSingleThreadScheduledExecutor(
+                            r -> {
+                                Thread thread = new Thread(r, "predictor-pool-evictor");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+            long period = Math.max(TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) / 2, 1);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates a builder to build a {@code PredictorPool}.
+     *
+     * @return a new builder
+     */
+    public static Builder<?, ?> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Borrows a {@link Predictor} from the pool, waiting if all predictors are in use.
+     *
+     * @return a {@link Predictor} that must be returned with {@link #release(Predictor)}
+     * @throws TranslateException if the predictor could not be created or warmed up
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Predictor<I, O> borrow() throws TranslateException, InterruptedException {
+        checkOpen();
+        permits.acquire();
+        return take();
+    }
+
+    /**
+     * Borrows a {@link Predictor} from the pool, waiting up to the given time if all predictors
+     * are in use.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of {@code timeout}
+     * @return a {@link Predictor} that must be returned with {@link #release(Predictor)}, or
+     *     {@code null} if none became available in time
+     * @throws TranslateException if the predictor could not be created or warmed up
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Predictor<I, O> borrow(long timeout, TimeUnit unit)
+            throws TranslateException, InterruptedException {
+        checkOpen();
+        if (!permits.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return take();
+    }
+
+    /**
+     * Returns a borrowed {@link Predictor} to the pool.
+     *
+     * @param predictor the predictor obtained from {@link #borrow()}
+     * @throws IllegalArgumentException if the predictor is not currently borrowed from this pool
+     */
+    public void release(Predictor<I, O> predictor) {
+        if (!borrowed.remove(predictor)) {
+            throw new IllegalArgumentException("The predictor is not borrowed from this pool.");
+        }
+        if (closed) {
+            closePredictor(predictor);
+        } else {
+            Entry<I, O> entry = new Entry<>(predictor);
+            idle.offerFirst(entry);
+            // the pool may have been closed after the check above
+            if (closed && idle.remove(entry)) {
+                closePredictor(predictor);
+            }
+        }
+        permits.release();
+    }
+
+    /**
+     * Predicts an item for inference with a predictor borrowed from the pool.
+     *
+     * @param input the input
+     * @return the output object defined by the user
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public O predict(I input) throws TranslateException {
+        Predictor<I, O> predictor;
+        try {
+            predictor = borrow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException(e);
+        }
+        try {
+            return predictor.predict(input);
+        } finally {
+            release(predictor);
+        }
+    }
+
+    /**
+     * Returns the number of predictors currently alive in the pool, both idle and borrowed.
+     *
+     * @return the number of predictors currently alive in the pool
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Returns the number of idle predictors in the pool.
+     *
+     * @return the number of idle predictors in the pool
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Closes predictors that have been idle longer than the idle timeout.
+     *
+     * <p>This is called periodically when an idle timeout is set, and does nothing otherwise.
+     */
+    public void evictIdle() {
+        if (idleTimeoutNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        // most recently used predictors are at the head, so the oldest ones are evicted first
+        Iterator<Entry<I, O>> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > minIdle) {
+            Entry<I, O> entry = it.next();
+            if (now - entry.lastUsed > idleTimeoutNanos && idle.remove(entry)) {
+                logger.debug("Evicting predictor idle for {} ms", (now - entry.lastUsed) / 1000000);
+                closePredictor(entry.predictor);
+            }
+        }
+    }
+
+    /** Closes all idle predictors. Borrowed predictors are closed when they are released. */
+    @Override
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        Entry<I, O> entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closePredictor(entry.predictor);
+        }
+    }
+
+    private Predictor<I, O> take() throws TranslateException {
+        // the pool may have been closed while waiting for the permit
+        if (closed) {
+            permits.release();
+            throw new IllegalStateException("PredictorPool has been closed.");
+        }
+        Entry<I, O> entry = idle.pollFirst();
+        Predictor<I, O> predictor;
+        if (entry != null) {
+            predictor = entry.predictor;
+        } else {
+            try {
+                predictor = newPredictor();
+            } catch (TranslateException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        borrowed.add(predictor);
+        return predictor;
+    }
+
+    private Predictor<I, O> newPredictor() throws TranslateException {
+        Predictor<I, O> predictor = model.newPredictor(translator);
+        size.incrementAndGet();
+        if (metrics != null) {
+            predictor.setMetrics(metrics);
+        }
+        if (warmupInput != null) {
+            try {
+                predictor.predict(warmupInput);
+            } catch (TranslateException | RuntimeException e) {
+                closePredictor(predictor);
+                throw e;
+            }
+        }
+        return predictor;
+    }
+
+    private void closePredictor(Predictor<I, O> predictor) {
+        size.decrementAndGet();
+        predictor.close();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("PredictorPool has been closed.");
+        }
+    }
+
+    private static final class Entry<I, O> {
+
+        Predictor<I, O> predictor;
+        long lastUsed;
+
+        Entry(Predictor<I, O> predictor) {
+            this.predictor = predictor;
+            lastUsed = System.nanoTime();
+        }
+    }
+
+    /**
+     * A Builder to construct a {@code PredictorPool}.
+     *
+     * @param <I> the input type
+     * @param <O> the output type
+     */
+    public static final class Builder<I, O> {
+
+        Model model;
+        Translator<I, O> translator;
+        int maxSize = Runtime.getRuntime().availableProcessors();
+        int minIdle;
+        long idleTimeoutNanos;
+        I warmupInput;
+        Metrics metrics;
+
+        Builder() {}
+
+        /**
+         * Sets the {@link Model} to create predictors from.
+         *
+         * @param model the model
+         * @return this {@code Builder}
+         */
+        public Builder<I, O> setModel(Model model) {
+            this.model = model;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Translator} used by every predictor in the pool.
+         *
+         * @param translator the translator
+         * @param <P> the input type
+         * @param <Q> the output type
+         * @return this {@code Builder}
+         */
+        public <P, Q> Builder<P, Q> setTranslator(Translator<P, Q> translator) {
+            Builder<P, Q> builder = new Builder<>();
+            builder.model = model;
+            builder.translator = translator;
+            builder.maxSize = maxSize;
+            builder.minIdle = minIdle;
+            builder.idleTimeoutNanos = idleTimeoutNanos;
+            builder.metrics = metrics;
+            return builder;
+        }
+
+        /**
+         * Sets the maximum number of predictors in the pool, defaults to the number of available
+         * processors.
+         *
+         * @param maxSize the maximum number of predictors
+         * @return this {@code Builder}
+         */
+        public Builder<I, O> optMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of predictors created upfront and kept even when idle.
+         *
+         * @param minIdle the minimum number of idle predictors
+         * @return this {@code Builder}
+         */
+        public Builder<I, O> optMinIdle(int minIdle) {
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        /**
+         * Sets how long a predictor can stay idle before it is closed, idle predictors are never
+         * evicted by default.
+         *
+         * @param idleTimeout the idle timeout
+         * @param unit the time unit of {@code idleTimeout}
+         * @return this {@code Builder}
+         */
+        public Builder<I, O> optIdleTimeout(long idleTimeout, TimeUnit unit) {
+            this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+            return this;
+        }
+
+        /**
+         * Sets an input that every new predictor runs once before it is handed out.
+         *
+         * @param warmupInput the input used to warm up new predictors
+         * @return this {@code Builder}
+         */
+        public Builder<I, O> optWarmupInput(I warmupInput) {
+            this.warmupInput = warmupInput;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Metrics} attached to every predictor in the pool.
+         *
+         * @param metrics the metrics
+         * @return this {@code Builder}
+         */
+        public Builder<I, O> optMetrics(Metrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Builds a {@code PredictorPool} and creates its initial idle predictors.
+         *
+         * @return the {@code PredictorPool}
+         * @throws TranslateException if the initial predictors fail to warm up
+         */
+        public PredictorPool<I, O> build() throws TranslateException {
+            if (model == null || translator == null) {
+                throw new IllegalArgumentException("The model and translator must be set");
+            }
+            if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+                throw new IllegalArgumentException(
+                        "Invalid pool size, maxSize: " + maxSize + ", minIdle: " + minIdle);
+            }
+            return new PredictorPool<>(this);
+        }
+    }
+}
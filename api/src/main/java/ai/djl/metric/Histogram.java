@@ -0,0 +1,252 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size, log-linear histogram of non-negative {@code long} values.
+ *
+ * <p>Values smaller than {@code 2^precisionBits} are counted exactly. Larger values are counted in
+ * buckets whose width doubles every power of two, so that every recorded value is reported within
+ * a relative error of {@code 2^-(precisionBits - 1)}. The memory used by a histogram only depends
+ * on {@code precisionBits} and never grows with the number of recorded values.
+ *
+ * <p>Recording is lock-free. Counts are striped over several arrays indexed by the recording
+ * thread to reduce contention when many threads record into the same histogram. Reading from a
+ * histogram that is concurrently recorded to returns a consistent enough view for monitoring, but
+ * not an atomic snapshot.
+ */
+public class Histogram {
+
+    private static final int STRIPES = stripes();
+
+    private int precisionBits;
+    private int subBucketHalfCount;
+    private int bucketCount;
+    private AtomicLongArray[] counts;
+    private LongAdder count;
+    private LongAdder sum;
+    private LongAccumulator min;
+    private LongAccumulator max;
+
+    /** Constructs an empty {@code Histogram} with 7 bits of precision (1.6% relative error). */
+    public Histogram() {
+        this(7);
+    }
+
+    /**
+     * Constructs an empty {@code Histogram}.
+     *
+     * @param precisionBits the number of bits of each value that are counted exactly, between 2
+     *     and 16
+     */
+    public Histogram(int precisionBits) {
+        if (precisionBits < 2 || precisionBits > 16) {
+            throw new IllegalArgumentException("precisionBits must be between 2 and 16.");
+        }
+        this.precisionBits = precisionBits;
+        subBucketHalfCount = 1 << (precisionBits - 1);
+        bucketCount = (65 - precisionBits) * subBucketHalfCount + subBucketHalfCount;
+        counts = new AtomicLongArray[STRIPES];
+        for (int i = 0; i < STRIPES; ++i) {
+            counts[i] = new AtomicLongArray(bucketCount);
+        }
+        count = new LongAdder();
+        sum = new LongAdder();
+        min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value to record, must not be negative
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Histogram value must not be negative: " + value);
+        }
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts[stripe].incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return the sum of the recorded values
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the smallest recorded value, or 0 if the histogram is empty.
+     *
+     * @return the smallest recorded value
+     */
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    /**
+     * Returns the largest recorded value, or 0 if the histogram is empty.
+     *
+     * @return the largest recorded value
+     */
+    public long getMax() {
+        long value = max.get();
+        return value == Long.MIN_VALUE ? 0 : value;
+    }
+
+    /**
+     * Returns the average of the recorded values, or 0 if the histogram is empty.
+     *
+     * @return the average of the recorded values
+     */
+    public double getMean() {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) sum.sum() / total;
+    }
+
+    /**
+     * Returns the value at the given percentile.
+     *
+     * <p>This matches {@link Metrics#percentile(String, int)}, the value that would be at index
+     * {@code count * percentile / 100} if all recorded values were sorted.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the given percentile, or 0 if the histogram is empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] merged = mergeCounts();
+        long total = 0;
+        for (long c : merged) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.min((long) (total * percentile / 100) + 1, total);
+        long seen = 0;
+        for (int i = 0; i < bucketCount; ++i) {
+            seen += merged[i];
+            if (seen >= rank) {
+                long value = medianOf(i);
+                return Math.max(Math.min(value, getMax()), getMin());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the non-empty buckets of this histogram as pairs of upper bound and count.
+     *
+     * @return an array of {@code [upperBound, count]} pairs sorted by upper bound
+     */
+    public long[][] getBuckets() {
+        long[] merged = mergeCounts();
+        int nonEmpty = 0;
+        for (long c : merged) {
+            if (c > 0) {
+                ++nonEmpty;
+            }
+        }
+        long[][] buckets = new long[nonEmpty][];
+        int j = 0;
+        for (int i = 0; i < bucketCount; ++i) {
+            if (merged[i] > 0) {
+                buckets[j++] = new long[] {highestOf(i), merged[i]};
+            }
+        }
+        return buckets;
+    }
+
+    /** Clears all recorded values, for example to start a new reporting window. */
+    public void reset() {
+        for (AtomicLongArray stripe : counts) {
+            for (int i = 0; i < bucketCount; ++i) {
+                stripe.set(i, 0);
+            }
+        }
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    private int indexOf(long value) {
+        if (value < (subBucketHalfCount << 1)) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - precisionBits;
+        int mantissa = (int) (value >>> shift);
+        return shift * subBucketHalfCount + mantissa;
+    }
+
+    private long lowestOf(int index) {
+        if (index < (subBucketHalfCount << 1)) {
+            return index;
+        }
+        int shift = index / subBucketHalfCount - 1;
+        long mantissa = index - (long) shift * subBucketHalfCount;
+        return mantissa << shift;
+    }
+
+    private long highestOf(int index) {
+        if (index < (subBucketHalfCount << 1)) {
+            return index;
+        }
+        int shift = index / subBucketHalfCount - 1;
+        return lowestOf(index) + (1L << shift) - 1;
+    }
+
+    private long medianOf(int index) {
+        long low = lowestOf(index);
+        return low + (highestOf(index) - low) / 2;
+    }
+
+    private long[] mergeCounts() {
+        long[] merged = new long[bucketCount];
+        for (AtomicLongArray stripe : counts) {
+            for (int i = 0; i < bucketCount; ++i) {
+                merged[i] += stripe.get(i);
+            }
+        }
+        return merged;
+    }
+
+    private static int stripes() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+        return Integer.highestOneBit(processors);
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link Metrics} that aggregates the selected metrics into {@link Histogram}s instead of
+ * storing every sample.
+ *
+ * <p>{@code Metrics} keeps every {@link Metric} in memory, which grows without bound in long
+ * running services where the {@link ai.djl.inference.Predictor} records its latencies on every
+ * call. {@code HistogramMetrics} records the metrics named in the constructor or with {@link
+ * #addHistogram(String)} into a fixed size histogram per metric name. Recording is lock-free and
+ * {@link #percentile(String, int)} and {@link #mean(String)} run in constant time regardless of
+ * the number of samples. A histogram metric only accepts non-negative {@code Long}, {@code
+ * Integer}, {@code Short} and {@code Byte} values, such as latencies, counts and sizes.
+ *
+ * <p>All other metrics are stored as in {@link Metrics}. Because individual samples are not kept
+ * for histogram metrics, {@link #getMetric(String)} only returns the latest sample for them.
+ *
+ * <p>Call {@link #reset()} to start a new reporting window.
+ */
+public class HistogramMetrics extends Metrics {
+
+    private int precisionBits;
+    private Set<String> histogramNames;
+    private Map<String, Entry> histograms;
+
+    /**
+     * Constructs an empty {@code HistogramMetrics} instance.
+     *
+     * @param histogramNames the names of the metrics to record into histograms
+     */
+    public HistogramMetrics(String... histogramNames) {
+        this(7, histogramNames);
+    }
+
+    /**
+     * Constructs an empty {@code HistogramMetrics} instance with the given histogram precision.
+     *
+     * @param precisionBits the histogram precision, see {@link Histogram#Histogram(int)}
+     * @param histogramNames the names of the metrics to record into histograms
+     */
+    public HistogramMetrics(int precisionBits, String... histogramNames) {
+        this.precisionBits = precisionBits;
+        this.histogramNames = ConcurrentHashMap.newKeySet();
+        this.histogramNames.addAll(Arrays.asList(histogramNames));
+        histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Records the metric with the given name into a histogram from now on.
+     *
+     * @param name the name of the metric
+     * @throws IllegalStateException if samples of the metric are already stored individually
+     */
+    public void addHistogram(String name) {
+        if (super.hasMetric(name)) {
+            throw new IllegalStateException("Metric already has individual samples: " + name);
+        }
+        histogramNames.add(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addMetric(Metric metric) {
+        String name = metric.getMetricName();
+        if (histogramNames.contains(name)) {
+            record(name, metric.getValue(), metric.getUnit());
+        } else {
+            super.addMetric(metric);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addMetric(String name, Number value) {
+        addMetric(name, value, "count");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addMetric(String name, Number value, String unit) {
+        if (histogramNames.contains(name)) {
+            record(name, value, unit);
+        } else {
+            super.addMetric(new Metric(name, value, unit));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasMetric(String name) {
+        return histograms.containsKey(name) || super.hasMetric(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> getMetricNames() {
+        Set<String> names = new TreeSet<>(super.getMetricNames());
+        names.addAll(histograms.keySet());
+        return names;
+    }
+
+    /**
+     * Returns all {@link Metric}s with the specified metric name.
+     *
+     * <p>For histogram metrics, only the latest sample is returned, and none after {@link
+     * #reset()}.
+     *
+     * @param name the name of the metric
+     * @return a list of {@link Metric} with the specified metric name
+     */
+    @Override
+    public List<Metric> getMetric(String name) {
+        Entry entry = histograms.get(name);
+        if (entry == null) {
+            return super.getMetric(name);
+        }
+        Metric latest = entry.latest(name);
+        return latest == null ? Collections.emptyList() : Collections.singletonList(latest);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Metric latestMetric(String name) {
+        Entry entry = histograms.get(name);
+        if (entry == null) {
+            return super.latestMetric(name);
+        }
+        Metric latest = entry.latest(name);
+        if (latest == null) {
+            throw new IllegalArgumentException("Could not find metric: " + name);
+        }
+        return latest;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Metric percentile(String metricName, int percentile) {
+        Entry entry = histograms.get(metricName);
+        if (entry == null) {
+            return super.percentile(metricName, percentile);
+        }
+        checkNotEmpty(metricName, entry);
+        return new Metric(
+                metricName, entry.histogram.getValueAtPercentile(percentile), entry.unit);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double mean(String metricName) {
+        Entry entry = histograms.get(metricName);
+        if (entry == null) {
+            return super.mean(metricName);
+        }
+        checkNotEmpty(metricName, entry);
+        return entry.histogram.getMean();
+    }
+
+    /**
+     * Returns the {@link Histogram} of the specified metric.
+     *
+     * @param name the name of the metric
+     * @return the {@link Histogram} of the specified metric, or {@code null} if there is no
+     *     histogram metric with that name
+     */
+    public Histogram getHistogram(String name) {
+        Entry entry = histograms.get(name);
+        return entry == null ? null : entry.histogram;
+    }
+
+    /**
+     * Returns the unit of the specified histogram metric.
+     *
+     * @param name the name of the metric
+     * @return the unit of the specified metric, or {@code null} if there is no histogram metric
+     *     with that name
+     */
+    public String getUnit(String name) {
+        Entry entry = histograms.get(name);
+        return entry == null ? null : entry.unit;
+    }
+
+    /**
+     * Returns the names of the histogram metrics that have been recorded.
+     *
+     * @return the names of the histogram metrics that have been recorded
+     */
+    public Set<String> getHistogramNames() {
+        return Collections.unmodifiableSet(histograms.keySet());
+    }
+
+    /**
+     * Clears the recorded values of all histogram metrics, including their latest sample, keeping
+     * their names and units.
+     */
+    public void reset() {
+        for (Entry entry : histograms.values()) {
+            entry.histogram.reset();
+            entry.latest = -1;
+        }
+    }
+
+    private void record(String name, Number value, String unit) {
+        boolean integral =
+                value instanceof Long
+                        || value instanceof Integer
+                        || value instanceof Short
+                        || value instanceof Byte;
+        if (!integral || value.longValue() < 0) {
+            throw new IllegalArgumentException(
+                    "Histogram metric " + name + " only accepts non-negative integers: " + value);
+        }
+        Entry entry = histograms.computeIfAbsent(name, k -> new Entry(precisionBits, unit));
+        // the latest sample is set first, so that it is there once the histogram has a count
+        entry.latest = value.longValue();
+        entry.histogram.record(value.longValue());
+    }
+
+    private static void checkNotEmpty(String name, Entry entry) {
+        if (entry.histogram.getCount() == 0) {
+            throw new IllegalArgumentException("No value recorded for metric: " + name);
+        }
+    }
+
+    private static final class Entry {
+
+        Histogram histogram;
+        String unit;
+        // the values are non-negative, -1 means no sample since the last reset
+        volatile long latest = -1;
+
+        Entry(int precisionBits, String unit) {
+            histogram = new Histogram(precisionBits);
+            this.unit = unit;
+        }
+
+        Metric latest(String name) {
+            long value = latest;
+            return value < 0 ? null : new Metric(name, value, unit);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the metrics of a {@link MetricsReporter} at {@code /metrics} with the JDK HTTP server.
+ *
+ * <p>This class is only loaded by name from {@link MetricsReporter#startServer(InetSocketAddress)},
+ * so that the rest of the package works on runtimes without the {@code jdk.httpserver} module.
+ */
+final class HttpMetricsServer implements MetricsReporter.Server {
+
+    private MetricsReporter reporter;
+    private HttpServer server;
+
+    HttpMetricsServer(MetricsReporter reporter, InetSocketAddress address) throws IOException {
+        this.reporter = reporter;
+        server = HttpServer.create(address, 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(null);
+        server.start();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            StringWriter writer = new StringWriter();
+            reporter.export(writer);
+            byte[] body = writer.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", reporter.getContentType());
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
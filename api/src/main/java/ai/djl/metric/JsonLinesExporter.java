@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * A {@link MetricsExporter} that writes one JSON object per metric and line.
+ *
+ * <p>Each line contains the name, labels, unit, count, sum, mean, p50, p90, p99, latest value and
+ * timestamp of a metric, which makes the output easy to append to a file and ingest in log
+ * pipelines.
+ */
+public class JsonLinesExporter implements MetricsExporter {
+
+    private static final Gson GSON =
+            new GsonBuilder().serializeSpecialFloatingPointValues().create();
+
+    /** {@inheritDoc} */
+    @Override
+    public String getContentType() {
+        return "application/x-ndjson";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void export(Writer writer, List<MetricSummary> summaries) throws IOException {
+        for (MetricSummary summary : summaries) {
+            GSON.toJson(new Line(summary), writer);
+            writer.write('\n');
+        }
+    }
+
+    private static final class Line {
+
+        String name;
+        Object labels;
+        String unit;
+        long count;
+        double sum;
+        double mean;
+        double p50;
+        double p90;
+        double p99;
+        double latest;
+        long timestamp;
+
+        Line(MetricSummary summary) {
+            name = summary.getName();
+            labels = summary.getLabels();
+            unit = summary.getUnit();
+            count = summary.getCount();
+            sum = summary.getSum();
+            mean = summary.getMean();
+            p50 = summary.getP50();
+            p90 = summary.getP90();
+            p99 = summary.getP99();
+            latest = summary.getLatest();
+            timestamp = summary.getTimestamp();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code MetricSummary} holds the aggregated statistics of one metric at the time it was
+ * created.
+ *
+ * <p>It is the common representation that {@link MetricsExporter}s render, regardless of whether
+ * the metric is stored as individual samples in {@link Metrics} or as a {@link Histogram} in
+ * {@link HistogramMetrics}.
+ */
+public final class MetricSummary {
+
+    private String name;
+    private Map<String, String> labels;
+    private String unit;
+    private long count;
+    private double sum;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double latest;
+    private long timestamp;
+
+    private MetricSummary(String name, Map<String, String> labels, String unit) {
+        this.name = name;
+        this.labels = labels;
+        this.unit = unit;
+        timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Summarizes the metric with the given name.
+     *
+     * @param metrics the {@link Metrics} containing the metric
+     * @param name the name of the metric
+     * @param labels the labels identifying the source of the metric, for example the model name
+     * @return the {@code MetricSummary}, or {@code null} if the metric has no value
+     */
+    public static MetricSummary of(Metrics metrics, String name, Map<String, String> labels) {
+        if (metrics instanceof HistogramMetrics) {
+            HistogramMetrics histogramMetrics = (HistogramMetrics) metrics;
+            Histogram histogram = histogramMetrics.getHistogram(name);
+            if (histogram != null) {
+                if (histogram.getCount() == 0) {
+                    return null;
+                }
+                String unit = histogramMetrics.getUnit(name);
+                MetricSummary summary = new MetricSummary(name, labels, unit);
+                summary.count = histogram.getCount();
+                summary.sum = histogram.getSum();
+                summary.p50 = histogram.getValueAtPercentile(50);
+                summary.p90 = histogram.getValueAtPercentile(90);
+                summary.p99 = histogram.getValueAtPercentile(99);
+                // a concurrent reset() may have cleared the latest sample
+                List<Metric> latest = histogramMetrics.getMetric(name);
+                summary.latest =
+                        latest.isEmpty()
+                                ? Double.NaN
+                                : latest.get(0).getValue().doubleValue();
+                return summary;
+            }
+        }
+
+        List<Metric> list = metrics.getMetric(name);
+        List<Metric> copy;
+        synchronized (list) {
+            copy = new ArrayList<>(list);
+        }
+        if (copy.isEmpty()) {
+            return null;
+        }
+        Metric last = copy.get(copy.size() - 1);
+        MetricSummary summary = new MetricSummary(name, labels, last.getUnit());
+        double[] values = new double[copy.size()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = copy.get(i).getValue().doubleValue();
+            summary.sum += values[i];
+        }
+        Arrays.sort(values);
+        summary.count = values.length;
+        summary.p50 = values[values.length * 50 / 100];
+        summary.p90 = values[values.length * 90 / 100];
+        summary.p99 = values[values.length * 99 / 100];
+        summary.latest = last.getValue().doubleValue();
+        return summary;
+    }
+
+    /**
+     * Returns the name of the metric.
+     *
+     * @return the name of the metric
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the labels identifying the source of the metric.
+     *
+     * @return the labels identifying the source of the metric
+     */
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * Returns the unit of the metric.
+     *
+     * @return the unit of the metric
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return the sum of the recorded values
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the average of the recorded values.
+     *
+     * @return the average of the recorded values
+     */
+    public double getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Returns the 50th percentile of the recorded values.
+     *
+     * @return the 50th percentile of the recorded values
+     */
+    public double getP50() {
+        return p50;
+    }
+
+    /**
+     * Returns the 90th percentile of the recorded values.
+     *
+     * @return the 90th percentile of the recorded values
+     */
+    public double getP90() {
+        return p90;
+    }
+
+    /**
+     * Returns the 99th percentile of the recorded values.
+     *
+     * @return the 99th percentile of the recorded values
+     */
+    public double getP99() {
+        return p99;
+    }
+
+    /**
+     * Returns the latest recorded value.
+     *
+     * @return the latest recorded value
+     */
+    public double getLatest() {
+        return latest;
+    }
+
+    /**
+     * Returns the time this summary was created in milliseconds since epoch.
+     *
+     * @return the time this summary was created
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -93,6 +94,15 @@ public class Metrics {
         return metrics.containsKey(name);
     }
 
+    /**
+     * Returns the names of all the metrics in this collection.
+     *
+     * @return the names of all the metrics in this collection
+     */
+    public Set<String> getMetricNames() {
+        return Collections.unmodifiableSet(metrics.keySet());
+    }
+
     /**
      * Returns all {@link Metric}s with the specified metric name.
      *
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * A {@code MetricsExporter} renders {@link MetricSummary}s in a format that monitoring systems
+ * can consume.
+ *
+ * <p>Exporters are used by the {@link MetricsReporter} to publish the metrics recorded by {@link
+ * ai.djl.inference.Predictor}s and {@link ai.djl.training.Trainer}s, either from an HTTP endpoint
+ * or by periodically writing them to a file. Implement this interface to support other formats.
+ *
+ * @see PrometheusExporter
+ * @see JsonLinesExporter
+ */
+public interface MetricsExporter {
+
+    /**
+     * Returns the MIME type of the exported content.
+     *
+     * @return the MIME type of the exported content
+     */
+    String getContentType();
+
+    /**
+     * Writes the given summaries.
+     *
+     * @param writer the {@link Writer} to write to
+     * @param summaries the summaries of all the reported metrics
+     * @throws IOException if an I/O error occurs
+     */
+    void export(Writer writer, List<MetricSummary> summaries) throws IOException;
+}
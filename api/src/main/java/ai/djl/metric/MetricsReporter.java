@@ -0,0 +1,267 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@code MetricsReporter} publishes the {@link Metrics} of live models through a {@link
+ * MetricsExporter}.
+ *
+ * <p>Each registered {@link Metrics} carries a set of labels, such as the model name, so that the
+ * metrics of many models can be published together:
+ *
+ * <pre>
+ * MetricsReporter reporter = new MetricsReporter(new PrometheusExporter());
+ * Metrics metrics = new HistogramMetrics("Inference", "Total");
+ * predictor.setMetrics(metrics);
+ * reporter.register("resnet50", metrics);
+ * reporter.startServer(new InetSocketAddress(9090));
+ * </pre>
+ *
+ * <p>The metrics can be served from an in-process HTTP endpoint with {@link
+ * #startServer(InetSocketAddress)}, written to a file periodically with {@link #startFileExport},
+ * or rendered on demand with {@link #export(Writer)}. The HTTP endpoint requires the {@code
+ * jdk.httpserver} module, which is only loaded when the server is started.
+ */
+public class MetricsReporter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsReporter.class);
+
+    private MetricsExporter exporter;
+    private List<Source> sources;
+    private Server server;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a {@code MetricsReporter} that renders with the given exporter.
+     *
+     * @param exporter the {@link MetricsExporter} to use
+     */
+    public MetricsReporter(MetricsExporter exporter) {
+        this.exporter = exporter;
+        sources = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Registers a {@link Metrics} to report with a {@code model} label.
+     *
+     * @param modelName the name of the model the metrics belong to
+     * @param metrics the {@link Metrics} to report
+     */
+    public void register(String modelName, Metrics metrics) {
+        register(metrics, Collections.singletonMap("model", modelName));
+    }
+
+    /**
+     * Registers a {@link Metrics} to report with the given labels.
+     *
+     * @param metrics the {@link Metrics} to report
+     * @param labels the labels attached to every reported metric
+     */
+    public void register(Metrics metrics, Map<String, String> labels) {
+        sources.add(new Source(metrics, labels));
+    }
+
+    /**
+     * Stops reporting the given {@link Metrics}.
+     *
+     * @param metrics the {@link Metrics} to stop reporting
+     */
+    public void unregister(Metrics metrics) {
+        sources.removeIf(source -> source.metrics == metrics);
+    }
+
+    /**
+     * Returns the summaries of all the registered metrics.
+     *
+     * @return the summaries of all the registered metrics
+     */
+    public List<MetricSummary> collect() {
+        List<MetricSummary> summaries = new ArrayList<>();
+        for (Source source : sources) {
+            for (String name : source.metrics.getMetricNames()) {
+                MetricSummary summary = MetricSummary.of(source.metrics, name, source.labels);
+                if (summary != null) {
+                    summaries.add(summary);
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Writes all the registered metrics with the exporter.
+     *
+     * @param writer the {@link Writer} to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void export(Writer writer) throws IOException {
+        exporter.export(writer, collect());
+    }
+
+    /**
+     * Returns the content type of the exported metrics.
+     *
+     * @return the content type of the exported metrics
+     */
+    public String getContentType() {
+        return exporter.getContentType();
+    }
+
+    /**
+     * Starts an HTTP server that serves the metrics at {@code /metrics}.
+     *
+     * @param address the address to listen on
+     * @throws IOException if the server cannot be started
+     * @throws UnsupportedOperationException if the runtime has no {@code jdk.httpserver} module
+     */
+    public synchronized void startServer(InetSocketAddress address) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("The metrics server is already started.");
+        }
+        try {
+            Class<? extends Server> clazz =
+                    Class.forName("ai.djl.metric.HttpMetricsServer").asSubclass(Server.class);
+            server =
+                    clazz.getDeclaredConstructor(MetricsReporter.class, InetSocketAddress.class)
+                            .newInstance(this, address);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Failed to start the metrics server", cause);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new UnsupportedOperationException(
+                    "The metrics server requires the jdk.httpserver module", e);
+        }
+        logger.info("Serving metrics on {}", server.getAddress());
+    }
+
+    /**
+     * Returns the address of the HTTP server.
+     *
+     * @return the address of the HTTP server, or {@code null} if it is not started
+     */
+    public synchronized InetSocketAddress getServerAddress() {
+        return server == null ? null : server.getAddress();
+    }
+
+    /**
+     * Periodically writes the metrics to a file.
+     *
+     * <p>The file is replaced atomically on every write, so readers never see a partial file.
+     *
+     * @param file the file to write to
+     * @param period the time between two writes
+     * @param unit the time unit of {@code period}
+     */
+    public synchronized void startFileExport(Path file, long period, TimeUnit unit) {
+        if (scheduler == null) {
+            scheduler =
+                    Executors.newSingleThreadScheduledExecutor(
+                            r -> {
+                                Thread thread = new Thread(r, "metrics-reporter");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
+        scheduler.scheduleAtFixedRate(() -> writeFile(file), period, period, unit);
+    }
+
+    /** Stops the HTTP server and the periodic file exports, waiting for a write in progress. */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+        if (scheduler != null) {
+            // lets a write in progress finish, so that no temporary file is left behind
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.warn("Timed out waiting for the metrics file export to finish");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+    }
+
+    private void writeFile(Path file) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    export(writer);
+                }
+                Files.move(
+                        tmp,
+                        file,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write metrics to {}", file, e);
+        }
+    }
+
+    /** A server that serves the metrics of a {@code MetricsReporter}. */
+    interface Server extends AutoCloseable {
+
+        /**
+         * Returns the address the server listens on.
+         *
+         * @return the address the server listens on
+         */
+        InetSocketAddress getAddress();
+
+        /** {@inheritDoc} */
+        @Override
+        void close();
+    }
+
+    private static final class Source {
+
+        Metrics metrics;
+        Map<String, String> labels;
+
+        Source(Metrics metrics, Map<String, String> labels) {
+            this.metrics = metrics;
+            this.labels = labels;
+        }
+    }
+}
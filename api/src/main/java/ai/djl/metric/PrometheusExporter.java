@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link MetricsExporter} that writes the Prometheus text exposition format.
+ *
+ * <p>Every metric is exported as a summary named {@code djl_<name>} with the 0.5, 0.9 and 0.99
+ * quantiles, {@code _sum} and {@code _count}, plus a {@code djl_<name>_latest} gauge holding the
+ * latest recorded value. Throughput can be derived with {@code rate(djl_<name>_count[1m])}.
+ * Metric names are sanitized to match the Prometheus naming rules, and the labels of each {@link
+ * MetricSummary} are attached to every sample.
+ */
+public class PrometheusExporter implements MetricsExporter {
+
+    private static final String PREFIX = "djl_";
+
+    /** {@inheritDoc} */
+    @Override
+    public String getContentType() {
+        return "text/plain; version=0.0.4; charset=utf-8";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void export(Writer writer, List<MetricSummary> summaries) throws IOException {
+        // Prometheus requires all samples of a metric family to be grouped together
+        Map<String, List<MetricSummary>> families = new LinkedHashMap<>();
+        for (MetricSummary summary : summaries) {
+            String name = PREFIX + sanitize(summary.getName());
+            families.computeIfAbsent(name, k -> new ArrayList<>()).add(summary);
+        }
+
+        for (Map.Entry<String, List<MetricSummary>> family : families.entrySet()) {
+            String name = family.getKey();
+            List<MetricSummary> list = family.getValue();
+            writer.write("# HELP " + name + ' ' + list.get(0).getName());
+            writer.write(" (" + list.get(0).getUnit() + ")\n");
+            writer.write("# TYPE " + name + " summary\n");
+            for (MetricSummary summary : list) {
+                String labels = formatLabels(summary.getLabels());
+                writeSample(writer, name, labels, "0.5", summary.getP50());
+                writeSample(writer, name, labels, "0.9", summary.getP90());
+                writeSample(writer, name, labels, "0.99", summary.getP99());
+                writeSample(writer, name + "_sum", labels, null, summary.getSum());
+                writeSample(writer, name + "_count", labels, null, summary.getCount());
+            }
+            writer.write("# TYPE " + name + "_latest gauge\n");
+            for (MetricSummary summary : list) {
+                String labels = formatLabels(summary.getLabels());
+                writeSample(writer, name + "_latest", labels, null, summary.getLatest());
+            }
+        }
+    }
+
+    private static void writeSample(
+            Writer writer, String name, String labels, String quantile, double value)
+            throws IOException {
+        writer.write(name);
+        if (quantile != null) {
+            if (labels.isEmpty()) {
+                writer.write("{quantile=\"" + quantile + "\"}");
+            } else {
+                writer.write(
+                        labels.substring(0, labels.length() - 1)
+                                + ",quantile=\""
+                                + quantile
+                                + "\"}");
+            }
+        } else {
+            writer.write(labels);
+        }
+        writer.write(' ');
+        writer.write(formatValue(value));
+        writer.write('\n');
+    }
+
+    private static String formatLabels(Map<String, String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, String> entry : labels.entrySet()) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(sanitize(entry.getKey())).append("=\"");
+            String value = entry.getValue();
+            for (int i = 0; i < value.length(); ++i) {
+                char c = value.charAt(i);
+                if (c == '\\' || c == '"') {
+                    sb.append('\\').append(c);
+                } else if (c == '\n') {
+                    sb.append("\\n");
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String sanitize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); ++i) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z')
+                    || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9' && i > 0)
+                    || c == '_') {
+                sb.append(c);
+            } else {
+                sb.append('_');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -28,12 +28,19 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.nio.file.Path;
 import java.util.List;
 import javax.imageio.ImageIO;
@@ -134,43 +141,84 @@ public class BufferedImageFactory extends ImageFactory {
         public NDArray toNDArray(NDManager manager, Flag flag) {
             int width = image.getWidth();
             int height = image.getHeight();
-            int channel;
-            if (flag == Flag.GRAYSCALE) {
-                channel = 1;
-            } else {
-                channel = 3;
-            }
+            boolean gray = flag == Flag.GRAYSCALE;
+            int channel = gray ? 1 : 3;
 
             ByteBuffer bb = manager.allocateDirect(channel * height * width);
-            if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
-                byte[] data = ((DataBufferByte) image.getData().getDataBuffer()).getData();
-                for (byte gray : data) {
-                    bb.put(gray);
-                    if (flag != Flag.GRAYSCALE) {
-                        bb.put(gray);
-                        bb.put(gray);
+            RowReader reader = new RowReader(image);
+            int[] pixels = new int[width];
+            byte[] row = new byte[channel * width];
+            for (int y = 0; y < height; ++y) {
+                reader.read(y, pixels);
+                if (gray) {
+                    for (int x = 0; x < width; ++x) {
+                        row[x] = (byte) toGray(pixels[x]);
                     }
-                }
-            } else {
-                // get an array of integer pixels in the default RGB color mode
-                int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
-                for (int rgb : pixels) {
-                    int red = (rgb >> 16) & 0xFF;
-                    int green = (rgb >> 8) & 0xFF;
-                    int blue = rgb & 0xFF;
-
-                    if (flag == Flag.GRAYSCALE) {
-                        int gray = (red + green + blue) / 3;
-                        bb.put((byte) gray);
-                    } else {
-                        bb.put((byte) red);
-                        bb.put((byte) green);
-                        bb.put((byte) blue);
+                } else {
+                    for (int x = 0, i = 0; x < width; ++x) {
+                        int rgb = pixels[x];
+                        row[i++] = (byte) (rgb >> 16);
+                        row[i++] = (byte) (rgb >> 8);
+                        row[i++] = (byte) rgb;
                     }
                 }
+                bb.put(row);
             }
             bb.rewind();
-            return manager.create(bb, new Shape(height, width, channel), DataType.UINT8);
+            NDArray array = manager.create(bb, new Shape(height, width, channel), DataType.UINT8);
+            manager.releaseDirect(bb);
+            return array;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>The pixels are converted in a single pass, each channel value is mapped to its
+         * normalized float with a lookup table.
+         */
+        @Override
+        public NDArray toTensor(NDManager manager, Flag flag, float[] mean, float[] std) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            boolean gray = flag == Flag.GRAYSCALE;
+            int channel = gray ? 1 : 3;
+            if ((mean.length != 1 && mean.length != channel)
+                    || (std.length != 1 && std.length != channel)) {
+                throw new IllegalArgumentException(
+                        "mean and std must have 1 or " + channel + " values");
+            }
+            float[][] table = new float[channel][256];
+            for (int c = 0; c < channel; ++c) {
+                float m = mean[mean.length == 1 ? 0 : c];
+                float s = std[std.length == 1 ? 0 : c];
+                for (int v = 0; v < 256; ++v) {
+                    table[c][v] = (v / 255f - m) / s;
+                }
+            }
+
+            int plane = height * width;
+            ByteBuffer bb = manager.allocateDirect(channel * plane * 4);
+            FloatBuffer fb = bb.asFloatBuffer();
+            RowReader reader = new RowReader(image);
+            int[] pixels = new int[width];
+            float[] row = new float[width];
+            for (int y = 0; y < height; ++y) {
+                reader.read(y, pixels);
+                for (int c = 0; c < channel; ++c) {
+                    float[] values = table[c];
+                    int shift = 16 - 8 * c;
+                    for (int x = 0; x < width; ++x) {
+                        int rgb = pixels[x];
+                        row[x] = values[gray ? toGray(rgb) : (rgb >> shift) & 0xFF];
+                    }
+                    fb.position(c * plane + y * width);
+                    fb.put(row);
+                }
+            }
+            fb.rewind();
+            NDArray array = manager.create(fb, new Shape(channel, height, width), DataType.FLOAT32);
+            manager.releaseDirect(bb);
+            return array;
         }
 
         /** {@inheritDoc} */
@@ -293,5 +341,86 @@ public class BufferedImageFactory extends ImageFactory {
             gR.drawImage(maskImage, x, y, null);
             gR.dispose();
         }
+
+        private static int toGray(int rgb) {
+            return (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
+        }
+    }
+
+    /**
+     * Reads the rows of a {@link BufferedImage} as RGB pixels.
+     *
+     * <p>The backing arrays of the {@code TYPE_3BYTE_BGR}, {@code TYPE_BYTE_GRAY}, {@code
+     * TYPE_INT_RGB} and {@code TYPE_INT_ARGB} images, including their subimages, are read directly.
+     * The other images are read with {@link BufferedImage#getRGB(int, int, int, int, int[], int,
+     * int)}, which converts the pixels through their color model.
+     */
+    private static final class RowReader {
+
+        private BufferedImage image;
+        private int width;
+        private byte[] bytes;
+        private int[] ints;
+        private int offset;
+        private int scanlineStride;
+        private int pixelStride;
+        private int red;
+        private int green;
+        private int blue;
+
+        RowReader(BufferedImage image) {
+            this.image = image;
+            width = image.getWidth();
+            WritableRaster raster = image.getRaster();
+            SampleModel model = raster.getSampleModel();
+            DataBuffer buffer = raster.getDataBuffer();
+            int x = -raster.getSampleModelTranslateX();
+            int y = -raster.getSampleModelTranslateY();
+            int type = image.getType();
+            if ((type == BufferedImage.TYPE_3BYTE_BGR || type == BufferedImage.TYPE_BYTE_GRAY)
+                    && model instanceof ComponentSampleModel
+                    && buffer instanceof DataBufferByte
+                    && buffer.getNumBanks() == 1) {
+                ComponentSampleModel sampleModel = (ComponentSampleModel) model;
+                scanlineStride = sampleModel.getScanlineStride();
+                pixelStride = sampleModel.getPixelStride();
+                offset = buffer.getOffset() + y * scanlineStride + x * pixelStride;
+                int[] bandOffsets = sampleModel.getBandOffsets();
+                red = bandOffsets[0];
+                // a gray pixel has the same value in the three channels
+                green = bandOffsets.length == 3 ? bandOffsets[1] : red;
+                blue = bandOffsets.length == 3 ? bandOffsets[2] : red;
+                bytes = ((DataBufferByte) buffer).getData();
+            } else if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                    && model instanceof SinglePixelPackedSampleModel
+                    && buffer instanceof DataBufferInt
+                    && buffer.getNumBanks() == 1) {
+                scanlineStride = ((SinglePixelPackedSampleModel) model).getScanlineStride();
+                offset = buffer.getOffset() + y * scanlineStride + x;
+                ints = ((DataBufferInt) buffer).getData();
+            }
+        }
+
+        /**
+         * Reads a row of pixels in the {@code 0xRRGGBB} format, the high byte is undefined.
+         *
+         * @param y the row to read
+         * @param pixels the array to read the pixels into
+         */
+        void read(int y, int[] pixels) {
+            if (bytes != null) {
+                int p = offset + y * scanlineStride;
+                for (int x = 0; x < width; ++x, p += pixelStride) {
+                    pixels[x] =
+                            (bytes[p + red] & 0xFF) << 16
+                                    | (bytes[p + green] & 0xFF) << 8
+                                    | (bytes[p + blue] & 0xFF);
+                }
+            } else if (ints != null) {
+                System.arraycopy(ints, offset + y * scanlineStride, pixels, 0, width);
+            } else {
+                image.getRGB(0, y, width, 1, pixels, 0, width);
+            }
+        }
     }
 }
@@ -14,6 +14,7 @@ package ai.djl.modality.cv;
 
 import ai.djl.modality.cv.output.DetectedObjects;
 import ai.djl.modality.cv.output.Joints;
+import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
 import java.io.IOException;
@@ -84,6 +85,25 @@ public interface Image {
      */
     NDArray toNDArray(NDManager manager, Flag flag);
 
+    /**
+     * Converts image to a normalized {@link ai.djl.ndarray.types.DataType#FLOAT32} {@link NDArray}
+     * of shape CHW.
+     *
+     * <p>The result is the same as {@link #toNDArray(NDManager, Flag)} followed by {@link
+     * NDImageUtils#toTensor(NDArray)} and {@link NDImageUtils#normalize(NDArray, float[],
+     * float[])}, but implementations can convert the image in a single pass.
+     *
+     * @param manager a {@link NDManager} to create the new NDArray with
+     * @param flag the color mode
+     * @param mean the mean to normalize with for each channel
+     * @param std the standard deviation to normalize with for each channel
+     * @return {@link NDArray}
+     */
+    default NDArray toTensor(NDManager manager, Flag flag, float[] mean, float[] std) {
+        NDArray array = NDImageUtils.toTensor(toNDArray(manager, flag));
+        return NDImageUtils.normalize(array, mean, std);
+    }
+
     /**
      * Save the image to file.
      *
@@ -14,20 +14,26 @@ package ai.djl.modality.nlp;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
-/** The simple implementation of Vocabulary. */
+/**
+ * The simple implementation of Vocabulary.
+ *
+ * <p>The frequencies of the tokens are only counted while the vocabulary is built. The tokens are
+ * then kept in a {@link TokenIndex}, the tokens that are frequent enough first in the order of
+ * their indices, followed by the rarely-seen tokens.
+ */
 public class SimpleVocabulary implements Vocabulary {
 
-    private Map<String, TokenInfo> tokens = new ConcurrentHashMap<>();
-    private List<String> indexToToken = new ArrayList<>();
+    private TokenIndex tokens;
+    private int numIndexed;
     private Set<String> reservedTokens;
-    private int minFrequency;
     private String unknownToken;
 
     /**
@@ -37,30 +43,43 @@ public class SimpleVocabulary implements Vocabulary {
      */
     public SimpleVocabulary(VocabularyBuilder builder) {
         reservedTokens = builder.reservedTokens;
-        minFrequency = builder.minFrequency;
         unknownToken = builder.unknownToken;
         reservedTokens.add(unknownToken);
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        List<String> indexed = new ArrayList<>();
         for (List<String> sentence : builder.sentences) {
-            addAllTokens(sentence);
+            for (String token : sentence) {
+                if (reservedTokens.contains(token)) {
+                    continue;
+                }
+                int[] frequency = frequencies.computeIfAbsent(token, k -> new int[1]);
+                if (++frequency[0] == builder.minFrequency) {
+                    indexed.add(token);
+                }
+            }
         }
-    }
-
-    private void addToken(String token) {
-        if (reservedTokens.contains(token)) {
-            return;
+        for (Map.Entry<String, Integer> entry : builder.tokenCounts.entrySet()) {
+            String token = entry.getKey();
+            if (reservedTokens.contains(token)) {
+                continue;
+            }
+            int[] frequency = frequencies.computeIfAbsent(token, k -> new int[1]);
+            int before = frequency[0];
+            frequency[0] += entry.getValue();
+            if (before < builder.minFrequency && frequency[0] >= builder.minFrequency) {
+                indexed.add(token);
+            }
         }
-        TokenInfo tokenInfo = tokens.getOrDefault(token, new TokenInfo());
-        if (++tokenInfo.frequency == minFrequency) {
-            tokenInfo.index = indexToToken.size();
-            indexToToken.add(token);
-        }
-        tokens.put(token, tokenInfo);
-    }
-
-    private void addAllTokens(Collection<String> tokens) {
-        for (String token : tokens) {
-            addToken(token);
+        numIndexed = indexed.size();
+        List<String> all = new ArrayList<>(frequencies.size());
+        all.addAll(indexed);
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            if (entry.getValue()[0] < builder.minFrequency) {
+                all.add(entry.getKey());
+            }
         }
+        tokens = TokenIndex.of(all);
     }
 
     /**
@@ -73,10 +92,8 @@ public class SimpleVocabulary implements Vocabulary {
         if (reservedTokens.contains(token)) {
             return true;
         }
-        if (!tokens.containsKey(token)) {
-            return false;
-        }
-        return tokens.get(token).frequency >= minFrequency;
+        int index = tokens.indexOf(token);
+        return index >= 0 && index < numIndexed;
     }
 
     /**
@@ -96,10 +113,10 @@ public class SimpleVocabulary implements Vocabulary {
      */
     @Override
     public String getToken(long index) {
-        if (index < 0 || index >= indexToToken.size()) {
+        if (index < 0 || index >= numIndexed) {
             return unknownToken;
         }
-        return indexToToken.get((int) index);
+        return tokens.get((int) index);
     }
 
     /**
@@ -108,7 +125,7 @@ public class SimpleVocabulary implements Vocabulary {
      * @return the token corresponding to the given index
      */
     public List<String> getAllTokens() {
-        Set<String> tokenSet = new HashSet<>(indexToToken);
+        Set<String> tokenSet = new HashSet<>(tokens.subList(0, numIndexed));
         List<String> tokenList = new ArrayList<>();
         tokenList.addAll(reservedTokens);
         tokenSet.removeAll(reservedTokens);
@@ -124,10 +141,17 @@ public class SimpleVocabulary implements Vocabulary {
      */
     @Override
     public long getIndex(String token) {
-        if (tokens.containsKey(token)) {
-            return tokens.get(token).index;
+        return toIndex(tokens.indexOf(token));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long[] getIndices(String... tokens) {
+        long[] indices = this.tokens.indicesOf(tokens);
+        for (int i = 0; i < indices.length; ++i) {
+            indices[i] = toIndex((int) indices[i]);
         }
-        return 0;
+        return indices;
     }
 
     /**
@@ -139,9 +163,18 @@ public class SimpleVocabulary implements Vocabulary {
         return tokens.size();
     }
 
+    private long toIndex(int position) {
+        if (position < 0) {
+            return 0;
+        }
+        // rarely-seen tokens have no index
+        return position < numIndexed ? position : -1;
+    }
+
     /** Builder class that is used to build the {@link SimpleVocabulary}. */
     public static class VocabularyBuilder {
         protected List<List<String>> sentences = new LinkedList<>();
+        protected Map<String, Integer> tokenCounts = new LinkedHashMap<>();
         protected Set<String> reservedTokens = new HashSet<>();
         protected int minFrequency = 10;
         protected String unknownToken = "<unk>";
@@ -203,6 +236,24 @@ public class SimpleVocabulary implements Vocabulary {
             return this;
         }
 
+        /**
+         * Adds the given token counts to the {@link SimpleVocabulary}.
+         *
+         * <p>Unlike {@link #add(List)}, the sentences don't need to be kept until the vocabulary
+         * is built, so that a large corpus can be counted in parallel by merging the counts of
+         * each part. The tokens are indexed in the iteration order of the map once their count
+         * reaches the minimum frequency.
+         *
+         * @param tokenCounts the number of occurrences of each token
+         * @return this {@code VocabularyBuilder}
+         */
+        public VocabularyBuilder addTokenCounts(Map<String, Integer> tokenCounts) {
+            for (Map.Entry<String, Integer> entry : tokenCounts.entrySet()) {
+                this.tokenCounts.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+            return this;
+        }
+
         /**
          * Builds the {@link SimpleVocabulary} object with the set arguments.
          *
@@ -212,15 +263,4 @@ public class SimpleVocabulary implements Vocabulary {
             return new SimpleVocabulary(this);
         }
     }
-
-    /**
-     * {@code TokenInfo} represents the information stored in the {@link SimpleVocabulary} about a
-     * given token.
-     */
-    private static final class TokenInfo {
-        int frequency;
-        long index = -1;
-
-        public TokenInfo() {}
-    }
 }
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A {@code TokenIndex} is a compact, immutable list of tokens that finds the position of a token
+ * in constant time.
+ *
+ * <p>Instead of one {@link String} object per token and a boxed hash map, the characters of all the
+ * tokens are stored in a single pool, together with the offset of each token in the pool and an
+ * open-addressing hash table of the token positions. The three arrays take about {@code 2 * chars +
+ * 12 * tokens} bytes and contain no object references, so that multi-million-token vocabularies
+ * cost the garbage collector nothing. The arrays can be saved to a file with {@link #save(Path)}
+ * and memory-mapped with {@link #load(Path)}, which keeps them off the Java heap.
+ *
+ * <p>A {@code TokenIndex} is a read-only {@link List}: {@link #indexOf(Object)} and {@link
+ * #contains(Object)} use the hash table, and {@link #indicesOf(String...)} looks up many tokens at
+ * once. If a token appears several times, its first position is returned. A {@code TokenIndex} is
+ * safe to share between threads.
+ *
+ * <p>The file layout is:
+ *
+ * <pre>
+ * header   "TKIX", version (int), byte order (byte), padding, size (int), capacity (int),
+ *          pool length (int), padding
+ * offsets  size + 1 ints, the start of each token in the pool
+ * table    capacity ints, the position of a token plus one, or zero for an empty slot
+ * pool     pool length chars
+ * </pre>
+ *
+ * <p>The magic and version are big-endian, the rest of the file uses the byte order recorded in the
+ * header.
+ */
+public final class TokenIndex extends AbstractList<String> implements RandomAccess {
+
+    static final byte[] MAGIC = "TKIX".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private static final int MAX_SIZE = 1 << 29;
+
+    private int size;
+    private IntBuffer offsets;
+    private IntBuffer table;
+    private CharBuffer pool;
+    private int mask;
+
+    private TokenIndex(int size, IntBuffer offsets, IntBuffer table, CharBuffer pool) {
+        this.size = size;
+        this.offsets = offsets;
+        this.table = table;
+        this.pool = pool;
+        mask = table.limit() - 1;
+    }
+
+    /**
+     * Creates a {@code TokenIndex} of the given tokens.
+     *
+     * @param tokens the tokens, in the order of their positions
+     * @return a new {@code TokenIndex}
+     */
+    public static TokenIndex of(List<String> tokens) {
+        if (tokens instanceof TokenIndex) {
+            return (TokenIndex) tokens;
+        }
+        int size = tokens.size();
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Too many tokens: " + size);
+        }
+        int[] offsets = new int[size + 1];
+        long length = 0;
+        for (int i = 0; i < size; ++i) {
+            offsets[i] = (int) length;
+            length += tokens.get(i).length();
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The tokens have too many characters");
+            }
+        }
+        offsets[size] = (int) length;
+        char[] chars = new char[(int) length];
+        for (int i = 0; i < size; ++i) {
+            String token = tokens.get(i);
+            token.getChars(0, token.length(), chars, offsets[i]);
+        }
+
+        // a power of two with a load factor of at most 0.5
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        TokenIndex index =
+                new TokenIndex(
+                        size,
+                        IntBuffer.wrap(offsets),
+                        IntBuffer.wrap(new int[capacity]),
+                        CharBuffer.wrap(chars));
+        for (int i = 0; i < size; ++i) {
+            index.insert(i, tokens.get(i));
+        }
+        return index;
+    }
+
+    /**
+     * Memory-maps a {@code TokenIndex} saved with {@link #save(Path)}.
+     *
+     * <p>The file stays mapped until the returned {@code TokenIndex} is garbage collected.
+     *
+     * @param file the file to map
+     * @return the mapped {@code TokenIndex}
+     * @throws IOException if an I/O error occurs or the file is not a {@code TokenIndex}
+     */
+    public static TokenIndex load(Path file) throws IOException {
+        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = fc.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Not a TokenIndex: " + file);
+            }
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("TokenIndex is too large to be mapped: " + file);
+            }
+            ByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            for (int i = 0; i < MAGIC.length; ++i) {
+                if (bb.get(i) != MAGIC[i]) {
+                    throw new IOException("Not a TokenIndex: " + file);
+                }
+            }
+            int version = bb.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported TokenIndex version " + version);
+            }
+            ByteOrder order = bb.get(8) == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            bb.order(order);
+            int size = bb.getInt(12);
+            int capacity = bb.getInt(16);
+            int poolLength = bb.getInt(20);
+            long offsetsBytes = (size + 1L) * 4;
+            long tableBytes = capacity * 4L;
+            if (size < 0
+                    || capacity <= 0
+                    || Integer.bitCount(capacity) != 1
+                    || poolLength < 0
+                    || HEADER_SIZE + offsetsBytes + tableBytes + poolLength * 2L != fileSize) {
+                throw new IOException("TokenIndex is malformed: " + file);
+            }
+
+            int position = HEADER_SIZE;
+            IntBuffer offsets = slice(bb, position, (int) offsetsBytes, order).asIntBuffer();
+            position += (int) offsetsBytes;
+            IntBuffer table = slice(bb, position, (int) tableBytes, order).asIntBuffer();
+            position += (int) tableBytes;
+            if (!isValid(offsets, table, size, poolLength)) {
+                throw new IOException("TokenIndex is malformed: " + file);
+            }
+            CharBuffer pool = slice(bb, position, poolLength * 2, order).asCharBuffer();
+            return new TokenIndex(size, offsets, table, pool);
+        }
+    }
+
+    /**
+     * Saves this {@code TokenIndex} to a file that can be memory-mapped with {@link #load(Path)}.
+     *
+     * @param file the file to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void save(Path file) throws IOException {
+        ByteOrder order = ByteOrder.nativeOrder();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC);
+        header.putInt(VERSION);
+        header.put((byte) (order == ByteOrder.BIG_ENDIAN ? 1 : 0));
+        header.order(order);
+        header.putInt(12, size);
+        header.putInt(16, table.limit());
+        header.putInt(20, pool.limit());
+        header.rewind();
+
+        ByteBuffer offsetsBytes = ByteBuffer.allocate(offsets.limit() * 4).order(order);
+        offsetsBytes.asIntBuffer().put(offsets.duplicate());
+        ByteBuffer tableBytes = ByteBuffer.allocate(table.limit() * 4).order(order);
+        tableBytes.asIntBuffer().put(table.duplicate());
+        ByteBuffer poolBytes = ByteBuffer.allocate(pool.limit() * 2).order(order);
+        poolBytes.asCharBuffer().put(pool.duplicate());
+
+        try (FileChannel fc =
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, offsetsBytes, tableBytes, poolBytes};
+            long remaining = HEADER_SIZE + offsetsBytes.limit() + tableBytes.limit();
+            remaining += poolBytes.limit();
+            while (remaining > 0) {
+                remaining -= fc.write(buffers);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int start = offsets.get(index);
+        char[] chars = new char[offsets.get(index + 1) - start];
+        for (int i = 0; i < chars.length; ++i) {
+            chars[i] = pool.get(start + i);
+        }
+        return new String(chars);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof CharSequence)) {
+            return -1;
+        }
+        CharSequence token = (CharSequence) o;
+        for (int slot = slot(token); ; slot = (slot + 1) & mask) {
+            int entry = table.get(slot);
+            if (entry == 0) {
+                return -1;
+            }
+            if (matches(entry - 1, token)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Returns the positions of the given tokens.
+     *
+     * @param tokens the tokens to look up
+     * @return the position of each token, or -1 for the tokens that are not in this index
+     */
+    public long[] indicesOf(String... tokens) {
+        long[] indices = new long[tokens.length];
+        for (int i = 0; i < tokens.length; ++i) {
+            indices[i] = indexOf(tokens[i]);
+        }
+        return indices;
+    }
+
+    private void insert(int index, String token) {
+        for (int slot = slot(token); ; slot = (slot + 1) & mask) {
+            int entry = table.get(slot);
+            if (entry == 0) {
+                table.put(slot, index + 1);
+                return;
+            }
+            if (matches(entry - 1, token)) {
+                // keep the first position of duplicated tokens
+                return;
+            }
+        }
+    }
+
+    private int slot(CharSequence token) {
+        // String caches its hash code, other char sequences compute the same hash
+        int h;
+        if (token instanceof String) {
+            h = token.hashCode();
+        } else {
+            h = 0;
+            for (int i = 0; i < token.length(); ++i) {
+                h = 31 * h + token.charAt(i);
+            }
+        }
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private boolean matches(int index, CharSequence token) {
+        int start = offsets.get(index);
+        int length = offsets.get(index + 1) - start;
+        if (length != token.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (pool.get(start + i) != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValid(IntBuffer offsets, IntBuffer table, int size, int poolLength) {
+        int previous = 0;
+        if (offsets.get(0) != 0) {
+            return false;
+        }
+        for (int i = 1; i <= size; ++i) {
+            int offset = offsets.get(i);
+            if (offset < previous || offset > poolLength) {
+                return false;
+            }
+            previous = offset;
+        }
+        // lookups probe until they reach an empty slot, so the table needs at least one
+        boolean hasEmptySlot = false;
+        for (int i = 0; i < table.limit(); ++i) {
+            int entry = table.get(i);
+            if (entry < 0 || entry > size) {
+                return false;
+            }
+            hasEmptySlot |= entry == 0;
+        }
+        return hasEmptySlot;
+    }
+
+    private static ByteBuffer slice(ByteBuffer bb, int position, int length, ByteOrder order) {
+        ByteBuffer dup = bb.duplicate();
+        dup.position(position);
+        dup.limit(position + length);
+        return dup.slice().order(order);
+    }
+}
@@ -32,4 +32,18 @@ public interface Vocabulary {
      * @return the index of the given token
      */
     long getIndex(String token);
+
+    /**
+     * Returns the indices of the given tokens.
+     *
+     * @param tokens the tokens
+     * @return the index of each token
+     */
+    default long[] getIndices(String... tokens) {
+        long[] indices = new long[tokens.length];
+        for (int i = 0; i < tokens.length; ++i) {
+            indices[i] = getIndex(tokens[i]);
+        }
+        return indices;
+    }
 }
@@ -12,13 +12,16 @@
  */
 package ai.djl.modality.nlp.bert;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /** BertToken contains all the information for Bert model after encoding question and paragraph. */
 public class BertToken {
     private List<String> tokens;
-    private List<Long> tokenType;
-    private List<Long> attentionMask;
+    private long[] indices;
+    private long[] tokenType;
+    private long[] attentionMask;
     private int validLength;
 
     /**
@@ -31,7 +34,32 @@ public class BertToken {
      */
     public BertToken(
             List<String> tokens, List<Long> tokenType, List<Long> attentionMask, int validLength) {
+        this(
+                tokens,
+                null,
+                tokenType.stream().mapToLong(Long::longValue).toArray(),
+                attentionMask.stream().mapToLong(Long::longValue).toArray(),
+                validLength);
+    }
+
+    /**
+     * Creates an instance of BertToken which includes information for Bert model.
+     *
+     * @param tokens the input sequence tokens
+     * @param indices indices of input sequence tokens in the vocabulary, or {@code null} if the
+     *     tokens were not looked up in a vocabulary
+     * @param tokenType segment token indices to indicate first and second portions of the inputs
+     * @param attentionMask mask to avoid performing attention on padding token indices
+     * @param validLength length that indicates the original input sequence
+     */
+    public BertToken(
+            List<String> tokens,
+            long[] indices,
+            long[] tokenType,
+            long[] attentionMask,
+            int validLength) {
         this.tokens = tokens;
+        this.indices = indices;
         this.tokenType = tokenType;
         this.attentionMask = attentionMask;
         this.validLength = validLength;
@@ -46,12 +74,31 @@ public class BertToken {
         return tokens;
     }
 
+    /**
+     * Gets the indices of the input sequence tokens in the vocabulary.
+     *
+     * @return the indices of the tokens, or {@code null} if the tokens were not looked up in a
+     *     vocabulary
+     */
+    public long[] getIndices() {
+        return indices;
+    }
+
     /**
      * Gets segment token indices to indicate first and second portions of the inputs.
      *
      * @return segment token indices
      */
     public List<Long> getTokenTypes() {
+        return Arrays.stream(tokenType).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * Gets segment token indices to indicate first and second portions of the inputs.
+     *
+     * @return segment token indices
+     */
+    public long[] getTokenTypeArray() {
         return tokenType;
     }
 
@@ -61,6 +108,15 @@ public class BertToken {
      * @return mask that performs attention on non-padding token indices
      */
     public List<Long> getAttentionMask() {
+        return Arrays.stream(attentionMask).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the mask to avoid performing attention on padding token indices.
+     *
+     * @return mask that performs attention on non-padding token indices
+     */
+    public long[] getAttentionMaskArray() {
         return attentionMask;
     }
 
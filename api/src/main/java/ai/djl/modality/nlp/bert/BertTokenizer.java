@@ -19,7 +19,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /** BertTokenizer is a class to help you encode question and paragraph sentence. */
 public class BertTokenizer extends SimpleTokenizer {
@@ -88,11 +87,7 @@ public class BertTokenizer extends SimpleTokenizer {
         long[] attentionMaskArr = new long[tokens.size()];
         Arrays.fill(attentionMaskArr, 1);
 
-        return new BertToken(
-                tokens,
-                Arrays.stream(tokenTypeArr).boxed().collect(Collectors.toList()),
-                Arrays.stream(attentionMaskArr).boxed().collect(Collectors.toList()),
-                validLength);
+        return new BertToken(tokens, null, tokenTypeArr, attentionMaskArr, validLength);
     }
 
     /**
@@ -105,10 +100,12 @@ public class BertTokenizer extends SimpleTokenizer {
      */
     public BertToken encode(String question, String paragraph, int maxLength) {
         BertToken bertToken = encode(question, paragraph);
+        int length = Math.max(bertToken.getTokens().size(), maxLength);
         return new BertToken(
                 pad(bertToken.getTokens(), "[PAD]", maxLength),
-                pad(bertToken.getTokenTypes(), 0L, maxLength),
-                pad(bertToken.getAttentionMask(), 0L, maxLength),
+                null,
+                Arrays.copyOf(bertToken.getTokenTypeArray(), length),
+                Arrays.copyOf(bertToken.getAttentionMaskArray(), length),
                 bertToken.getValidLength());
     }
 }
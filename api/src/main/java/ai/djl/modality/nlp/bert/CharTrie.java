@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable trie that maps strings to non-negative ints.
+ *
+ * <p>The children of all the nodes are stored in flat arrays, sorted by character, so that the
+ * trie uses a few bytes per node and lookups do not allocate.
+ */
+final class CharTrie {
+
+    private int[] childStart;
+    private char[] childChars;
+    private int[] childNodes;
+    private int[] values;
+
+    /**
+     * Builds a trie of the given keys.
+     *
+     * @param keys the keys
+     * @param keyValues the value of each key
+     */
+    CharTrie(List<String> keys, int[] keyValues) {
+        Node root = new Node();
+        int count = 1;
+        for (int i = 0; i < keys.size(); ++i) {
+            Node node = root;
+            String key = keys.get(i);
+            for (int j = 0; j < key.length(); ++j) {
+                Node child = node.children.get(key.charAt(j));
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(key.charAt(j), child);
+                    ++count;
+                }
+                node = child;
+            }
+            if (node.value < 0) {
+                node.value = keyValues[i];
+            }
+        }
+
+        // number the nodes in breadth first order, so that the children of a node are contiguous
+        childStart = new int[count + 1];
+        childChars = new char[count - 1];
+        childNodes = new int[count - 1];
+        values = new int[count];
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        int index = 0;
+        int next = 1;
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            values[index] = node.value;
+            childStart[index] = next - 1;
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                childChars[next - 1] = entry.getKey();
+                childNodes[next - 1] = next;
+                queue.add(entry.getValue());
+                ++next;
+            }
+            ++index;
+        }
+        childStart[count] = count - 1;
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key the characters of the key
+     * @param start the index of the first character of the key
+     * @param end the index after the last character of the key
+     * @return the value of the key, or -1 if the key is not in the trie
+     */
+    int get(CharSequence key, int start, int end) {
+        int node = 0;
+        for (int i = start; i < end && node >= 0; ++i) {
+            node = child(node, key.charAt(i));
+        }
+        return node < 0 ? -1 : values[node];
+    }
+
+    /**
+     * Returns the longest key that is a prefix of the given characters.
+     *
+     * @param text the characters
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @return the value of the key in the low 32 bits and its length in the high 32 bits, or -1 if
+     *     no key is a prefix of the characters
+     */
+    long longestPrefix(CharSequence text, int start, int end) {
+        long match = values[0] < 0 ? -1 : values[0];
+        int node = 0;
+        for (int i = start; i < end; ++i) {
+            node = child(node, text.charAt(i));
+            if (node < 0) {
+                break;
+            }
+            if (values[node] >= 0) {
+                match = ((long) (i + 1 - start) << 32) | values[node];
+            }
+        }
+        return match;
+    }
+
+    private int child(int node, char c) {
+        int from = childStart[node];
+        int to = childStart[node + 1];
+        int found = Arrays.binarySearch(childChars, from, to, c);
+        return found < 0 ? -1 : childNodes[found];
+    }
+
+    private static final class Node {
+
+        Map<Character, Node> children = new TreeMap<>();
+        int value = -1;
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code WordpieceTokenizer} splits text into the WordPiece tokens of a {@link
+ * WordpieceVocabulary}, as the tokenizer of the original BERT models does.
+ *
+ * <p>The text is first split on whitespace, punctuation and CJK characters, optionally lower cased
+ * with its accents removed. Each word is then split greedily into the longest pieces of the
+ * vocabulary, and words that cannot be split are replaced by {@code [UNK]}. The tokenizer emits
+ * the indices of the tokens directly, without creating intermediate strings, and can be shared by
+ * several threads.
+ */
+public class WordpieceTokenizer extends BertTokenizer {
+
+    private WordpieceVocabulary vocabulary;
+    private boolean lowerCase;
+    private int maxInputChars;
+    private int clsIndex;
+    private int sepIndex;
+    private int padIndex;
+
+    /**
+     * Creates an uncased {@code WordpieceTokenizer} that replaces words longer than 100 characters
+     * with {@code [UNK]}.
+     *
+     * @param vocabulary the vocabulary
+     */
+    public WordpieceTokenizer(WordpieceVocabulary vocabulary) {
+        this(vocabulary, true, 100);
+    }
+
+    /**
+     * Creates a {@code WordpieceTokenizer}.
+     *
+     * @param vocabulary the vocabulary
+     * @param lowerCase true to lower case the text and remove its accents, for uncased models
+     * @param maxInputChars the length of the longest word to split, longer words are replaced
+     *     with {@code [UNK]}
+     */
+    public WordpieceTokenizer(
+            WordpieceVocabulary vocabulary, boolean lowerCase, int maxInputChars) {
+        this.vocabulary = vocabulary;
+        this.lowerCase = lowerCase;
+        this.maxInputChars = maxInputChars;
+        clsIndex = (int) vocabulary.getIndex("[CLS]");
+        sepIndex = (int) vocabulary.getIndex("[SEP]");
+        padIndex = (int) vocabulary.getIndex("[PAD]");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<String> tokenize(String input) {
+        return toTokens(tokenizeToIndices(input), 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String buildSentence(List<String> tokens) {
+        StringBuilder sb = new StringBuilder();
+        for (String token : tokens) {
+            if (token.startsWith(WordpieceVocabulary.CONTINUATION_PREFIX) && token.length() > 2) {
+                sb.append(token, WordpieceVocabulary.CONTINUATION_PREFIX.length(), token.length());
+            } else {
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(token);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Splits the text into the indices of its tokens in the vocabulary.
+     *
+     * @param input the text
+     * @return the indices of the tokens
+     */
+    public int[] tokenizeToIndices(String input) {
+        IndexBuffer buffer = new IndexBuffer(input.length() / 4 + 1);
+        tokenize(input, buffer);
+        return Arrays.copyOf(buffer.data, buffer.size);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned {@link BertToken} contains the indices of the tokens in the vocabulary.
+     */
+    @Override
+    public BertToken encode(String question, String paragraph) {
+        return encode(question, paragraph, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The paragraph is truncated if the encoded tokens do not fit in {@code maxLength}, and the
+     * question as well if it does not fit by itself. The returned {@link BertToken} contains the
+     * indices of the tokens in the vocabulary.
+     */
+    @Override
+    public BertToken encode(String question, String paragraph, int maxLength) {
+        return encode(question, paragraph, maxLength, true);
+    }
+
+    /**
+     * Encodes questions and paragraph sentences, truncating the paragraph if the encoded tokens do
+     * not fit in {@code maxLength}, and the question if it does not fit by itself.
+     *
+     * @param question the input question
+     * @param paragraph the input paragraph
+     * @param maxLength the maximum number of tokens, at least 3, or 0 for no limit
+     * @param pad true to pad the tokens to {@code maxLength}
+     * @return a {@link BertToken} that contains the indices of the tokens in the vocabulary
+     */
+    public BertToken encode(String question, String paragraph, int maxLength, boolean pad) {
+        if (maxLength < 0 || (maxLength > 0 && maxLength < 3)) {
+            throw new IllegalArgumentException(
+                    "maxLength must fit the [CLS] and [SEP] tokens, got " + maxLength);
+        }
+        IndexBuffer buffer = new IndexBuffer(question.length() / 4 + paragraph.length() / 4 + 4);
+        buffer.add(clsIndex);
+        tokenize(question, buffer);
+        if (maxLength > 0 && buffer.size + 2 > maxLength) {
+            // keep room for the two [SEP] tokens
+            buffer.size = maxLength - 2;
+        }
+        buffer.add(sepIndex);
+        int questionEnd = buffer.size;
+        tokenize(paragraph, buffer);
+        if (maxLength > 0 && buffer.size + 1 > maxLength) {
+            buffer.size = Math.max(maxLength - 1, questionEnd);
+        }
+        buffer.add(sepIndex);
+
+        int length = pad ? Math.max(buffer.size, maxLength) : buffer.size;
+        long[] indices = new long[length];
+        long[] tokenTypes = new long[length];
+        long[] attentionMask = new long[length];
+        for (int i = 0; i < buffer.size; ++i) {
+            indices[i] = buffer.data[i];
+            attentionMask[i] = 1;
+        }
+        Arrays.fill(indices, buffer.size, length, padIndex);
+        Arrays.fill(tokenTypes, questionEnd, buffer.size, 1);
+
+        List<String> tokens = toTokens(Arrays.copyOf(buffer.data, buffer.size), length);
+        return new BertToken(tokens, indices, tokenTypes, attentionMask, buffer.size - 3);
+    }
+
+    /**
+     * Returns the index of the {@code [PAD]} token.
+     *
+     * @return the index of the {@code [PAD]} token
+     */
+    public int getPadIndex() {
+        return padIndex;
+    }
+
+    private List<String> toTokens(int[] indices, int length) {
+        List<String> tokens = new ArrayList<>(Math.max(indices.length, length));
+        for (int index : indices) {
+            tokens.add(vocabulary.getToken(index));
+        }
+        for (int i = indices.length; i < length; ++i) {
+            tokens.add("[PAD]");
+        }
+        return tokens;
+    }
+
+    private void tokenize(String input, IndexBuffer buffer) {
+        String text = normalize(input);
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isSeparator(c)) {
+                ++i;
+            } else if (isPunctuation(c) || isCjk(c)) {
+                splitWord(text, i, i + 1, buffer);
+                ++i;
+            } else {
+                int start = i;
+                while (i < length) {
+                    c = text.charAt(i);
+                    if (isSeparator(c) || isPunctuation(c) || isCjk(c)) {
+                        break;
+                    }
+                    ++i;
+                }
+                splitWord(text, start, i, buffer);
+            }
+        }
+    }
+
+    private void splitWord(String text, int start, int end, IndexBuffer buffer) {
+        if (end - start > maxInputChars) {
+            buffer.add(vocabulary.getUnknownIndex());
+            return;
+        }
+        int mark = buffer.size;
+        boolean continuation = false;
+        int pos = start;
+        while (pos < end) {
+            long piece = vocabulary.longestPiece(text, pos, end, continuation);
+            if (piece < 0) {
+                buffer.size = mark;
+                buffer.add(vocabulary.getUnknownIndex());
+                return;
+            }
+            buffer.add((int) piece);
+            pos += (int) (piece >>> 32);
+            continuation = true;
+        }
+    }
+
+    private String normalize(String input) {
+        if (!lowerCase) {
+            return input;
+        }
+        String text = input.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < text.length(); ++i) {
+            if (text.charAt(i) > 0x7F) {
+                // strip the accents
+                text = Normalizer.normalize(text, Normalizer.Form.NFD);
+                StringBuilder sb = new StringBuilder(text.length());
+                for (int j = 0; j < text.length(); ++j) {
+                    char c = text.charAt(j);
+                    if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                        sb.append(c);
+                    }
+                }
+                return sb.toString();
+            }
+        }
+        return text;
+    }
+
+    private static boolean isSeparator(char c) {
+        if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return c == 0 || c == 0xFFFD || type == Character.CONTROL || type == Character.FORMAT;
+    }
+
+    private static boolean isPunctuation(char c) {
+        if ((c >= 33 && c <= 47) || (c >= 58 && c <= 64) || (c >= 91 && c <= 96)) {
+            return true;
+        }
+        if (c >= 123 && c <= 126) {
+            return true;
+        }
+        if (c < 0x80) {
+            return false;
+        }
+        switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isCjk(char c) {
+        return (c >= 0x4E00 && c <= 0x9FFF)
+                || (c >= 0x3400 && c <= 0x4DBF)
+                || (c >= 0xF900 && c <= 0xFAFF);
+    }
+
+    /** A growable array of token indices. */
+    private static final class IndexBuffer {
+
+        int[] data;
+        int size;
+
+        IndexBuffer(int capacity) {
+            data = new int[capacity];
+        }
+
+        void add(int index) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = index;
+        }
+    }
+}
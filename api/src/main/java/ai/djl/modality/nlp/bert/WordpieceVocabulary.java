@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link BertVocabulary} of WordPiece tokens.
+ *
+ * <p>The tokens are indexed with two tries, one for the pieces that start a word and one for the
+ * pieces that continue a word, which are prefixed with {@value #CONTINUATION_PREFIX} in the
+ * vocabulary. The tries are used both to look up the index of a token and to find the longest
+ * piece at a given position of a word. The vocabulary is immutable and can be shared by all the
+ * predictors of a model.
+ */
+public class WordpieceVocabulary extends BertVocabulary {
+
+    /** The prefix of the tokens that continue a word. */
+    public static final String CONTINUATION_PREFIX = "##";
+
+    private String[] tokens;
+    private CharTrie pieces;
+    private CharTrie continuations;
+    private int unknownIndex;
+
+    /**
+     * Creates a {@code WordpieceVocabulary} of the given tokens.
+     *
+     * @param tokens the tokens, in the order of their indices
+     */
+    protected WordpieceVocabulary(List<String> tokens) {
+        this.tokens = tokens.toArray(new String[0]);
+        List<String> pieceKeys = new ArrayList<>();
+        List<String> continuationKeys = new ArrayList<>();
+        int[] pieceValues = new int[tokens.size()];
+        int[] continuationValues = new int[tokens.size()];
+        for (int i = 0; i < tokens.size(); ++i) {
+            String token = tokens.get(i);
+            if (token.startsWith(CONTINUATION_PREFIX) && token.length() > 2) {
+                continuationValues[continuationKeys.size()] = i;
+                continuationKeys.add(token.substring(CONTINUATION_PREFIX.length()));
+            } else {
+                pieceValues[pieceKeys.size()] = i;
+                pieceKeys.add(token);
+            }
+        }
+        pieces = new CharTrie(pieceKeys, pieceValues);
+        continuations = new CharTrie(continuationKeys, continuationValues);
+        unknownIndex = pieces.get("[UNK]", 0, 5);
+        if (unknownIndex < 0) {
+            throw new IllegalArgumentException("The vocabulary must contain the [UNK] token");
+        }
+    }
+
+    /**
+     * Parses a vocabulary file with one token per line, such as {@code vocab.txt} of BERT models.
+     *
+     * @param is the input InputStream of the vocabulary file
+     * @return an instance of {@code WordpieceVocabulary}
+     */
+    public static WordpieceVocabulary parse(InputStream is) {
+        return new WordpieceVocabulary(readLines(is));
+    }
+
+    /**
+     * Reads the tokens of a vocabulary file with one token per line.
+     *
+     * @param is the input InputStream of the vocabulary file
+     * @return the tokens, in the order of their indices
+     */
+    protected static List<String> readLines(InputStream is) {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader =
+                new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return lines;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getIndex(String token) {
+        int index;
+        if (token.startsWith(CONTINUATION_PREFIX) && token.length() > 2) {
+            index = continuations.get(token, CONTINUATION_PREFIX.length(), token.length());
+        } else {
+            index = pieces.get(token, 0, token.length());
+        }
+        return index < 0 ? unknownIndex : index;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getToken(long index) {
+        return tokens[(int) index];
+    }
+
+    /**
+     * Returns the number of tokens in this vocabulary.
+     *
+     * @return the number of tokens
+     */
+    public int size() {
+        return tokens.length;
+    }
+
+    /**
+     * Returns the index of the {@code [UNK]} token that replaces unknown words.
+     *
+     * @return the index of the {@code [UNK]} token
+     */
+    public int getUnknownIndex() {
+        return unknownIndex;
+    }
+
+    /**
+     * Returns the longest piece of the vocabulary at the start of the given characters.
+     *
+     * @param text the characters of a word
+     * @param start the index of the first character of the piece
+     * @param end the index after the last character of the word
+     * @param continuation true to match the pieces that continue a word
+     * @return the index of the piece in the low 32 bits and its length in the high 32 bits, or -1
+     *     if no piece matches
+     */
+    long longestPiece(CharSequence text, int start, int end, boolean continuation) {
+        long match = (continuation ? continuations : pieces).longestPrefix(text, start, end);
+        // the empty key is never a piece
+        return match >>> 32 == 0 ? -1 : match;
+    }
+}
@@ -13,6 +13,7 @@
 package ai.djl.modality.nlp.embedding;
 
 import ai.djl.modality.nlp.SimpleVocabulary;
+import ai.djl.modality.nlp.TokenIndex;
 import ai.djl.ndarray.NDArray;
 import ai.djl.nn.core.Embedding;
 import java.nio.charset.StandardCharsets;
@@ -23,10 +24,15 @@ import java.util.Optional;
  * {@code TrainableWordEmbedding} is an implementation of {@link WordEmbedding} and {@link
  * Embedding} based on a {@link SimpleVocabulary}. This {@link WordEmbedding} is ideal when there
  * are no pre-trained embeddings available.
+ *
+ * <p>The words are indexed with a {@link TokenIndex}. The items can be set to a {@link TokenIndex}
+ * loaded with {@link TokenIndex#load(java.nio.file.Path)} to keep a large vocabulary memory-mapped.
  */
 public class TrainableWordEmbedding extends Embedding<String> implements WordEmbedding {
     private static final String DEFAULT_UNKNOWN_TOKEN = "<unk>";
 
+    private TokenIndex tokens;
+
     /**
      * Constructs a new instance of {@code TrainableWordEmbedding} from the {@link Builder}.
      *
@@ -79,7 +85,7 @@ public class TrainableWordEmbedding extends Embedding<String> implements WordEmb
     /** {@inheritDoc} */
     @Override
     public boolean vocabularyContains(String word) {
-        return embedder.containsKey(word);
+        return hasItem(word);
     }
 
     /** {@inheritDoc} */
@@ -115,6 +121,28 @@ public class TrainableWordEmbedding extends Embedding<String> implements WordEmb
         throw new IllegalArgumentException("Failed to unembed word");
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void indexItems(List<String> items) {
+        tokens = TokenIndex.of(items);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int indexOf(String item) {
+        int index = tokens.indexOf(item);
+        return index < 0 ? -1 : index + 1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String itemAt(int index) {
+        if (index < 1 || index > tokens.size()) {
+            return null;
+        }
+        return tokens.get(index - 1);
+    }
+
     /** {@inheritDoc} */
     @Override
     public byte[] encode(String input) {
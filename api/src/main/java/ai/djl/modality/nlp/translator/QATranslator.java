@@ -15,14 +15,106 @@ package ai.djl.modality.nlp.translator;
 
 import ai.djl.modality.nlp.qa.QAInput;
 import ai.djl.translate.Translator;
+import ai.djl.translate.TranslatorContext;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 
-/** An abstract class to define the question answering translator. */
+/**
+ * An abstract class to define the question answering translator.
+ *
+ * <p>A translator can be shared by several predictors, and {@link #processInput} is called for all
+ * the requests of a batch before {@link #processOutput} is called for each of them. The state of
+ * each request is therefore kept in the {@link TranslatorContext}, in the order of the requests.
+ */
 public abstract class QATranslator implements Translator<QAInput, String> {
 
+    private static final String TOKENS = "qa_tokens";
+
+    /**
+     * Stores the tokens of a request in the context.
+     *
+     * @param ctx the context of the batch
+     * @param tokens the tokens of the request
+     */
+    @SuppressWarnings("unchecked")
+    protected void pushTokens(TranslatorContext ctx, List<String> tokens) {
+        Deque<List<String>> queue = (Deque<List<String>>) ctx.getAttachment(TOKENS);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            ctx.setAttachment(TOKENS, queue);
+        }
+        queue.add(tokens);
+    }
+
+    /**
+     * Removes the tokens of the oldest request from the context.
+     *
+     * @param ctx the context of the batch
+     * @return the tokens of the request whose output is processed
+     */
+    @SuppressWarnings("unchecked")
+    protected List<String> pollTokens(TranslatorContext ctx) {
+        Deque<List<String>> queue = (Deque<List<String>>) ctx.getAttachment(TOKENS);
+        if (queue == null || queue.isEmpty()) {
+            throw new IllegalStateException("No tokens were stored for the request");
+        }
+        return queue.poll();
+    }
+
     /** The builder for question answering translator. */
     @SuppressWarnings("rawtypes")
     public abstract static class BaseBuilder<T extends BaseBuilder> {
 
+        protected int[] buckets;
+
+        /**
+         * Sets the lengths that the sequences of a batch are padded to.
+         *
+         * <p>A batch is padded to the smallest bucket that fits its longest sequence, rather than
+         * to the maximum sequence length.
+         *
+         * @param buckets the lengths to pad to
+         * @return this builder
+         */
+        public T optBuckets(int... buckets) {
+            this.buckets = buckets.clone();
+            return self();
+        }
+
+        /**
+         * Configures this builder with the arguments of a model loader.
+         *
+         * <p>The "buckets" argument sets the buckets of {@link #optBuckets(int...)}, either as a
+         * comma separated string such as {@code "128,256,384"}, an {@code int[]} or a list of
+         * numbers.
+         *
+         * @param arguments the arguments of the model loader
+         * @return this builder
+         */
+        public T configure(Map<String, ?> arguments) {
+            Object value = arguments.get("buckets");
+            if (value instanceof int[]) {
+                optBuckets((int[]) value);
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                int[] values = new int[list.size()];
+                for (int i = 0; i < values.length; ++i) {
+                    values[i] = ((Number) list.get(i)).intValue();
+                }
+                optBuckets(values);
+            } else if (value != null) {
+                String[] tokens = value.toString().split(",");
+                int[] values = new int[tokens.length];
+                for (int i = 0; i < values.length; ++i) {
+                    values[i] = Integer.parseInt(tokens[i].trim());
+                }
+                optBuckets(values);
+            }
+            return self();
+        }
+
         protected abstract T self();
     }
 }
@@ -13,31 +13,65 @@
 package ai.djl.ndarray;
 
 import ai.djl.Device;
+import ai.djl.engine.EngineException;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** {@code BaseNDManager} is the default implementation of {@link NDManager}. */
+/**
+ * {@code BaseNDManager} is the default implementation of {@link NDManager}.
+ *
+ * <p>When memory tracking is enabled, each manager counts the bytes of the {@link NDArray}s
+ * attached to it and to its sub-managers. The {@code ai.djl.ndarray.track_memory} system property
+ * enables it for all managers, and setting a memory budget with {@link #setMemoryBudget(long,
+ * long, Consumer)} enables it for the manager and its sub-managers. Arrays created before memory
+ * tracking is enabled are not counted.
+ */
 public abstract class BaseNDManager implements NDManager {
 
     private static final Logger logger = LoggerFactory.getLogger(BaseNDManager.class);
 
+    private static final boolean HARD_REFERENCES =
+            Boolean.getBoolean("ai.djl.disable_close_resource_on_finalize");
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private static final boolean TRACK_MEMORY = Boolean.getBoolean("ai.djl.ndarray.track_memory");
+
     protected NDManager parent;
     protected String uid;
     protected Device device;
     protected Map<String, Reference<AutoCloseable>> resources;
     protected AtomicBoolean closed = new AtomicBoolean(false);
 
+    private AtomicLong allocatedBytes = new AtomicLong();
+    private AtomicLong peakBytes = new AtomicLong();
+    private volatile boolean hasMemoryBudget;
+    private volatile long softLimit;
+    private volatile long hardLimit;
+    private volatile Consumer<BaseNDManager> softLimitCallback;
+    private AtomicBoolean softLimitExceeded = new AtomicBoolean();
+    private volatile BufferPool bufferPool;
+    private Queue<ByteBuffer> pooledBuffers = new ConcurrentLinkedQueue<>();
+
     protected BaseNDManager(NDManager parent, Device device) {
         this.parent = parent;
         this.device = Device.defaultIfNull(device);
         resources = new ConcurrentHashMap<>();
-        uid = UUID.randomUUID().toString();
+        uid = "NDManager-" + Long.toHexString(COUNTER.incrementAndGet());
+        if (parent instanceof BaseNDManager) {
+            bufferPool = ((BaseNDManager) parent).bufferPool;
+        }
     }
 
     /** {@inheritDoc} */
@@ -58,6 +92,64 @@ public abstract class BaseNDManager implements NDManager {
         return device;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If a {@link BufferPool} is set, the buffer is taken from the pool, and returned to it by
+     * {@link #releaseDirect(ByteBuffer)} or when this manager is closed. The buffer must not be
+     * used after it is returned, so pooled buffers are only meant for staging data that the engine
+     * copies. Buffers handed to the caller, such as {@link NDArray#toByteBuffer()}, must not be
+     * allocated here.
+     */
+    @Override
+    public ByteBuffer allocateDirect(int capacity) {
+        BufferPool pool = bufferPool;
+        if (pool == null) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer buffer = pool.acquire(capacity);
+        pooledBuffers.add(buffer);
+        return buffer;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void releaseDirect(ByteBuffer buffer) {
+        // buffers are compared by identity, ByteBuffer.equals compares their content
+        for (Iterator<ByteBuffer> it = pooledBuffers.iterator(); it.hasNext(); ) {
+            if (it.next() == buffer) {
+                it.remove();
+                BufferPool pool = bufferPool;
+                if (pool != null) {
+                    pool.release(buffer);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sets the {@link BufferPool} used by {@link #allocateDirect(int)}.
+     *
+     * <p>Sub-managers created after this call use the same pool. Buffers are reused once they are
+     * released with {@link #releaseDirect(ByteBuffer)}, or once the manager that allocated them is
+     * closed.
+     *
+     * @param bufferPool the {@link BufferPool}, or {@code null} to allocate new buffers
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Returns the {@link BufferPool} used by {@link #allocateDirect(int)}.
+     *
+     * @return the {@link BufferPool}, or {@code null} if buffers are not pooled
+     */
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -72,50 +164,221 @@ public abstract class BaseNDManager implements NDManager {
                 + resources.size();
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Attaching and detaching resources does not lock the manager, so that many threads can
+     * create and close {@link NDArray}s concurrently.
+     */
     @Override
-    public synchronized void attach(String resourceId, AutoCloseable resource) {
+    public void attach(String resourceId, AutoCloseable resource) {
         if (closed.get()) {
             throw new IllegalStateException("NDManager has been closed already.");
         }
-        WeakReference<AutoCloseable> ref;
-        if (Boolean.getBoolean("ai.djl.disable_close_resource_on_finalize")) {
-            ref = new HardReference(resource);
+        long bytes = 0;
+        if (resource instanceof NDArray && isTrackingMemory()) {
+            NDArray array = (NDArray) resource;
+            bytes = array.getShape().size() * array.getDataType().getNumOfBytes();
+            allocate(bytes, resource);
+        }
+        TrackedReference ref;
+        if (HARD_REFERENCES) {
+            ref = new HardReference(resource, bytes);
         } else {
-            ref = new WeakReference<>(resource);
+            ref = new TrackedReference(resource, bytes);
+        }
+        release(resources.put(resourceId, ref));
+
+        // the manager may have been closed concurrently without seeing the new resource, its
+        // bytes are then only released here
+        if (closed.get() && resources.remove(resourceId, ref)) {
+            release(ref);
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.error("Resource close failed.", e);
+            }
+            throw new IllegalStateException("NDManager has been closed already.");
         }
-        resources.put(resourceId, ref);
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void detach(String resourceId) {
+    public void detach(String resourceId) {
         if (closed.get()) {
             // This may happen in the middle of BaseNDManager.close()
             return;
         }
-        resources.remove(resourceId);
+        removeResource(resourceId);
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void close() {
+    public void close() {
         if (!closed.getAndSet(true)) {
-            for (Reference<AutoCloseable> resource : resources.values()) {
-                AutoCloseable closeable = resource.get();
-                if (closeable != null) {
-                    try {
-                        closeable.close();
-                    } catch (Exception e) {
-                        logger.error("Resource close failed.", e);
+            // the thread removing a resource from the map is the one closing it and releasing
+            // its bytes, resources attached concurrently are either closed here or by the
+            // attaching thread
+            while (!resources.isEmpty()) {
+                for (String resourceId : resources.keySet()) {
+                    Reference<AutoCloseable> resource = resources.remove(resourceId);
+                    release(resource);
+                    AutoCloseable closeable = resource == null ? null : resource.get();
+                    if (closeable != null) {
+                        try {
+                            closeable.close();
+                        } catch (Exception e) {
+                            logger.error("Resource close failed.", e);
+                        }
                     }
                 }
             }
             parent.detach(uid);
-            resources.clear();
+            BufferPool pool = bufferPool;
+            for (ByteBuffer buffer = pooledBuffers.poll();
+                    buffer != null;
+                    buffer = pooledBuffers.poll()) {
+                if (pool != null) {
+                    pool.release(buffer);
+                }
+            }
         }
     }
 
+    /**
+     * Returns the number of bytes of the {@link NDArray}s attached to this manager and to its
+     * sub-managers.
+     *
+     * <p>The size of an array is computed from its shape and data type when it is attached, and
+     * is only counted if memory tracking is enabled.
+     *
+     * @return the number of bytes of the attached {@link NDArray}s
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * Returns the highest number of bytes reported by {@link #getAllocatedBytes()} so far.
+     *
+     * @return the highest number of allocated bytes
+     */
+    public long getPeakBytes() {
+        return peakBytes.get();
+    }
+
+    /**
+     * Sets the memory budget of this manager and its sub-managers, and enables memory tracking for
+     * them.
+     *
+     * <p>The {@code softLimitCallback} is called when the allocated bytes exceed the soft limit,
+     * and again only once they went back below it. Attaching an {@link NDArray} that would make
+     * the allocated bytes exceed the hard limit closes the array and fails with an {@link
+     * EngineException}.
+     *
+     * @param softLimit the soft limit in bytes, 0 for no soft limit
+     * @param hardLimit the hard limit in bytes, 0 for no hard limit
+     * @param softLimitCallback the (optionally null) function to call when the soft limit is
+     *     exceeded
+     */
+    public void setMemoryBudget(
+            long softLimit, long hardLimit, Consumer<BaseNDManager> softLimitCallback) {
+        this.softLimit = softLimit;
+        this.hardLimit = hardLimit;
+        this.softLimitCallback = softLimitCallback;
+        hasMemoryBudget = true;
+    }
+
+    /**
+     * Removes a resource from this manager, without checking whether the manager is closed.
+     *
+     * @param resourceId the id of the resource to remove
+     */
+    protected void removeResource(String resourceId) {
+        release(resources.remove(resourceId));
+    }
+
+    private boolean isTrackingMemory() {
+        if (TRACK_MEMORY) {
+            return true;
+        }
+        for (BaseNDManager m = this; m != null; m = m.getParentBaseManager()) {
+            if (m.hasMemoryBudget) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void allocate(long bytes, AutoCloseable resource) {
+        int depth = 0;
+        for (BaseNDManager m = this; m != null; m = m.getParentBaseManager()) {
+            ++depth;
+        }
+        // the bytes are added to every manager and checked against the hard limits first, so
+        // that a rejected allocation leaves no peak or soft limit callback behind
+        long[] totals = new long[depth];
+        int i = 0;
+        for (BaseNDManager m = this; m != null; m = m.getParentBaseManager()) {
+            long total = m.allocatedBytes.addAndGet(bytes);
+            totals[i++] = total;
+            long limit = m.hardLimit;
+            if (limit > 0 && total > limit) {
+                BaseNDManager end = m.getParentBaseManager();
+                for (BaseNDManager r = this; r != end; r = r.getParentBaseManager()) {
+                    r.allocatedBytes.addAndGet(-bytes);
+                }
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    logger.error("Resource close failed.", e);
+                }
+                throw new EngineException(
+                        "Memory budget of NDManager "
+                                + m.uid
+                                + " exceeded: "
+                                + total
+                                + " bytes, limit: "
+                                + limit
+                                + " bytes");
+            }
+        }
+        i = 0;
+        for (BaseNDManager m = this; m != null; m = m.getParentBaseManager()) {
+            long total = totals[i++];
+            m.peakBytes.accumulateAndGet(total, Math::max);
+            Consumer<BaseNDManager> callback = m.softLimitCallback;
+            if (m.softLimit > 0
+                    && total > m.softLimit
+                    && callback != null
+                    && m.softLimitExceeded.compareAndSet(false, true)) {
+                callback.accept(m);
+            }
+        }
+    }
+
+    private void release(Reference<AutoCloseable> ref) {
+        if (ref instanceof TrackedReference) {
+            releaseBytes(((TrackedReference) ref).bytes);
+        }
+    }
+
+    private void releaseBytes(long bytes) {
+        if (bytes == 0) {
+            return;
+        }
+        for (BaseNDManager m = this; m != null; m = m.getParentBaseManager()) {
+            long total = m.allocatedBytes.addAndGet(-bytes);
+            if (total <= m.softLimit) {
+                m.softLimitExceeded.set(false);
+            }
+        }
+    }
+
+    private BaseNDManager getParentBaseManager() {
+        return parent instanceof BaseNDManager ? (BaseNDManager) parent : null;
+    }
+
     /**
      * Prints information about this {@link NDManager} and all sub-managers to the console.
      *
@@ -127,9 +390,15 @@ public abstract class BaseNDManager implements NDManager {
             sb.append("    ");
         }
         sb.append("\\--- NDManager(")
-                .append(uid.substring(24))
+                .append(uid)
                 .append(") resource count: ")
                 .append(resources.size());
+        if (isTrackingMemory()) {
+            sb.append(", allocated bytes: ")
+                    .append(allocatedBytes.get())
+                    .append(", peak bytes: ")
+                    .append(peakBytes.get());
+        }
 
         System.out.println(sb.toString()); // NOPMD
         for (Reference<AutoCloseable> ref : resources.values()) {
@@ -140,13 +409,24 @@ public abstract class BaseNDManager implements NDManager {
         }
     }
 
+    /** A reference to a resource that keeps track of the bytes counted for it. */
+    private static class TrackedReference extends WeakReference<AutoCloseable> {
+
+        long bytes;
+
+        TrackedReference(AutoCloseable obj, long bytes) {
+            super(obj);
+            this.bytes = bytes;
+        }
+    }
+
     /** The workaround custom Reference class to avoid GC to close NDArray. */
-    private static final class HardReference extends WeakReference<AutoCloseable> {
+    private static final class HardReference extends TrackedReference {
 
         private AutoCloseable obj;
 
-        HardReference(AutoCloseable obj) {
-            super(obj);
+        HardReference(AutoCloseable obj, long bytes) {
+            super(obj, bytes);
             this.obj = obj;
         }
 
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@code BufferPool} keeps direct {@link ByteBuffer}s to reuse them for allocations of the same
+ * size.
+ *
+ * <p>Direct buffers are used to copy data between Java and the engines, for example to create an
+ * {@link NDArray} from an image. When requests allocate tensors of identical shapes and data types,
+ * reusing the buffers avoids the cost and fragmentation of allocating and freeing native memory
+ * for each request.
+ *
+ * <p>A pool is used by setting it on an {@link NDManager} with {@link
+ * BaseNDManager#setBufferPool(BufferPool)}. The buffers allocated by the manager and its
+ * sub-managers are then taken from the pool, and returned to it when the manager that allocated
+ * them is closed.
+ */
+public class BufferPool {
+
+    private int maxBuffersPerSize;
+    private long maxBytes;
+    private Map<Integer, Queue<ByteBuffer>> buffers;
+    private Map<Integer, AtomicInteger> counts;
+    private AtomicLong pooledBytes;
+    private AtomicLong hits;
+    private AtomicLong misses;
+
+    /**
+     * Constructs a new {@code BufferPool}.
+     *
+     * @param maxBuffersPerSize the maximum number of idle buffers kept for each size
+     * @param maxBytes the maximum total size of the idle buffers
+     */
+    public BufferPool(int maxBuffersPerSize, long maxBytes) {
+        this.maxBuffersPerSize = maxBuffersPerSize;
+        this.maxBytes = maxBytes;
+        buffers = new ConcurrentHashMap<>();
+        counts = new ConcurrentHashMap<>();
+        pooledBytes = new AtomicLong();
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+    }
+
+    /**
+     * Returns a direct buffer in native byte order with the given capacity.
+     *
+     * @param capacity the capacity of the buffer in bytes
+     * @return a cleared direct buffer
+     */
+    public ByteBuffer acquire(int capacity) {
+        Queue<ByteBuffer> queue = buffers.get(capacity);
+        ByteBuffer buffer = queue == null ? null : queue.poll();
+        if (buffer == null) {
+            misses.incrementAndGet();
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        counts.get(capacity).decrementAndGet();
+        pooledBytes.addAndGet(-capacity);
+        hits.incrementAndGet();
+        buffer.clear();
+        buffer.order(ByteOrder.nativeOrder());
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool.
+     *
+     * <p>The buffer must not be used after it has been released. It is dropped if the pool is
+     * full.
+     *
+     * @param buffer the buffer obtained from {@link #acquire(int)}
+     */
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        AtomicInteger count = counts.computeIfAbsent(capacity, k -> new AtomicInteger());
+        if (count.incrementAndGet() > maxBuffersPerSize) {
+            count.decrementAndGet();
+            return;
+        }
+        if (pooledBytes.addAndGet(capacity) > maxBytes) {
+            pooledBytes.addAndGet(-capacity);
+            count.decrementAndGet();
+            return;
+        }
+        buffers.computeIfAbsent(capacity, k -> new ConcurrentLinkedQueue<>()).offer(buffer);
+    }
+
+    /**
+     * Returns the total size of the idle buffers in the pool.
+     *
+     * @return the total size of the idle buffers in bytes
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Returns the number of allocations served by a pooled buffer.
+     *
+     * @return the number of allocations served by a pooled buffer
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of allocations that required a new buffer.
+     *
+     * @return the number of allocations that required a new buffer
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Drops all the idle buffers, leaving them to be garbage collected. */
+    public void clear() {
+        for (Map.Entry<Integer, Queue<ByteBuffer>> entry : buffers.entrySet()) {
+            Queue<ByteBuffer> queue = entry.getValue();
+            AtomicInteger count = counts.get(entry.getKey());
+            while (queue.poll() != null) {
+                count.decrementAndGet();
+                pooledBytes.addAndGet(-entry.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+/**
+ * An {@code EncodedNDArray} holds the values of an {@link NDArray} that has been read but not
+ * created yet.
+ *
+ * @see NDManager#decodeLazily(java.io.InputStream)
+ */
+public final class EncodedNDArray implements Supplier<NDArray> {
+
+    private NDManager manager;
+    private DataType dataType;
+    private Shape shape;
+    private ByteBuffer data;
+
+    EncodedNDArray(NDManager manager, DataType dataType, Shape shape, ByteBuffer data) {
+        this.manager = manager;
+        this.dataType = dataType;
+        this.shape = shape;
+        this.data = data;
+    }
+
+    /**
+     * Returns the {@link DataType} of the encoded array.
+     *
+     * @return the {@link DataType} of the encoded array
+     */
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Returns the {@link Shape} of the encoded array.
+     *
+     * @return the {@link Shape} of the encoded array
+     */
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * Creates the {@link NDArray}.
+     *
+     * <p>This method must be called at most once, and before the {@link NDManager} is closed.
+     *
+     * @return the new {@link NDArray}
+     */
+    @Override
+    public NDArray get() {
+        NDArray array = manager.create(dataType.asDataType(data), shape);
+        manager.releaseDirect(data);
+        return array;
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.ndarray.types.SparseFormat;
+import ai.djl.util.PairList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@code NDFile} is an on-disk container of named {@link NDArray}s that can be memory-mapped.
+ *
+ * <p>Unlike {@link NDArray#encode()}, which copies the whole tensor into a byte array, an {@code
+ * NDFile} is written by streaming the native buffer of each array straight to a {@link
+ * WritableByteChannel}, and read by memory-mapping the file. The data of every array is aligned in
+ * the file, so that {@link #get(NDManager, String)} hands the mapped region directly to {@link
+ * NDManager#create(java.nio.Buffer, Shape, DataType)} without copying it on the Java heap. Arrays
+ * are mapped one by one, so files larger than 2GB are supported as long as every single array is
+ * smaller than 2GB.
+ *
+ * <p>The file layout is:
+ *
+ * <pre>
+ * header   "NDFL", version (int), byte order (byte), padding, alignment (int)
+ * data     the raw data of each array, each starting at a multiple of the alignment
+ * index    count (int), then name, data type, shape, offset (long), length (long) per array
+ * trailer  index offset (long), "NDFL"
+ * </pre>
+ *
+ * <p>The header, index and trailer are big-endian, the array data uses the byte order recorded in
+ * the header.
+ */
+public final class NDFile implements AutoCloseable {
+
+    static final byte[] MAGIC = "NDFL".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int TRAILER_SIZE = 12;
+    static final int DEFAULT_ALIGNMENT = 64;
+
+    private FileChannel channel;
+    private ByteOrder order;
+    private Map<String, Entry> entries;
+
+    private NDFile(FileChannel channel, ByteOrder order, Map<String, Entry> entries) {
+        this.channel = channel;
+        this.order = order;
+        this.entries = entries;
+    }
+
+    /**
+     * Writes the arrays of an {@link NDList} to a file, named after {@link NDArray#getName()} or
+     * their index if they have no name.
+     *
+     * @param file the file to write to
+     * @param list the arrays to write
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(Path file, NDList list) throws IOException {
+        PairList<String, NDArray> arrays = new PairList<>(list.size());
+        for (int i = 0; i < list.size(); ++i) {
+            NDArray array = list.get(i);
+            String name = array.getName();
+            arrays.add(name == null || name.isEmpty() ? String.valueOf(i) : name, array);
+        }
+        try (FileChannel fc =
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(fc, arrays, DEFAULT_ALIGNMENT);
+        }
+    }
+
+    /**
+     * Streams named arrays to a {@link WritableByteChannel}.
+     *
+     * <p>The data of each array is written from the buffer returned by {@link
+     * NDArray#toByteBuffer()} without any intermediate copy.
+     *
+     * @param channel the channel to write to
+     * @param arrays the arrays to write with their names
+     * @param alignment the alignment in bytes of the data of each array, a power of two
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(
+            WritableByteChannel channel, PairList<String, NDArray> arrays, int alignment)
+            throws IOException {
+        if (alignment < 8 || Integer.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException("alignment must be a power of two >= 8");
+        }
+        ByteOrder order = ByteOrder.nativeOrder();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC);
+        header.putInt(VERSION);
+        header.put((byte) (order == ByteOrder.BIG_ENDIAN ? 1 : 0));
+        header.position(12);
+        header.putInt(alignment);
+        header.flip();
+        long position = writeFully(channel, header, 0);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream index = new DataOutputStream(bos);
+        index.writeInt(arrays.size());
+        for (int i = 0; i < arrays.size(); ++i) {
+            NDArray array = arrays.valueAt(i);
+            if (array.getSparseFormat() != SparseFormat.DENSE) {
+                throw new IllegalArgumentException("Only dense arrays are supported.");
+            }
+            position = pad(channel, position, alignment);
+
+            ByteBuffer bb = array.toByteBuffer();
+            long offset = position;
+            long length = bb.remaining();
+            position = writeFully(channel, bb, position);
+
+            index.writeUTF(arrays.keyAt(i));
+            index.writeUTF(array.getDataType().name());
+            index.write(array.getShape().getEncoded());
+            index.writeLong(offset);
+            index.writeLong(length);
+        }
+        index.flush();
+
+        long indexOffset = position;
+        position = writeFully(channel, ByteBuffer.wrap(bos.toByteArray()), position);
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        trailer.putLong(indexOffset);
+        trailer.put(MAGIC);
+        trailer.flip();
+        writeFully(channel, trailer, position);
+    }
+
+    /**
+     * Opens an {@code NDFile} for reading.
+     *
+     * @param file the file to open
+     * @return the opened {@code NDFile}
+     * @throws IOException if an I/O error occurs or the file is not an {@code NDFile}
+     */
+    public static NDFile open(Path file) throws IOException {
+        FileChannel fc = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = fc.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException("Not an NDFile: " + file);
+            }
+            ByteBuffer header = readFully(fc, 0, HEADER_SIZE);
+            ByteBuffer trailer = readFully(fc, size - TRAILER_SIZE, TRAILER_SIZE);
+            if (!hasMagic(header, 0) || !hasMagic(trailer, 8)) {
+                throw new IOException("Not an NDFile: " + file);
+            }
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported NDFile version " + version);
+            }
+            ByteOrder order = header.get(8) == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+
+            long indexOffset = trailer.getLong(0);
+            int indexLength = Math.toIntExact(size - TRAILER_SIZE - indexOffset);
+            ByteBuffer bb = readFully(fc, indexOffset, indexLength);
+            DataInputStream index =
+                    new DataInputStream(new ByteArrayInputStream(bb.array(), 0, indexLength));
+            int count = index.readInt();
+            Map<String, Entry> entries = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; ++i) {
+                String name = index.readUTF();
+                DataType dataType = DataType.valueOf(index.readUTF());
+                Shape shape = Shape.decode(index);
+                long offset = index.readLong();
+                long length = index.readLong();
+                entries.put(name, new Entry(dataType, shape, offset, length));
+            }
+            return new NDFile(fc, order, entries);
+        } catch (IOException | RuntimeException e) {
+            fc.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the names of the arrays in the file, in the order they were written.
+     *
+     * @return the names of the arrays in the file
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+    }
+
+    /**
+     * Returns the shape of the named array.
+     *
+     * @param name the name of the array
+     * @return the shape of the named array
+     */
+    public Shape getShape(String name) {
+        return getEntry(name).shape;
+    }
+
+    /**
+     * Returns the data type of the named array.
+     *
+     * @param name the name of the array
+     * @return the data type of the named array
+     */
+    public DataType getDataType(String name) {
+        return getEntry(name).dataType;
+    }
+
+    /**
+     * Maps the raw data of the named array.
+     *
+     * @param name the name of the array
+     * @return a read-only buffer mapping the data of the array, in the byte order of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public ByteBuffer map(String name) throws IOException {
+        Entry entry = getEntry(name);
+        if (entry.length > Integer.MAX_VALUE) {
+            throw new IOException("Array is too large to be mapped: " + name);
+        }
+        MappedByteBuffer mapped =
+                channel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length);
+        mapped.order(order);
+        return mapped;
+    }
+
+    /**
+     * Creates the named array from the mapped file.
+     *
+     * @param manager the {@link NDManager} to create the array with
+     * @param name the name of the array
+     * @return the {@link NDArray}
+     * @throws IOException if an I/O error occurs
+     */
+    public NDArray get(NDManager manager, String name) throws IOException {
+        Entry entry = getEntry(name);
+        ByteBuffer data = map(name);
+        ByteBuffer swapped = null;
+        if (order != ByteOrder.nativeOrder()) {
+            // the engines expect native order, swap through a direct buffer
+            swapped = manager.allocateDirect(data.remaining());
+            copySwapped(data, swapped, entry.dataType.getNumOfBytes());
+            data = swapped;
+        }
+        NDArray array =
+                manager.create(entry.dataType.asDataType(data), entry.shape, entry.dataType);
+        if (swapped != null) {
+            manager.releaseDirect(swapped);
+        }
+        array.setName(name);
+        return array;
+    }
+
+    /**
+     * Creates all the arrays of the file.
+     *
+     * @param manager the {@link NDManager} to create the arrays with
+     * @return the arrays, in the order they were written
+     * @throws IOException if an I/O error occurs
+     */
+    public NDList load(NDManager manager) throws IOException {
+        NDList list = new NDList(entries.size());
+        for (String name : entries.keySet()) {
+            list.add(get(manager, name));
+        }
+        return list;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Entry getEntry(String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("No array named " + name);
+        }
+        return entry;
+    }
+
+    private static void copySwapped(ByteBuffer src, ByteBuffer dst, int width) {
+        int size = src.remaining();
+        for (int i = 0; i < size; i += width) {
+            for (int j = 0; j < width; ++j) {
+                dst.put(i + j, src.get(i + width - 1 - j));
+            }
+        }
+    }
+
+    private static boolean hasMagic(ByteBuffer bb, int offset) {
+        for (int i = 0; i < MAGIC.length; ++i) {
+            if (bb.get(offset + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long pad(WritableByteChannel channel, long position, int alignment)
+            throws IOException {
+        int padding = (int) (-position & (alignment - 1));
+        if (padding == 0) {
+            return position;
+        }
+        return writeFully(channel, ByteBuffer.allocate(padding), position);
+    }
+
+    private static long writeFully(WritableByteChannel channel, ByteBuffer bb, long position)
+            throws IOException {
+        long written = position;
+        while (bb.hasRemaining()) {
+            written += channel.write(bb);
+        }
+        return written;
+    }
+
+    private static ByteBuffer readFully(FileChannel fc, long position, int length)
+            throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(length);
+        while (bb.hasRemaining()) {
+            if (fc.read(bb, position + bb.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        bb.flip();
+        return bb;
+    }
+
+    private static final class Entry {
+
+        DataType dataType;
+        Shape shape;
+        long offset;
+        long length;
+
+        Entry(DataType dataType, Shape shape, long offset, long length) {
+            this.dataType = dataType;
+            this.shape = shape;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -141,6 +141,18 @@ public interface NDManager extends AutoCloseable {
      */
     ByteBuffer allocateDirect(int capacity);
 
+    /**
+     * Returns a buffer allocated with {@link #allocateDirect(int)} that is no longer used.
+     *
+     * <p>Managers that reuse direct buffers can hand the buffer out again, so the buffer must not
+     * be used after this call. Since the engines copy the content of the buffers {@link NDArray}s
+     * are created from, a buffer can be released as soon as the array is created. The default
+     * implementation does nothing.
+     *
+     * @param buffer the buffer to release
+     */
+    default void releaseDirect(ByteBuffer buffer) {}
+
     /**
      * Creates an uninitialized instance of {@link DataType#FLOAT32} {@link NDArray} with specified
      * {@link Shape}.
@@ -590,6 +602,21 @@ public interface NDManager extends AutoCloseable {
         return NDSerializer.decode(this, is);
     }
 
+    /**
+     * Reads an encoded {@link NDArray} from an {@link InputStream} without creating it yet.
+     *
+     * <p>The data is read from the stream immediately, but the {@link NDArray} is only created
+     * when {@link EncodedNDArray#get()} is called. This allows the arrays of a stream to be
+     * created in parallel, or only when they are needed.
+     *
+     * @param is input stream data to load from
+     * @return an {@link EncodedNDArray} that creates the {@link NDArray}
+     * @throws IOException data is not readable
+     */
+    default EncodedNDArray decodeLazily(InputStream is) throws IOException {
+        return NDSerializer.read(this, is);
+    }
+
     /**
      * Loads the NDArrays saved to a file.
      *
@@ -83,6 +83,18 @@ final class NDSerializer {
      * @throws IOException data is not readable
      */
     static NDArray decode(NDManager manager, InputStream is) throws IOException {
+        return read(manager, is).get();
+    }
+
+    /**
+     * Reads the data of an encoded {@link NDArray} without creating the {@link NDArray}.
+     *
+     * @param manager the {@link NDManager} assigned to the {@link NDArray}
+     * @param is input stream data to load from
+     * @return an {@link EncodedNDArray} that creates the {@link NDArray}
+     * @throws IOException data is not readable
+     */
+    static EncodedNDArray read(NDManager manager, InputStream is) throws IOException {
         DataInputStream dis;
         if (is instanceof DataInputStream) {
             dis = (DataInputStream) is;
@@ -123,6 +135,6 @@ final class NDSerializer {
             data.put(buf, 0, length);
             data.rewind();
         }
-        return manager.create(dataType.asDataType(data), shape);
+        return new EncodedNDArray(manager, dataType, shape, data);
     }
 }
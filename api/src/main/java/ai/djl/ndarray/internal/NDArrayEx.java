@@ -238,6 +238,51 @@ public interface NDArrayEx {
             float momentum,
             boolean lazyUpdate);
 
+    /**
+     * Applies the SGD update to several weights in a single call.
+     *
+     * <p>The inputs contain the weight and the gradient of each weight, followed by its momentum
+     * state if momentum is not 0. All the weights must be on the same device and have the same
+     * data type. The default implementation calls {@link #sgdUpdate(NDList, NDList, float, float,
+     * float, float, float, boolean)} for each weight, engines that support fused multi-tensor
+     * updates override it.
+     *
+     * @param inputs the weights, gradients and momentum states, interleaved
+     * @param weights the weights to update
+     * @param learningRates the learning rate of each weight
+     * @param weightDecays the weight decay of each weight
+     * @param rescaleGrad the value to rescale the gradients with
+     * @param clipGrad the value to clip the gradients to, or a negative value to disable clipping
+     * @param momentum the momentum, or 0 to disable momentum
+     */
+    default void multiSgdUpdate(
+            NDList inputs,
+            NDList weights,
+            float[] learningRates,
+            float[] weightDecays,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum) {
+        int stride = momentum != 0f ? 3 : 2;
+        for (int i = 0; i < weights.size(); ++i) {
+            NDList in = new NDList(stride);
+            for (int j = 0; j < stride; ++j) {
+                in.add(inputs.get(i * stride + j));
+            }
+            NDArray weight = weights.get(i);
+            weight.getNDArrayInternal()
+                    .sgdUpdate(
+                            in,
+                            new NDList(weight),
+                            learningRates[i],
+                            weightDecays[i],
+                            rescaleGrad,
+                            clipGrad,
+                            momentum,
+                            true);
+        }
+    }
+
     ////////////////////////////////////////
     // Neural network
     ////////////////////////////////////////
@@ -13,6 +13,7 @@
 package ai.djl.nn;
 
 import ai.djl.MalformedModelException;
+import ai.djl.ndarray.EncodedNDArray;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
@@ -44,6 +45,8 @@ public class Parameter implements AutoCloseable {
     private DataType mandatoryDataType;
     private Initializer initializer;
     private NDArray array;
+    private volatile EncodedNDArray pending;
+    private boolean lazyLoading;
     private boolean requireGrad;
     private SparseFormat gradientFormat;
 
@@ -130,6 +133,7 @@ public class Parameter implements AutoCloseable {
      * @param array the {@link NDArray} that contains values of this {@code Parameter}
      */
     public void setArray(NDArray array) {
+        pending = null;
         this.array = array;
         array.setName(name);
     }
@@ -143,9 +147,42 @@ public class Parameter implements AutoCloseable {
         if (!isInitialized()) {
             throw new IllegalStateException("The array has not been initialized");
         }
+        if (pending != null) {
+            materialize();
+        }
         return array;
     }
 
+    /**
+     * Returns the {@link Shape} of the values of this {@code Parameter}, without creating the
+     * {@link NDArray} of a lazily loaded {@code Parameter}.
+     *
+     * @return the {@link Shape} of the values, or {@code null} if it is not initialized
+     */
+    public Shape getShape() {
+        EncodedNDArray encoded = pending;
+        if (encoded != null) {
+            return encoded.getShape();
+        }
+        NDArray values = array;
+        return values == null ? null : values.getShape();
+    }
+
+    /**
+     * Returns the {@link DataType} of the values of this {@code Parameter}, without creating the
+     * {@link NDArray} of a lazily loaded {@code Parameter}.
+     *
+     * @return the {@link DataType} of the values, or {@code null} if it is not initialized
+     */
+    public DataType getDataType() {
+        EncodedNDArray encoded = pending;
+        if (encoded != null) {
+            return encoded.getDataType();
+        }
+        NDArray values = array;
+        return values == null ? null : values.getDataType();
+    }
+
     /**
      * Returns whether this parameter needs gradients to be computed.
      *
@@ -170,7 +207,38 @@ public class Parameter implements AutoCloseable {
      * @return {@code true} if this {@code Parameter} is initialized
      */
     public boolean isInitialized() {
-        return array != null;
+        return array != null || pending != null;
+    }
+
+    /**
+     * Sets whether {@link #load(NDManager, DataInputStream)} defers the creation of the {@link
+     * NDArray}.
+     *
+     * <p>A lazily loaded {@code Parameter} keeps its values in a direct buffer until the array is
+     * created, so loading all the parameters of a model lazily and then creating their arrays
+     * needs up to twice the memory of the parameters. Lazy loading is disabled by default.
+     *
+     * @param lazyLoading whether to defer the creation of the array
+     */
+    public void setLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
+    }
+
+    /**
+     * Creates the {@link NDArray} of a {@code Parameter} that has been loaded lazily.
+     *
+     * <p>{@link #load(NDManager, DataInputStream)} only reads the parameter values, the {@link
+     * NDArray} is created on the first call to {@link #getArray()}. This method can be used to
+     * create it ahead of time, for example to create the arrays of all the parameters of a model
+     * in parallel. It does nothing if the array has already been created.
+     */
+    public synchronized void materialize() {
+        EncodedNDArray supplier = pending;
+        if (supplier != null) {
+            array = supplier.get();
+            array.setName(name);
+            pending = null;
+        }
     }
 
     /**
@@ -207,7 +275,7 @@ public class Parameter implements AutoCloseable {
         }
 
         if (requireGradient()) {
-            array.attachGradient(gradientFormat);
+            getArray().attachGradient(gradientFormat);
         }
     }
 
@@ -226,7 +294,11 @@ public class Parameter implements AutoCloseable {
         dos.writeChar('P');
         dos.writeByte(VERSION);
         dos.writeUTF(getName());
-        dos.write(array.encode());
+        if (dos instanceof SnapshotOutputStream) {
+            ((SnapshotOutputStream) dos).writeArray(getArray());
+        } else {
+            dos.write(getArray().encode());
+        }
     }
 
     /**
@@ -235,6 +307,10 @@ public class Parameter implements AutoCloseable {
      * <p>Currently, we cannot deserialize into the exact subclass of NDArray. The SparseNDArray
      * will be loaded as NDArray only.
      *
+     * <p>If lazy loading is enabled with {@link #setLazyLoading(boolean)}, the values are read from
+     * the stream, but the {@link NDArray} is only created on the first call to {@link #getArray()}
+     * or {@link #materialize()}.
+     *
      * @param manager the NDManager
      * @param dis the InputStream
      * @throws IOException if failed to read
@@ -262,12 +338,19 @@ public class Parameter implements AutoCloseable {
                     "Unexpected parameter name: " + parameterName + ", expected: " + name);
         }
 
-        array = manager.decode(dis);
+        if (lazyLoading) {
+            array = null;
+            pending = manager.decodeLazily(dis);
+        } else {
+            pending = null;
+            array = manager.decode(dis);
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public void close() {
+        pending = null;
         if (array != null) {
             array.close();
             array = null;
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DataOutputStream} that takes a snapshot of the parameters saved to it, so that they can
+ * be encoded and written later, on another thread.
+ *
+ * <p>{@link Parameter#save(DataOutputStream)} copies its array into the snapshot manager instead of
+ * encoding it. The other bytes, such as the block metadata, are buffered as they are written. The
+ * snapshot is written in the same format as the parameters by {@link #writeTo(OutputStream)}, and
+ * the copies are freed when the snapshot manager is closed.
+ */
+public class SnapshotOutputStream extends DataOutputStream {
+
+    private NDManager manager;
+    private ByteArrayOutputStream buffer;
+    private List<byte[]> segments;
+    private List<NDArray> arrays;
+
+    /**
+     * Constructs a {@code SnapshotOutputStream}.
+     *
+     * @param manager the manager that holds the copies of the parameters
+     */
+    public SnapshotOutputStream(NDManager manager) {
+        this(manager, new ByteArrayOutputStream());
+    }
+
+    private SnapshotOutputStream(NDManager manager, ByteArrayOutputStream buffer) {
+        super(buffer);
+        this.manager = manager;
+        this.buffer = buffer;
+        segments = new ArrayList<>();
+        arrays = new ArrayList<>();
+    }
+
+    /**
+     * Copies an {@link NDArray} into the snapshot manager, to be encoded at this position of the
+     * stream by {@link #writeTo(OutputStream)}.
+     *
+     * @param array the {@link NDArray} to take a snapshot of
+     * @throws IOException if the buffered bytes could not be flushed
+     */
+    public void writeArray(NDArray array) throws IOException {
+        flush();
+        segments.add(buffer.toByteArray());
+        buffer.reset();
+        NDArray copy = array.toDevice(manager.getDevice(), true);
+        copy.attach(manager);
+        arrays.add(copy);
+    }
+
+    /**
+     * Encodes the snapshot to an {@link OutputStream}.
+     *
+     * @param os the {@link OutputStream} to write to
+     * @throws IOException if the snapshot could not be written
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        flush();
+        for (int i = 0; i < arrays.size(); ++i) {
+            os.write(segments.get(i));
+            os.write(arrays.get(i).encode());
+        }
+        buffer.writeTo(os);
+        os.flush();
+    }
+}
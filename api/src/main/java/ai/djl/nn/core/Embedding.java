@@ -33,11 +33,11 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -58,6 +58,8 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
 
     protected AbstractIndexedEmbedding<T> fallthroughEmbedding;
 
+    private int numIndexedItems;
+
     protected Parameter embedding;
 
     protected Embedding(BaseBuilder<T, ?> baseBuilder) {
@@ -74,8 +76,6 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
                                 true,
                                 sparseGrad ? SparseFormat.ROW_SPARSE : SparseFormat.DENSE),
                         (inputShapes) -> new Shape(numItems, embeddingSize));
-        embedder = new ConcurrentHashMap<>();
-        unembedder = new ConcurrentHashMap<>();
         if (baseBuilder.fallthrough != null && baseBuilder.defaultItem != null) {
             throw new IllegalArgumentException(
                     "You can not specify both a fallthrough and a defaultItem");
@@ -86,11 +86,9 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
         } else if (baseBuilder.useDefault) {
             fallthroughEmbedding = new DefaultEmbedding();
         }
-        numItems = 1; // numItems includes a zero element for use by fallthroughEmbeddings
-        for (T item : baseBuilder.items) {
-            embedder.put(item, numItems);
-            unembedder.put(numItems++, item);
-        }
+        // numItems includes a zero element for use by fallthroughEmbeddings
+        numItems = baseBuilder.items.size() + 1;
+        setItems(baseBuilder.items);
         inputShapes = new Shape[] {new Shape(-1)};
     }
 
@@ -127,12 +125,7 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
                         (inputShapes) -> new Shape(numItems, embeddingSize));
         this.embedding.setArray(embedding);
         numItems = Math.toIntExact(embedding.getShape().size(0));
-        embedder = new ConcurrentHashMap<>(numItems);
-        unembedder = new ConcurrentHashMap<>(numItems);
-        for (int i = 1; i <= items.size(); i++) {
-            embedder.put(items.get(i), i);
-            unembedder.put(i, items.get(i));
-        }
+        setItems(items);
         inputShapes = new Shape[] {new Shape(-1)};
     }
 
@@ -167,13 +160,12 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
         saveInputShapes(os);
         os.writeBoolean(sparseGrad);
         os.writeUTF(dataType.toString());
-        Set<Map.Entry<T, Integer>> embedderEntrySet = embedder.entrySet();
-        os.writeInt(embedderEntrySet.size());
-        for (Map.Entry<T, Integer> entry : embedderEntrySet) {
-            byte[] encodedKey = encode(entry.getKey());
+        os.writeInt(numIndexedItems);
+        for (int i = 1; i <= numIndexedItems; i++) {
+            byte[] encodedKey = encode(itemAt(i));
             os.writeInt(encodedKey.length);
             os.write(encodedKey);
-            os.writeInt(embedder.get(entry.getKey()));
+            os.writeInt(i);
         }
         embedding.save(os);
     }
@@ -196,9 +188,8 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
             }
             sparseGrad = is.readBoolean();
             dataType = DataType.valueOf(is.readUTF().toUpperCase(Locale.ENGLISH));
-            embedder = new ConcurrentHashMap<>();
-            unembedder = new ConcurrentHashMap<>();
             int embedderSize = is.readInt();
+            List<T> items = new ArrayList<>(Collections.nCopies(embedderSize, null));
             for (int i = 1; i <= embedderSize; i++) {
                 int encodedKeySize = is.readInt();
                 byte[] encodedKey = new byte[encodedKeySize];
@@ -206,9 +197,12 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
                     throw new MalformedModelException("Model data is malformed");
                 }
                 int value = is.readInt();
-                embedder.put(decode(encodedKey), value);
-                unembedder.put(value, decode(encodedKey));
+                if (value < 1 || value > embedderSize) {
+                    throw new MalformedModelException("Model data is malformed");
+                }
+                items.set(value - 1, decode(encodedKey));
             }
+            setItems(items);
         } else if (version == 2) {
             readInputShapes(is);
             addMissingZero = true;
@@ -231,7 +225,53 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
     /** {@inheritDoc} */
     @Override
     public boolean hasItem(T item) {
-        return embedder.containsKey(item);
+        return indexOf(item) >= 0;
+    }
+
+    /**
+     * Indexes the items of this embedding, the item at position {@code i} of the list has the
+     * embedding index {@code i + 1}.
+     *
+     * <p>The default implementation stores the items in the {@link #embedder} and {@link
+     * #unembedder} maps. Subclasses that embed a specific type of items can override this method
+     * together with {@link #indexOf(Object)} and {@link #itemAt(int)} to use a more compact
+     * representation.
+     *
+     * @param items the items in the order of their embedding indices
+     */
+    protected void indexItems(List<T> items) {
+        embedder = new ConcurrentHashMap<>(items.size());
+        unembedder = new ConcurrentHashMap<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            embedder.put(items.get(i), i + 1);
+            unembedder.put(i + 1, items.get(i));
+        }
+    }
+
+    /**
+     * Returns the embedding index of an item.
+     *
+     * @param item the item
+     * @return the embedding index of the item, or -1 if the item is not indexed
+     */
+    protected int indexOf(T item) {
+        Integer index = embedder.get(item);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the item with an embedding index.
+     *
+     * @param index the embedding index, starting at 1
+     * @return the item with the embedding index, or {@code null} if no item has the index
+     */
+    protected T itemAt(int index) {
+        return unembedder.get(index);
+    }
+
+    private void setItems(List<T> items) {
+        numIndexedItems = items.size();
+        indexItems(items);
     }
 
     private NDList opInputs(ParameterStore parameterStore, NDList inputs) {
@@ -257,8 +297,9 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
     /** {@inheritDoc} */
     @Override
     public int embed(T item) {
-        if (embedder.containsKey(item)) {
-            return embedder.get(item);
+        int index = indexOf(item);
+        if (index >= 0) {
+            return index;
         } else {
             if (fallthroughEmbedding != null) {
                 return fallthroughEmbedding.embed(item);
@@ -278,7 +319,7 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
             }
             return fallthroughEmbedding.unembed(index);
         }
-        return Optional.ofNullable(unembedder.get(index));
+        return Optional.ofNullable(itemAt(index));
     }
 
     /**
@@ -20,17 +20,28 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
@@ -41,10 +52,17 @@ import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
  * The {@code AbstractRepository} is the shared base for implementers of the {@link Repository}
  * interface.
  *
+ * <p>{@link #prepare(Artifact, Progress)} downloads the items of an artifact concurrently, with up
+ * to {@code ai.djl.repository.download_threads} threads (default 4). Subclasses that override
+ * {@link #download(Path, URI, Artifact.Item, Progress)} or {@link #download(URI, Path,
+ * Artifact.Item, Progress)} must therefore be thread-safe, or set the property to 1.
+ *
  * @see Repository
  */
 public abstract class AbstractRepository implements Repository {
 
+    private static final Map<Path, DownloadLock> DOWNLOAD_LOCKS = new ConcurrentHashMap<>();
+
     /** {@inheritDoc} */
     @Override
     public InputStream openStream(Artifact.Item item, String path) throws IOException {
@@ -121,8 +139,13 @@ public abstract class AbstractRepository implements Repository {
         }
 
         try {
-            for (Artifact.Item item : files.values()) {
-                download(tmp, baseUri, item, progress);
+            int threads = Math.min(getDownloadThreads(), files.size());
+            if (threads <= 1) {
+                for (Artifact.Item item : files.values()) {
+                    download(tmp, baseUri, item, progress);
+                }
+            } else {
+                downloadAll(tmp, baseUri, files.values(), progress, threads);
             }
             Files.move(tmp, resourceDir, StandardCopyOption.ATOMIC_MOVE);
         } finally {
@@ -160,6 +183,17 @@ public abstract class AbstractRepository implements Repository {
         return Collections.emptyList();
     }
 
+    /**
+     * Downloads an {@link Artifact.Item} and extracts it into the temporary directory.
+     *
+     * <p>This method is called concurrently for the items of an artifact.
+     *
+     * @param tmp the temporary directory to extract the item into
+     * @param baseUri the base URI of the artifact
+     * @param item the item to download
+     * @param progress the (optionally null) progress tracker, thread-safe
+     * @throws IOException if the download failed
+     */
     protected void download(Path tmp, URI baseUri, Artifact.Item item, Progress progress)
             throws IOException {
         URI fileUri = URI.create(item.getUri());
@@ -167,8 +201,84 @@ public abstract class AbstractRepository implements Repository {
             fileUri = getBaseUri().resolve(baseUri).resolve(fileUri);
         }
 
-        try (InputStream is = fileUri.toURL().openStream()) {
-            save(is, tmp, baseUri, item, progress);
+        download(fileUri, tmp, item, progress);
+    }
+
+    /**
+     * Downloads an {@link Artifact.Item} from a URI and extracts it into the temporary directory.
+     *
+     * <p>HTTP downloads are first stored in the cache directory, so that an interrupted download
+     * is resumed by the next attempt, and are verified against the SHA1 hash of the item before
+     * they are extracted. Large files are downloaded in parallel chunks if the server supports
+     * range requests. The download file is locked, so that concurrent preparations of the same
+     * item, in this process or another one, don't write the same file. This method is called
+     * concurrently for the items of an artifact.
+     *
+     * @param fileUri the URI of the item
+     * @param tmp the temporary directory to extract the item into
+     * @param item the item to download
+     * @param progress the (optionally null) progress tracker
+     * @throws IOException if the download failed
+     */
+    protected void download(URI fileUri, Path tmp, Artifact.Item item, Progress progress)
+            throws IOException {
+        String scheme = fileUri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            try (InputStream is = fileUri.toURL().openStream()) {
+                save(is, tmp, null, item, progress);
+            }
+            return;
+        }
+
+        Path downloadDir = getCacheDirectory().resolve("downloads");
+        Files.createDirectories(downloadDir);
+        Path file = downloadDir.resolve(md5hash(fileUri.toString())).toAbsolutePath();
+        // the lock is removed from the map once no thread uses it
+        DownloadLock downloadLock =
+                DOWNLOAD_LOCKS.compute(
+                        file,
+                        (k, v) -> {
+                            DownloadLock l = v == null ? new DownloadLock() : v;
+                            ++l.users;
+                            return l;
+                        });
+        ReentrantLock lock = downloadLock.lock;
+        lock.lock();
+        // the in-process lock comes first, a JVM cannot hold overlapping file locks
+        try (FileChannel lockChannel =
+                FileChannel.open(
+                        file.resolveSibling(file.getFileName() + ".lock"),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE)) {
+            // released when the channel is closed
+            lockChannel.lock();
+            int threads = getDownloadThreads();
+            // the chunks of a single item are downloaded concurrently
+            Progress chunkProgress = progress;
+            if (progress != null && threads > 1 && !(progress instanceof SynchronizedProgress)) {
+                chunkProgress = new SynchronizedProgress(progress);
+            }
+            HttpDownloader downloader =
+                    new HttpDownloader(fileUri.toURL(), file, threads, chunkProgress);
+            downloader.download(item.getSha1Hash());
+
+            if ("dir".equals(item.getType()) && "zip".equals(item.getExtension())) {
+                Path dir = getItemDirectory(tmp, item);
+                ExecutorService executor = newExecutor(getDownloadThreads(), "unzip");
+                try {
+                    ZipUtils.unzip(file, dir, executor);
+                } finally {
+                    executor.shutdownNow();
+                }
+            } else {
+                try (InputStream is = Files.newInputStream(file)) {
+                    extract(is, tmp, item);
+                }
+            }
+            Files.delete(file);
+        } finally {
+            lock.unlock();
+            DOWNLOAD_LOCKS.computeIfPresent(file, (k, v) -> --v.users == 0 ? null : v);
         }
     }
 
@@ -176,39 +286,99 @@ public abstract class AbstractRepository implements Repository {
             InputStream is, Path tmp, URI baseUri, Artifact.Item item, Progress progress)
             throws IOException {
         ProgressInputStream pis = new ProgressInputStream(is, progress);
+        extract(pis, tmp, item);
+        pis.validateChecksum(item);
+    }
+
+    private void extract(InputStream is, Path tmp, Artifact.Item item) throws IOException {
         String fileName = item.getName();
         String extension = item.getExtension();
         if ("dir".equals(item.getType())) {
-            Path dir;
-            if (!fileName.isEmpty()) {
-                // honer the name set in metadata.json
-                dir = tmp.resolve(fileName);
-                Files.createDirectories(dir);
-            } else {
-                dir = tmp;
-            }
+            Path dir = getItemDirectory(tmp, item);
             if ("zip".equals(extension)) {
-                ZipUtils.unzip(pis, dir);
+                ZipUtils.unzip(is, dir);
             } else if ("tgz".equals(extension)) {
-                untar(pis, dir, true);
+                untar(is, dir, true);
             } else if ("tar".equals(extension)) {
-                untar(pis, dir, false);
+                untar(is, dir, false);
             } else {
                 throw new IOException("File type is not supported: " + extension);
             }
         } else {
             Path file = tmp.resolve(fileName);
             if ("zip".equals(extension)) {
-                ZipInputStream zis = new ZipInputStream(pis);
+                ZipInputStream zis = new ZipInputStream(is);
                 zis.getNextEntry();
                 Files.copy(zis, file);
             } else if ("gzip".equals(extension)) {
-                Files.copy(new GZIPInputStream(pis), file);
+                Files.copy(new GZIPInputStream(is), file);
             } else {
-                Files.copy(pis, file);
+                Files.copy(is, file);
             }
         }
-        pis.validateChecksum(item);
+    }
+
+    private void downloadAll(
+            Path tmp,
+            URI baseUri,
+            Collection<Artifact.Item> items,
+            Progress progress,
+            int threads)
+            throws IOException {
+        Progress synchronizedProgress =
+                progress == null ? null : new SynchronizedProgress(progress);
+        ExecutorService executor = newExecutor(threads, "download");
+        try {
+            List<Future<?>> futures = new ArrayList<>(items.size());
+            for (Artifact.Item item : items) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    download(tmp, baseUri, item, synchronizedProgress);
+                                    return null;
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Download interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Download failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Path getItemDirectory(Path tmp, Artifact.Item item) throws IOException {
+        String fileName = item.getName();
+        if (fileName.isEmpty()) {
+            return tmp;
+        }
+        // honer the name set in metadata.json
+        Path dir = tmp.resolve(fileName);
+        Files.createDirectories(dir);
+        return dir;
+    }
+
+    private static int getDownloadThreads() {
+        return Integer.getInteger("ai.djl.repository.download_threads", 4);
+    }
+
+    private static ExecutorService newExecutor(int threads, String name) {
+        AtomicInteger threadId = new AtomicInteger();
+        return Executors.newFixedThreadPool(
+                threads,
+                r -> {
+                    Thread thread = new Thread(r, name + '-' + threadId.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     private void untar(InputStream is, Path dir, boolean gzip) throws IOException {
@@ -246,6 +416,54 @@ public abstract class AbstractRepository implements Repository {
         }
     }
 
+    /** An in-process download lock, with the number of threads holding or waiting for it. */
+    private static final class DownloadLock {
+
+        ReentrantLock lock = new ReentrantLock();
+        // only changed in the map's compute functions
+        int users;
+    }
+
+    /** A {@link Progress} that can be updated from multiple download threads. */
+    private static final class SynchronizedProgress implements Progress {
+
+        private Progress delegate;
+
+        SynchronizedProgress(Progress progress) {
+            delegate = progress;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void reset(String message, long max, String trailingMessage) {
+            delegate.reset(message, max, trailingMessage);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void start(long initialProgress) {
+            delegate.start(initialProgress);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void end() {
+            // the progress is ended once all the items are downloaded
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void increment(long increment) {
+            delegate.increment(increment);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void update(long progress, String message) {
+            delegate.update(progress, message);
+        }
+    }
+
     /**
      * A {@code ProgressInputStream} is a wrapper around an {@link InputStream} that also uses
      * {@link Progress}.
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Hex;
+import ai.djl.util.Progress;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads HTTP resources to a local file, resuming partial downloads and verifying checksums.
+ *
+ * <p>Partially downloaded data is kept next to the target file, so an interrupted download resumes
+ * where it stopped the next time, if the server supports range requests. Large files are split in
+ * chunks that are downloaded in parallel.
+ */
+final class HttpDownloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpDownloader.class);
+
+    static final long CHUNK_SIZE = 32L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 81920;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    private URL url;
+    private Path target;
+    private int threads;
+    private Progress progress;
+    private long chunkSize;
+
+    /**
+     * Constructs a new {@code HttpDownloader}.
+     *
+     * @param url the url to download
+     * @param target the file to download to
+     * @param threads the maximum number of connections used to download the file
+     * @param progress the (optionally null) progress tracker, must be thread safe if {@code
+     *     threads} is greater than 1
+     */
+    HttpDownloader(URL url, Path target, int threads, Progress progress) {
+        this(url, target, threads, progress, CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code HttpDownloader} with a custom chunk size.
+     *
+     * @param url the url to download
+     * @param target the file to download to
+     * @param threads the maximum number of connections used to download the file
+     * @param progress the (optionally null) progress tracker, must be thread safe if {@code
+     *     threads} is greater than 1
+     * @param chunkSize the size of the range requests, files smaller than two chunks are
+     *     downloaded with a single request
+     */
+    HttpDownloader(URL url, Path target, int threads, Progress progress, long chunkSize) {
+        this.url = url;
+        this.target = target;
+        this.threads = threads;
+        this.progress = progress;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Downloads the url to the target file.
+     *
+     * @param sha1 the expected SHA1 hash of the file, or {@code null} to skip verification
+     * @throws IOException if the download failed or the checksum doesn't match
+     */
+    void download(String sha1) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        long length;
+        boolean acceptRanges;
+        try {
+            conn.setRequestMethod("HEAD");
+            if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                length = -1;
+                acceptRanges = false;
+            } else {
+                length = conn.getContentLengthLong();
+                acceptRanges = "bytes".equals(conn.getHeaderField("Accept-Ranges"));
+            }
+        } finally {
+            conn.disconnect();
+        }
+
+        MessageDigest md = newDigest();
+        if (Files.exists(target) && Files.size(target) == length) {
+            logger.debug("Reusing downloaded file: {}", target);
+            digest(target, md, length);
+            increment(length);
+        } else if (acceptRanges && threads > 1 && length >= 2 * chunkSize) {
+            downloadChunks(length, md);
+        } else {
+            downloadStream(acceptRanges, length, md);
+        }
+
+        if (sha1 != null) {
+            String actual = Hex.toHexString(md.digest());
+            if (!sha1.equalsIgnoreCase(actual)) {
+                Files.deleteIfExists(target);
+                throw new IOException(
+                        "Checksum error: "
+                                + url
+                                + ", expected sha1: "
+                                + sha1
+                                + ", actual sha1: "
+                                + actual);
+            }
+        }
+    }
+
+    private void downloadStream(boolean acceptRanges, long length, MessageDigest md)
+            throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long offset = acceptRanges && Files.exists(part) ? Files.size(part) : 0;
+        if (offset > 0 && offset == length) {
+            // a previous attempt downloaded the whole file but did not rename it
+            logger.debug("Reusing downloaded file: {}", part);
+            digest(part, md, offset);
+            increment(offset);
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        try {
+            if (offset > 0) {
+                conn.setRequestProperty("Range", "bytes=" + offset + '-');
+            }
+            int code = conn.getResponseCode();
+            if (code == HTTP_RANGE_NOT_SATISFIABLE) {
+                // the partial file doesn't match the resource anymore, start over
+                logger.debug("Restarting download of {}, status: {}", url, code);
+                conn.disconnect();
+                Files.delete(part);
+                downloadStream(false, length, md);
+                return;
+            }
+            if (code == HttpURLConnection.HTTP_PARTIAL) {
+                logger.debug("Resuming download of {} at {} bytes", url, offset);
+                digest(part, md, offset);
+                increment(offset);
+            } else if (code == HttpURLConnection.HTTP_OK) {
+                offset = 0;
+            } else {
+                throw new IOException("Failed to download " + url + ", status: " + code);
+            }
+            try (InputStream is = conn.getInputStream();
+                    OutputStream os = open(part, offset > 0)) {
+                copy(is, os, md);
+            }
+        } finally {
+            conn.disconnect();
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void downloadChunks(long length, MessageDigest md) throws IOException {
+        int count = (int) ((length + chunkSize - 1) / chunkSize);
+        List<Path> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            parts.add(target.resolveSibling(target.getFileName() + ".part" + i));
+        }
+
+        ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        Math.min(threads, count),
+                        r -> {
+                            Thread thread = new Thread(r, "download-" + target.getFileName());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                long start = i * chunkSize;
+                long end = Math.min(start + chunkSize, length) - 1;
+                Path part = parts.get(i);
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    downloadChunk(part, start, end);
+                                    return null;
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Download interrupted: " + url, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to download " + url, cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        try (OutputStream os = open(part, false)) {
+            byte[] buf = new byte[BUFFER_SIZE];
+            for (Path chunk : parts) {
+                try (InputStream is = Files.newInputStream(chunk)) {
+                    int read;
+                    while ((read = is.read(buf)) != -1) {
+                        md.update(buf, 0, read);
+                        os.write(buf, 0, read);
+                    }
+                }
+            }
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        for (Path chunk : parts) {
+            Files.deleteIfExists(chunk);
+        }
+    }
+
+    private void downloadChunk(Path part, long start, long end) throws IOException {
+        long size = end - start + 1;
+        long offset = Files.exists(part) ? Files.size(part) : 0;
+        if (offset > size) {
+            offset = 0;
+        }
+        increment(offset);
+        if (offset == size) {
+            return;
+        }
+
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        try {
+            conn.setRequestProperty("Range", "bytes=" + (start + offset) + '-' + end);
+            int code = conn.getResponseCode();
+            if (code != HttpURLConnection.HTTP_PARTIAL) {
+                throw new IOException("Range request not honored: " + url + ", status: " + code);
+            }
+            try (InputStream is = conn.getInputStream();
+                    OutputStream os = open(part, offset > 0)) {
+                copy(is, os, null);
+            }
+        } finally {
+            conn.disconnect();
+        }
+        if (Files.size(part) != size) {
+            throw new IOException("Incomplete download: " + url);
+        }
+    }
+
+    private void copy(InputStream is, OutputStream os, MessageDigest md) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = is.read(buf)) != -1) {
+            if (md != null) {
+                md.update(buf, 0, read);
+            }
+            os.write(buf, 0, read);
+            increment(read);
+        }
+    }
+
+    private void increment(long bytes) {
+        if (progress != null && bytes > 0) {
+            progress.increment(bytes);
+        }
+    }
+
+    private static OutputStream open(Path file, boolean append) throws IOException {
+        if (append) {
+            return Files.newOutputStream(file, StandardOpenOption.APPEND);
+        }
+        return Files.newOutputStream(file);
+    }
+
+    private static void digest(Path file, MessageDigest md, long length) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        long remaining = length;
+        try (InputStream is = Files.newInputStream(file)) {
+            int read;
+            while (remaining > 0
+                    && (read = is.read(buf, 0, (int) Math.min(buf.length, remaining))) != -1) {
+                md.update(buf, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA1 algorithm not found.", e);
+        }
+    }
+}
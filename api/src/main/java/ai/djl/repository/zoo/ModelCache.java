@@ -0,0 +1,421 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository.zoo;
+
+import ai.djl.MalformedModelException;
+import ai.djl.inference.Predictor;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Block;
+import ai.djl.nn.Parameter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@code ModelCache} keeps a bounded number of {@link ZooModel}s loaded and shares them between
+ * callers.
+ *
+ * <p>Models are looked up by a key, by default the {@link Criteria} instance used to load them.
+ * Concurrent requests for the same key load the model only once. Each call to {@link
+ * #acquire(Criteria)} returns a {@link CachedModel} that must be closed once the caller is done
+ * with the model, and a model is only evicted when no {@code CachedModel} for it is open.
+ *
+ * <p>When the number of loaded models exceeds {@code maxModels}, or the total weight of the
+ * loaded models exceeds {@code maxWeight}, the least recently used models that are not in use are
+ * closed. An evicted model is loaded again the next time it is acquired. By default the weight of a
+ * model is the size in bytes of its parameters, which approximates its native memory usage.
+ *
+ * <pre>
+ * ModelCache cache = ModelCache.builder().optMaxModels(100).build();
+ * try (ModelCache.CachedModel&lt;Image, Classifications&gt; cached = cache.acquire(criteria);
+ *         Predictor&lt;Image, Classifications&gt; predictor = cached.newPredictor()) {
+ *     Classifications classifications = predictor.predict(image);
+ * }
+ * </pre>
+ */
+public class ModelCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelCache.class);
+
+    private int maxModels;
+    private long maxWeight;
+    private ToLongFunction<ZooModel<?, ?>> weigher;
+
+    private LinkedHashMap<Object, Entry> entries;
+    private long totalWeight;
+    private boolean closed;
+
+    ModelCache(Builder builder) {
+        maxModels = builder.maxModels;
+        maxWeight = builder.maxWeight;
+        weigher = builder.weigher;
+        entries = new LinkedHashMap<>();
+    }
+
+    /**
+     * Creates a builder to build a {@code ModelCache}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the model matching the {@link Criteria}, loading it if it is not in the cache.
+     *
+     * <p>The {@link Criteria} instance is used as the key, so the same instance must be used to
+     * share the model.
+     *
+     * @param criteria the {@link Criteria} to load the model with
+     * @param <I> the model input type
+     * @param <O> the model output type
+     * @return a {@link CachedModel} that must be closed when the model is no longer used
+     * @throws IOException if the model could not be loaded
+     * @throws ModelNotFoundException if no model matches the criteria
+     * @throws MalformedModelException if the model is malformed
+     */
+    public <I, O> CachedModel<I, O> acquire(Criteria<I, O> criteria)
+            throws IOException, ModelNotFoundException, MalformedModelException {
+        return acquire(criteria, criteria);
+    }
+
+    /**
+     * Returns the model with the given key, loading it with the {@link Criteria} if it is not in
+     * the cache.
+     *
+     * @param key the key identifying the model, for example a tenant model name
+     * @param criteria the {@link Criteria} to load the model with
+     * @param <I> the model input type
+     * @param <O> the model output type
+     * @return a {@link CachedModel} that must be closed when the model is no longer used
+     * @throws IOException if the model could not be loaded
+     * @throws ModelNotFoundException if no model matches the criteria
+     * @throws MalformedModelException if the model is malformed
+     */
+    public <I, O> CachedModel<I, O> acquire(Object key, Criteria<I, O> criteria)
+            throws IOException, ModelNotFoundException, MalformedModelException {
+        Entry entry;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("ModelCache has been closed.");
+            }
+            // only acquire counts as an access, it moves the entry to the most recently used end
+            entry = entries.remove(key);
+            if (entry == null) {
+                entry = new Entry(key);
+            }
+            entries.put(key, entry);
+            ++entry.refCount;
+        }
+
+        boolean loaded;
+        boolean success = false;
+        try {
+            loaded = entry.load(criteria, weigher);
+            success = true;
+        } finally {
+            if (!success) {
+                release(entry);
+            }
+        }
+
+        List<ZooModel<?, ?>> evicted = null;
+        boolean cacheClosed;
+        synchronized (this) {
+            cacheClosed = closed;
+            if (!cacheClosed) {
+                if (loaded) {
+                    totalWeight += entry.weight;
+                }
+                evicted = evict();
+            }
+        }
+        if (cacheClosed) {
+            // the cache was closed while the model was loading, so close() did not see it
+            if (loaded) {
+                entry.model.close();
+            }
+            throw new IllegalStateException("ModelCache has been closed.");
+        }
+        closeAll(evicted);
+
+        @SuppressWarnings("unchecked")
+        ZooModel<I, O> model = (ZooModel<I, O>) entry.model;
+        return new CachedModel<>(this, entry, model);
+    }
+
+    /**
+     * Closes and removes the model with the given key if it is not in use.
+     *
+     * @param key the key of the model
+     * @return {@code true} if the model was removed
+     */
+    public boolean invalidate(Object key) {
+        ZooModel<?, ?> model;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.refCount > 0) {
+                return false;
+            }
+            entries.remove(key);
+            model = entry.model;
+            totalWeight -= entry.weight;
+        }
+        if (model != null) {
+            model.close();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of models in the cache.
+     *
+     * @return the number of models in the cache
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total weight of the loaded models.
+     *
+     * @return the total weight of the loaded models
+     */
+    public synchronized long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Returns whether the model with the given key is loaded.
+     *
+     * @param key the key of the model
+     * @return {@code true} if the model is loaded
+     */
+    public synchronized boolean contains(Object key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.model != null;
+    }
+
+    /** Closes all the models in the cache, including the ones that are still in use. */
+    @Override
+    public void close() {
+        List<ZooModel<?, ?>> models = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (Entry entry : entries.values()) {
+                if (entry.model != null) {
+                    models.add(entry.model);
+                }
+            }
+            entries.clear();
+            totalWeight = 0;
+        }
+        closeAll(models);
+    }
+
+    void release(Entry entry) {
+        List<ZooModel<?, ?>> evicted;
+        synchronized (this) {
+            --entry.refCount;
+            if (entry.refCount == 0 && entry.model == null) {
+                // failed to load, allow the next caller to retry
+                entries.remove(entry.key, entry);
+            }
+            evicted = evict();
+        }
+        closeAll(evicted);
+    }
+
+    private List<ZooModel<?, ?>> evict() {
+        List<ZooModel<?, ?>> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxModels || totalWeight > maxWeight) && it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.refCount > 0 || entry.model == null) {
+                continue;
+            }
+            it.remove();
+            totalWeight -= entry.weight;
+            evicted.add(entry.model);
+            logger.debug("Evicting model {} from cache.", entry.key);
+        }
+        return evicted;
+    }
+
+    private static void closeAll(List<ZooModel<?, ?>> models) {
+        for (ZooModel<?, ?> model : models) {
+            model.close();
+        }
+    }
+
+    static long estimateParameterSize(ZooModel<?, ?> model) {
+        Block block = model.getBlock();
+        if (block == null) {
+            return 0;
+        }
+        long size = 0;
+        for (Parameter parameter : block.getParameters().values()) {
+            // getArray() would create the arrays of lazily loaded parameters
+            Shape shape = parameter.getShape();
+            DataType dataType = parameter.getDataType();
+            if (shape != null && dataType != null) {
+                size += shape.size() * dataType.getNumOfBytes();
+            }
+        }
+        return size;
+    }
+
+    private static final class Entry {
+
+        Object key;
+        volatile ZooModel<?, ?> model;
+        long weight;
+        int refCount;
+
+        Entry(Object key) {
+            this.key = key;
+        }
+
+        synchronized boolean load(
+                Criteria<?, ?> criteria, ToLongFunction<ZooModel<?, ?>> weigher)
+                throws IOException, ModelNotFoundException, MalformedModelException {
+            if (model != null) {
+                return false;
+            }
+            ZooModel<?, ?> zooModel = ModelZoo.loadModel(criteria);
+            weight = weigher.applyAsLong(zooModel);
+            model = zooModel;
+            return true;
+        }
+    }
+
+    /**
+     * A {@code CachedModel} is a reference to a model in a {@link ModelCache}.
+     *
+     * <p>The model will not be evicted until the {@code CachedModel} is closed. The model itself
+     * must not be closed by the caller.
+     *
+     * @param <I> the model input type
+     * @param <O> the model output type
+     */
+    public static final class CachedModel<I, O> implements AutoCloseable {
+
+        private ModelCache cache;
+        private ModelCache.Entry entry;
+        private ZooModel<I, O> model;
+        private boolean released;
+
+        CachedModel(ModelCache cache, ModelCache.Entry entry, ZooModel<I, O> model) {
+            this.cache = cache;
+            this.entry = entry;
+            this.model = model;
+        }
+
+        /**
+         * Returns the cached model.
+         *
+         * @return the cached model
+         */
+        public ZooModel<I, O> getModel() {
+            return model;
+        }
+
+        /**
+         * Creates a new {@link Predictor} for the cached model.
+         *
+         * <p>The predictor must be closed before this {@code CachedModel}.
+         *
+         * @return a new {@link Predictor}
+         */
+        public Predictor<I, O> newPredictor() {
+            return model.newPredictor();
+        }
+
+        /** Releases the model so that it can be evicted. */
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            cache.release(entry);
+        }
+    }
+
+    /** A Builder to construct a {@link ModelCache}. */
+    public static final class Builder {
+
+        int maxModels = Integer.MAX_VALUE;
+        long maxWeight = Long.MAX_VALUE;
+        ToLongFunction<ZooModel<?, ?>> weigher = ModelCache::estimateParameterSize;
+
+        Builder() {}
+
+        /**
+         * Sets the maximum number of models to keep loaded.
+         *
+         * @param maxModels the maximum number of models to keep loaded
+         * @return this {@code Builder}
+         */
+        public Builder optMaxModels(int maxModels) {
+            this.maxModels = maxModels;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total weight of the models to keep loaded.
+         *
+         * @param maxWeight the maximum total weight, in bytes with the default weigher
+         * @return this {@code Builder}
+         */
+        public Builder optMaxWeight(long maxWeight) {
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /**
+         * Sets the function computing the weight of a model once it is loaded.
+         *
+         * <p>The default weigher returns the size in bytes of the parameters of the model.
+         *
+         * @param weigher the function computing the weight of a model
+         * @return this {@code Builder}
+         */
+        public Builder optWeigher(ToLongFunction<ZooModel<?, ?>> weigher) {
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Builds a {@link ModelCache} instance.
+         *
+         * @return the {@link ModelCache} instance
+         */
+        public ModelCache build() {
+            if (maxModels < 1 || maxWeight < 1) {
+                throw new IllegalArgumentException("maxModels and maxWeight must be positive");
+            }
+            return new ModelCache(this);
+        }
+    }
+}
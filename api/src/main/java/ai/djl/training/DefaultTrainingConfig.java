@@ -25,6 +25,7 @@ import ai.djl.training.optimizer.Optimizer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /** {@code DefaultTrainingConfig} is an implementation of the {@link TrainingConfig} interface. */
 public class DefaultTrainingConfig implements TrainingConfig {
@@ -36,6 +37,7 @@ public class DefaultTrainingConfig implements TrainingConfig {
     private DataManager dataManager;
     private List<Evaluator> evaluators;
     private List<TrainingListener> listeners;
+    private ExecutorService executorService;
 
     /**
      * Creates an instance of {@code DefaultTrainingConfig} with the given {@link Loss}. {@code
@@ -100,6 +102,22 @@ public class DefaultTrainingConfig implements TrainingConfig {
         return this;
     }
 
+    /**
+     * Sets the {@link ExecutorService} used to run the forward and backward passes of the devices
+     * concurrently.
+     *
+     * <p>Each device is then trained on its own thread, which helps when several devices share the
+     * same host, for example CPU sockets configured as separate devices. The engine must support
+     * invoking operators from multiple threads.
+     *
+     * @param executorService the {@link ExecutorService} to be set
+     * @return this {@code DefaultTrainingConfig}
+     */
+    public DefaultTrainingConfig optExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     /**
      * Adds an {@link Evaluator} that needs to be computed during training.
      *
@@ -165,4 +183,10 @@ public class DefaultTrainingConfig implements TrainingConfig {
     public List<TrainingListener> getTrainingListeners() {
         return listeners;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
 }
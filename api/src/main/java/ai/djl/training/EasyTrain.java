@@ -13,12 +13,24 @@
 package ai.djl.training;
 
 import ai.djl.Device;
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.BaseNDManager;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDArrays;
 import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
 import ai.djl.training.dataset.Batch;
 import ai.djl.training.dataset.Dataset;
 import ai.djl.training.listener.TrainingListener.BatchData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /** Helper for easy training of a whole model, a trainining batch, or a validation batch. */
 public final class EasyTrain {
@@ -35,9 +47,30 @@ public final class EasyTrain {
      */
     public static void fit(
             Trainer trainer, int numEpoch, Dataset trainingDataset, Dataset validateDataset) {
+        fit(trainer, numEpoch, trainingDataset, validateDataset, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Runs a basic epoch training experience with a given trainer, accumulating the gradients of
+     * micro-batches.
+     *
+     * @param trainer the trainer to train for
+     * @param numEpoch the number of epochs to train
+     * @param trainingDataset the dataset to train on
+     * @param validateDataset the dataset to validate against. Can be null for no validation
+     * @param microBatchSize the maximum number of samples per device in a forward and backward
+     *     pass
+     * @see #trainBatch(Trainer, Batch, int)
+     */
+    public static void fit(
+            Trainer trainer,
+            int numEpoch,
+            Dataset trainingDataset,
+            Dataset validateDataset,
+            int microBatchSize) {
         for (int epoch = 0; epoch < numEpoch; epoch++) {
             for (Batch batch : trainer.iterateDataset(trainingDataset)) {
-                trainBatch(trainer, batch);
+                trainBatch(trainer, batch, microBatchSize);
                 trainer.step();
                 batch.close();
             }
@@ -61,30 +94,226 @@ public final class EasyTrain {
      * @throws IllegalArgumentException if the batch engine does not match the trainer engine
      */
     public static void trainBatch(Trainer trainer, Batch batch) {
+        trainBatch(trainer, batch, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Trains the model with one iteration of the given {@link Batch} of data, accumulating the
+     * gradients of micro-batches.
+     *
+     * <p>The part of the batch of each device is split in micro-batches of at most {@code
+     * microBatchSize} samples, and the forward and backward passes run on one micro-batch at a
+     * time. The gradient of each micro-batch is weighted by its share of the samples of its device
+     * and the weighted gradients are summed, so that they match the gradient of a loss averaged
+     * over the part of the batch of the device, and a single call to {@link Trainer#step()}
+     * updates the parameters for the whole batch. This bounds the memory used by the intermediate
+     * results to the one of a micro-batch, and allows training with large batches without
+     * changing the model. The micro-batch size that fits a memory budget can be estimated with
+     * {@link #estimateMicroBatchSize(Trainer, Batch, int, long)}.
+     *
+     * @param trainer the trainer to validate the batch with
+     * @param batch a {@link Batch} that contains data, and its respective labels
+     * @param microBatchSize the maximum number of samples per device in a forward and backward
+     *     pass
+     * @throws IllegalArgumentException if the batch engine does not match the trainer engine
+     */
+    public static void trainBatch(Trainer trainer, Batch batch, int microBatchSize) {
         if (trainer.getManager().getEngine() != batch.getManager().getEngine()) {
             throw new IllegalArgumentException(
                     "The data must be on the same engine as the trainer. You may need to change one of your NDManagers.");
         }
-        Batch[] splits = batch.split(trainer.getDevices().stream().toArray(Device[]::new), false);
+        if (microBatchSize < 1) {
+            throw new IllegalArgumentException("microBatchSize must be positive");
+        }
+        Device[] devices = trainer.getDevices().toArray(new Device[0]);
+        long perDevice = (batch.getSize() + devices.length - 1) / devices.length;
+        int microBatches = (int) Math.max(1, (perDevice + microBatchSize - 1) / microBatchSize);
+        Device[] splitDevices = new Device[devices.length * microBatches];
+        for (int i = 0; i < splitDevices.length; ++i) {
+            splitDevices[i] = devices[i % devices.length];
+        }
+        Batch[] splits = batch.split(splitDevices, false);
+        int rounds = (splits.length + devices.length - 1) / devices.length;
+        // the split j is on the device j % devices.length, in the round j / devices.length
+        long[] deviceSizes = new long[devices.length];
+        for (int j = 0; j < splits.length; ++j) {
+            deviceSizes[j % devices.length] += splits[j].getSize();
+        }
+
+        Map<Device, List<NDList>> labelsMap = new ConcurrentHashMap<>();
+        Map<Device, List<NDList>> predsMap = new ConcurrentHashMap<>();
+        try (GradientAccumulator accumulator =
+                rounds > 1 ? new GradientAccumulator(trainer) : null) {
+            for (int round = 0; round < rounds; ++round) {
+                int start = round * devices.length;
+                int end = Math.min(start + devices.length, splits.length);
+                Batch[] roundSplits = Arrays.copyOfRange(splits, start, end);
+                for (SplitResult result : trainSplits(trainer, roundSplits)) {
+                    long time = System.nanoTime();
+                    Device device = result.preds.get(0).getDevice();
+                    labelsMap.computeIfAbsent(device, k -> new ArrayList<>()).add(result.labels);
+                    predsMap.computeIfAbsent(device, k -> new ArrayList<>()).add(result.preds);
+                    trainer.addMetric("training-metrics", time);
+                }
+                if (accumulator != null) {
+                    // a device without a split in this round keeps its previous gradient, which
+                    // has already been accumulated, so its weight is 0
+                    float[] scales = new float[devices.length];
+                    for (int j = start; j < end; ++j) {
+                        int d = j % devices.length;
+                        scales[d] = (float) splits[j].getSize() / deviceSizes[d];
+                    }
+                    if (round < rounds - 1) {
+                        accumulator.accumulate(scales);
+                    } else {
+                        accumulator.apply(scales);
+                    }
+                }
+            }
+        }
+
         BatchData batchData =
                 new BatchData(batch, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
-        try (GradientCollector collector = trainer.newGradientCollector()) {
-            for (Batch split : splits) {
-                NDList data = trainer.getDataManager().getData(split);
-                NDList labels = trainer.getDataManager().getLabels(split);
+        labelsMap.forEach((device, list) -> batchData.getLabels().put(device, merge(list)));
+        predsMap.forEach((device, list) -> batchData.getPredictions().put(device, merge(list)));
+        trainer.notifyListeners(listener -> listener.onTrainingBatch(trainer, batchData));
+    }
+
+    /**
+     * Estimates the largest micro-batch size whose forward and backward passes fit in a memory
+     * budget.
+     *
+     * <p>The forward and backward passes run once on a probe micro-batch of at most {@code
+     * probeSize} samples of the batch, on the first device of the trainer. The arrays of the probe
+     * are created in a sub-manager of the trainer's manager that tracks their memory, and the
+     * micro-batch size is the budget divided by the peak bytes of that manager per sample. Only the
+     * arrays created by the engines through their {@link ai.djl.ndarray.NDManager} are counted, so
+     * the budget should leave room for the engine's own workspace.
+     *
+     * <p>The gradients computed by the probe are overwritten by the next call to {@link
+     * #trainBatch(Trainer, Batch, int)}, so the probe does not change the training.
+     *
+     * @param trainer the trainer to estimate the micro-batch size for
+     * @param batch a {@link Batch} of the data the model is trained on
+     * @param probeSize the number of samples of the probe micro-batch
+     * @param memoryBudget the number of bytes the intermediate results of a micro-batch may use on
+     *     a device
+     * @return the micro-batch size to pass to {@link #trainBatch(Trainer, Batch, int)}, at least 1
+     * @throws IllegalArgumentException if the probe size is not positive
+     * @throws UnsupportedOperationException if the trainer's manager does not track memory
+     */
+    public static int estimateMicroBatchSize(
+            Trainer trainer, Batch batch, int probeSize, long memoryBudget) {
+        if (probeSize < 1) {
+            throw new IllegalArgumentException("probeSize must be positive");
+        }
+        Device device = trainer.getDevices().get(0);
+        int parts = (batch.getSize() + probeSize - 1) / probeSize;
+        Device[] splitDevices = new Device[Math.max(1, parts)];
+        Arrays.fill(splitDevices, device);
+        Batch probe = batch.split(splitDevices, false)[0];
+
+        try (NDManager manager = trainer.getManager().newSubManager(device)) {
+            if (!(manager instanceof BaseNDManager)) {
+                throw new UnsupportedOperationException(
+                        "Estimating the micro-batch size requires memory tracking");
+            }
+            BaseNDManager probeManager = (BaseNDManager) manager;
+            // tracks the memory of the probe without limiting it
+            probeManager.setMemoryBudget(0, 0, null);
+            NDList data = trainer.getDataManager().getData(probe).asInDevice(device, true);
+            NDList labels = trainer.getDataManager().getLabels(probe).asInDevice(device, true);
+            data.attach(probeManager);
+            labels.attach(probeManager);
+            try (GradientCollector collector = trainer.newGradientCollector()) {
                 NDList preds = trainer.forward(data);
-                long time = System.nanoTime();
-                NDArray lossValue = trainer.getLoss().evaluate(labels, preds);
-                collector.backward(lossValue);
-                trainer.addMetric("backward", time);
-                time = System.nanoTime();
-                batchData.getLabels().put(labels.get(0).getDevice(), labels);
-                batchData.getPredictions().put(preds.get(0).getDevice(), preds);
-                trainer.addMetric("training-metrics", time);
+                collector.backward(trainer.getLoss().evaluate(labels, preds));
             }
+
+            long peakBytes = probeManager.getPeakBytes();
+            if (peakBytes == 0) {
+                return Integer.MAX_VALUE;
+            }
+            long size = memoryBudget * probe.getSize() / peakBytes;
+            return (int) Math.max(1, Math.min(size, Integer.MAX_VALUE));
         }
+    }
 
-        trainer.notifyListeners(listener -> listener.onTrainingBatch(trainer, batchData));
+    /**
+     * Runs the forward and backward passes of splits on different devices.
+     *
+     * <p>The splits run concurrently, each with its own {@link GradientCollector}, if the trainer
+     * has an {@link java.util.concurrent.ExecutorService}. The time spent on each device is
+     * recorded, as well as the difference between the slowest and the fastest device.
+     */
+    private static List<SplitResult> trainSplits(Trainer trainer, Batch[] splits) {
+        List<SplitResult> results = new ArrayList<>(splits.length);
+        Optional<ExecutorService> executor = trainer.getExecutorService();
+        if (splits.length == 1 || !executor.isPresent()) {
+            try (GradientCollector collector = trainer.newGradientCollector()) {
+                for (Batch split : splits) {
+                    results.add(trainSplit(trainer, collector, split));
+                }
+            }
+        } else {
+            List<Future<SplitResult>> futures = new ArrayList<>(splits.length);
+            for (Batch split : splits) {
+                futures.add(
+                        executor.get()
+                                .submit(
+                                        () -> {
+                                            try (GradientCollector collector =
+                                                    trainer.newGradientCollector()) {
+                                                return trainSplit(trainer, collector, split);
+                                            }
+                                        }));
+            }
+            for (Future<SplitResult> future : futures) {
+                results.add(join(future));
+            }
+        }
+
+        Metrics metrics = trainer.getMetrics();
+        if (metrics != null && results.size() > 1) {
+            long min = Long.MAX_VALUE;
+            long max = 0;
+            for (SplitResult result : results) {
+                min = Math.min(min, result.time);
+                max = Math.max(max, result.time);
+            }
+            metrics.addMetric("device-skew", max - min);
+        }
+        return results;
+    }
+
+    private static SplitResult trainSplit(
+            Trainer trainer, GradientCollector collector, Batch split) {
+        long begin = System.nanoTime();
+        NDList data = trainer.getDataManager().getData(split);
+        NDList labels = trainer.getDataManager().getLabels(split);
+        NDList preds = trainer.forward(data);
+        long time = System.nanoTime();
+        NDArray lossValue = trainer.getLoss().evaluate(labels, preds);
+        collector.backward(lossValue);
+        trainer.addMetric("backward", time);
+        long end = System.nanoTime();
+        trainer.addMetric("train-" + preds.get(0).getDevice(), begin);
+        return new SplitResult(labels, preds, end - begin);
+    }
+
+    private static SplitResult join(Future<SplitResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while training", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to train on device", cause);
+        }
     }
 
     /**
@@ -116,4 +345,33 @@ public final class EasyTrain {
 
         trainer.notifyListeners(listener -> listener.onValidationBatch(trainer, batchData));
     }
+
+    private static NDList merge(List<NDList> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        int size = lists.get(0).size();
+        NDList merged = new NDList(size);
+        for (int i = 0; i < size; ++i) {
+            NDList parts = new NDList(lists.size());
+            for (NDList list : lists) {
+                parts.add(list.get(i));
+            }
+            merged.add(NDArrays.concat(parts));
+        }
+        return merged;
+    }
+
+    private static final class SplitResult {
+
+        NDList labels;
+        NDList preds;
+        long time;
+
+        SplitResult(NDList labels, NDList preds, long time) {
+            this.labels = labels;
+            this.preds = preds;
+            this.time = time;
+        }
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.nn.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sums the weighted gradients of several backward passes.
+ *
+ * <p>Each backward pass overwrites the gradients of the parameters. The {@code
+ * GradientAccumulator} keeps a running sum of the weighted gradients after each backward pass, and
+ * adds it back to the weighted gradients of the last backward pass before the optimizer step.
+ *
+ * <p>The weights are given per device, in the order of {@link Trainer#getDevices()}. Weighting the
+ * gradient of each micro-batch by its share of the samples of the device gives the gradient of a
+ * loss averaged over the whole batch.
+ */
+final class GradientAccumulator implements AutoCloseable {
+
+    private List<NDArray> weights;
+    private int numDevices;
+    private NDArray[] sums;
+
+    /**
+     * Creates a {@code GradientAccumulator} for all the trainable parameters of a trainer.
+     *
+     * @param trainer the trainer whose gradients to accumulate
+     */
+    GradientAccumulator(Trainer trainer) {
+        ParameterStore parameterStore = trainer.getParameterStore();
+        weights = new ArrayList<>();
+        List<Device> devices = trainer.getDevices();
+        numDevices = devices.size();
+        for (Parameter parameter : trainer.getModel().getBlock().getParameters().values()) {
+            if (parameter.requireGradient()) {
+                for (Device device : devices) {
+                    weights.add(parameterStore.getValue(parameter, device));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the weighted current gradients to the running sum.
+     *
+     * @param scales the weight of the current gradients of each device
+     */
+    void accumulate(float[] scales) {
+        if (sums == null) {
+            sums = new NDArray[weights.size()];
+        }
+        for (int i = 0; i < sums.length; ++i) {
+            float scale = scales[i % numDevices];
+            try (NDArray grad = weights.get(i).getGradient()) {
+                if (sums[i] == null) {
+                    sums[i] = grad.mul(scale);
+                } else {
+                    try (NDArray scaled = grad.mul(scale)) {
+                        sums[i].addi(scaled);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the current gradients by their weighted value plus the running sum, and resets the
+     * running sum.
+     *
+     * @param scales the weight of the current gradients of each device
+     */
+    void apply(float[] scales) {
+        for (int i = 0; i < weights.size(); ++i) {
+            float scale = scales[i % numDevices];
+            try (NDArray grad = weights.get(i).getGradient()) {
+                grad.muli(scale);
+                if (sums != null) {
+                    grad.addi(sums[i]);
+                }
+            }
+        }
+        close();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        if (sums != null) {
+            for (NDArray sum : sums) {
+                if (sum != null) {
+                    sum.close();
+                }
+            }
+            sums = null;
+        }
+    }
+}
@@ -15,15 +15,32 @@ package ai.djl.training;
 import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
 import ai.djl.training.optimizer.Optimizer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
-/** {@code LocalParameterServer} is an implementation of the {@code ParameterServer} interface. */
+/**
+ * {@code LocalParameterServer} is an implementation of the {@code ParameterServer} interface.
+ *
+ * <p>Gradients from multiple devices are summed with a tree reduction, so that the additions of
+ * independent pairs of devices can run concurrently. When created with more than one thread,
+ * {@link #update(String[], NDArray[][], NDArray[][])} reduces buckets of parameters of similar
+ * total size concurrently.
+ */
 public class LocalParameterServer implements ParameterServer {
 
     private Optimizer optimizer;
     private Map<String, NDArray[]> gradMap;
+    private int threads;
+    private ExecutorService executor;
 
     /**
      * Create a new instance of {@code LocalParameterServer} for the given optimizer.
@@ -31,8 +48,34 @@ public class LocalParameterServer implements ParameterServer {
      * @param optimizer an optimizer
      */
     public LocalParameterServer(Optimizer optimizer) {
+        this(optimizer, 1);
+    }
+
+    /**
+     * Create a new instance of {@code LocalParameterServer} for the given optimizer that reduces
+     * gradients with the given number of threads.
+     *
+     * @param optimizer an optimizer
+     * @param threads the number of threads used to update the parameters in {@link
+     *     #update(String[], NDArray[][], NDArray[][])}, 1 to update them on the calling thread
+     */
+    public LocalParameterServer(Optimizer optimizer, int threads) {
         this.optimizer = optimizer;
+        this.threads = threads;
         gradMap = new ConcurrentHashMap<>();
+        if (threads > 1) {
+            AtomicInteger counter = new AtomicInteger();
+            executor =
+                    Executors.newFixedThreadPool(
+                            threads,
+                            r -> {
+                                Thread thread =
+                                        new Thread(
+                                                r, "parameter-server-" + counter.getAndIncrement());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
     }
 
     /** {@inheritDoc} */
@@ -52,13 +95,9 @@ public class LocalParameterServer implements ParameterServer {
     @Override
     public void pull(String parameterId, NDArray[] weights, int priority) {
         NDArray[] grads = gradMap.get(parameterId);
-        Device firstDevice = grads[0].getDevice();
         // reduce gradient from all devices to first device
-        for (int i = 1; i < grads.length; i++) {
-            try (NDArray gradCopy = grads[i].toDevice(firstDevice, true)) {
-                grads[0].addi(gradCopy);
-            }
-        }
+        reduce(grads);
+        Device firstDevice = grads[0].getDevice();
         // update weights on different devices with reduced gradient
         for (NDArray weight : weights) {
             if (weight.getDevice().equals(firstDevice)) {
@@ -72,7 +111,150 @@ public class LocalParameterServer implements ParameterServer {
         Arrays.stream(grads).forEach(NDArray::close);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The gradients of each key are summed on the device of its first gradient, and the weights
+     * on each device are then updated with a single call to {@link Optimizer#update(String[],
+     * NDArray[], NDArray[])}. With more than one thread, the keys are split in buckets of similar
+     * size that are processed concurrently. The calls to the optimizer are serialized, since
+     * optimizers and learning rate trackers are not thread safe.
+     */
+    @Override
+    public void update(String[] parameterIds, NDArray[][] grads, NDArray[][] weights) {
+        try {
+            if (executor == null || parameterIds.length < 2) {
+                int[] indices = new int[parameterIds.length];
+                Arrays.setAll(indices, i -> i);
+                updateBucket(indices, parameterIds, grads, weights);
+                return;
+            }
+
+            List<int[]> buckets = balance(grads, threads);
+            List<Future<?>> futures = new ArrayList<>(buckets.size());
+            for (int[] bucket : buckets) {
+                futures.add(
+                        executor.submit(() -> updateBucket(bucket, parameterIds, grads, weights)));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            for (NDArray[] grad : grads) {
+                Arrays.stream(grad).forEach(NDArray::close);
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
-    public void close() {}
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void updateBucket(
+            int[] indices, String[] parameterIds, NDArray[][] grads, NDArray[][] weights) {
+        if (indices.length == 0) {
+            return;
+        }
+        for (int index : indices) {
+            reduce(grads[index]);
+        }
+
+        String[] ids = new String[indices.length];
+        for (int i = 0; i < indices.length; ++i) {
+            ids[i] = parameterIds[indices[i]];
+        }
+        List<NDArray> copies = new ArrayList<>();
+        try {
+            int numDevices = weights[indices[0]].length;
+            for (int d = 0; d < numDevices; ++d) {
+                NDArray[] deviceWeights = new NDArray[indices.length];
+                NDArray[] deviceGrads = new NDArray[indices.length];
+                for (int i = 0; i < indices.length; ++i) {
+                    NDArray weight = weights[indices[i]][d];
+                    NDArray gradSum = grads[indices[i]][0];
+                    deviceWeights[i] = weight;
+                    if (weight.getDevice().equals(gradSum.getDevice())) {
+                        deviceGrads[i] = gradSum;
+                    } else {
+                        deviceGrads[i] = gradSum.toDevice(weight.getDevice(), true);
+                        copies.add(deviceGrads[i]);
+                    }
+                }
+                synchronized (optimizer) {
+                    optimizer.update(ids, deviceWeights, deviceGrads);
+                }
+            }
+        } finally {
+            copies.forEach(NDArray::close);
+        }
+    }
+
+    /**
+     * Sums the gradients of all devices into the first gradient.
+     *
+     * <p>The gradients are added pairwise in {@code log2(n)} rounds, the additions within a round
+     * being independent from each other.
+     */
+    private static void reduce(NDArray[] grads) {
+        for (int stride = 1; stride < grads.length; stride *= 2) {
+            for (int i = 0; i + stride < grads.length; i += 2 * stride) {
+                NDArray target = grads[i];
+                try (NDArray gradCopy = grads[i + stride].toDevice(target.getDevice(), true)) {
+                    target.addi(gradCopy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the parameters in buckets of similar total gradient size, keeping the order of the
+     * parameters within each bucket.
+     */
+    private static List<int[]> balance(NDArray[][] grads, int numBuckets) {
+        Integer[] order = new Integer[grads.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingLong(i -> -grads[i][0].size()));
+
+        int count = Math.min(numBuckets, grads.length);
+        long[] loads = new long[count];
+        List<List<Integer>> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int index : order) {
+            int lightest = 0;
+            for (int i = 1; i < count; ++i) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            buckets.get(lightest).add(index);
+            loads[lightest] += grads[index][0].size();
+        }
+
+        List<int[]> ret = new ArrayList<>(count);
+        for (List<Integer> bucket : buckets) {
+            ret.add(bucket.stream().mapToInt(Integer::intValue).sorted().toArray());
+        }
+        return ret;
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reducing gradients", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to reduce gradients", cause);
+        }
+    }
 }
@@ -48,6 +48,25 @@ public interface ParameterServer extends AutoCloseable {
      */
     void pull(String parameterId, NDArray[] weights, int priority);
 
+    /**
+     * Updates the values of several keys with their gradients.
+     *
+     * <p>The default implementation pushes the gradients of all the keys, and then pulls their
+     * values. Implementations may override it to update all the keys at once.
+     *
+     * @param parameterIds the keys to update
+     * @param grads the gradients of each key on each device
+     * @param weights the NDArrays of each key on each device to store the updated values
+     */
+    default void update(String[] parameterIds, NDArray[][] grads, NDArray[][] weights) {
+        for (int i = 0; i < parameterIds.length; ++i) {
+            push(parameterIds[i], grads[i], -i);
+        }
+        for (int i = 0; i < parameterIds.length; ++i) {
+            pull(parameterIds[i], weights[i], -i);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     void close();
@@ -66,31 +66,25 @@ public class ParameterStore {
 
     /** Updates all the mirrored parameters. */
     public void updateAllParameters() {
-        int priority = 0;
+        List<String> parameterIds = new ArrayList<>(parameterMap.size());
+        List<NDArray[]> grads = new ArrayList<>(parameterMap.size());
+        List<NDArray[]> values = new ArrayList<>(parameterMap.size());
         for (Map.Entry<String, ParameterData> entry : parameterMap.entrySet()) {
-            String parameterId = entry.getKey();
             ParameterData data = entry.getValue();
             if (data.requireGradient()) {
-                NDArray[] grads =
+                parameterIds.add(entry.getKey());
+                grads.add(
                         data.getNDArrays()
                                 .stream()
                                 .map(NDArray::getGradient)
-                                .toArray(NDArray[]::new);
-                parameterServer.push(parameterId, grads, -priority);
-                ++priority;
-            }
-        }
-
-        priority = 0;
-        for (Map.Entry<String, ParameterData> entry : parameterMap.entrySet()) {
-            String parameterId = entry.getKey();
-            ParameterData data = entry.getValue();
-            if (data.requireGradient()) {
-                NDArray[] values = data.toArray();
-                parameterServer.pull(parameterId, values, -priority);
-                ++priority;
+                                .toArray(NDArray[]::new));
+                values.add(data.toArray());
             }
         }
+        parameterServer.update(
+                parameterIds.toArray(new String[0]),
+                grads.toArray(new NDArray[0][]),
+                values.toArray(new NDArray[0][]));
     }
 
     /**
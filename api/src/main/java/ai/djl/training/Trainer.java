@@ -31,6 +31,8 @@ import ai.djl.training.loss.Loss;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,10 +66,12 @@ public class Trainer implements AutoCloseable {
     private Metrics metrics;
     private List<TrainingListener> listeners;
     private Device[] devices;
+    private ParameterServer parameterServer;
     private ParameterStore parameterStore;
     private List<Evaluator> evaluators;
     private Loss loss;
     private DataManager dataManager;
+    private ExecutorService executorService;
 
     private boolean gradientsChecked;
 
@@ -84,6 +88,7 @@ public class Trainer implements AutoCloseable {
         devices = trainingConfig.getDevices();
         loss = trainingConfig.getLossFunction();
         dataManager = trainingConfig.getDataManager();
+        executorService = trainingConfig.getExecutorService();
         if (loss == null) {
             throw new IllegalArgumentException("You must specify a loss for the trainer");
         }
@@ -91,7 +96,9 @@ public class Trainer implements AutoCloseable {
         evaluators.add(loss); // track loss as an evaluator by default
 
         // ParameterServer parameterServer = new MxParameterServer(trainingConfig.getOptimizer());
-        ParameterServer parameterServer = new LocalParameterServer(trainingConfig.getOptimizer());
+        int reduceThreads =
+                devices.length > 1 ? Integer.getInteger("ai.djl.training.reduce_threads", 1) : 1;
+        parameterServer = new LocalParameterServer(trainingConfig.getOptimizer(), reduceThreads);
 
         parameterStore = new ParameterStore(manager, false);
         parameterStore.setParameterServer(parameterServer, devices);
@@ -200,6 +207,15 @@ public class Trainer implements AutoCloseable {
         return Arrays.asList(devices);
     }
 
+    /**
+     * Returns the {@link ExecutorService} used to train the devices concurrently.
+     *
+     * @return the {@link ExecutorService}, or empty if the devices are trained one after the other
+     */
+    public Optional<ExecutorService> getExecutorService() {
+        return Optional.ofNullable(executorService);
+    }
+
     /**
      * Gets the training {@link Loss} function of the trainer.
      *
@@ -236,6 +252,10 @@ public class Trainer implements AutoCloseable {
         return evaluators;
     }
 
+    ParameterStore getParameterStore() {
+        return parameterStore;
+    }
+
     /**
      * Executes a method on each of the {@link TrainingListener}s.
      *
@@ -291,6 +311,7 @@ public class Trainer implements AutoCloseable {
         notifyListeners(listener -> listener.onTrainingEnd(this));
 
         parameterStore.sync();
+        parameterServer.close();
         manager.close();
     }
 
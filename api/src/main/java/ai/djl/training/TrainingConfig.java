@@ -19,6 +19,7 @@ import ai.djl.training.listener.TrainingListener;
 import ai.djl.training.loss.Loss;
 import ai.djl.training.optimizer.Optimizer;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * An interface that is responsible for holding the configuration required by {@link Trainer}.
@@ -82,4 +83,15 @@ public interface TrainingConfig {
      * @return a list of {@link TrainingListener}s
      */
     List<TrainingListener> getTrainingListeners();
+
+    /**
+     * Returns the {@link ExecutorService} used to run the forward and backward passes of the
+     * devices concurrently.
+     *
+     * @return the {@link ExecutorService}, or {@code null} to run the devices one after the other
+     *     on the training thread
+     */
+    default ExecutorService getExecutorService() {
+        return null;
+    }
 }
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.Device;
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.Pipeline;
+import ai.djl.translate.TranslateException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ParallelDataIterable is a data loader that loads the records of each batch in parallel on a
+ * pool of worker threads.
+ *
+ * <p>Unlike {@link DataIterable}, which loads all the records of a batch sequentially, the records
+ * of a batch are loaded and transformed concurrently, and then batchified once all of them are
+ * available. At most {@code prefetchNumber} batches are loading or waiting to be consumed at any
+ * time, so a slow consumer applies backpressure to the workers instead of letting loaded batches
+ * pile up in memory.
+ *
+ * <p>Batches are delivered in sampling order by default. With unordered delivery, batches are
+ * returned as soon as they are ready, which hides the latency of slow records at the cost of
+ * reproducibility.
+ *
+ * <p>The worker threads are stopped once all the batches have been returned. If the iteration is
+ * abandoned before its end, call {@link #close()} to stop them right away; otherwise idle workers
+ * exit on their own after a few seconds.
+ *
+ * <p>If a {@link Metrics} is provided, the time spent loading the records of a batch is recorded
+ * as "DataLoad", the time spent batchifying as "Batchify" and the time the consumer waited for the
+ * next batch as "DataWait".
+ *
+ * <p>We don't recommended using ParallelDataIterable directly. Instead use {@link
+ * RandomAccessDataset.BaseBuilder#optDataLoader(int, int)} to configure a {@link
+ * RandomAccessDataset}.
+ */
+public class ParallelDataIterable implements Iterable<Batch>, Iterator<Batch>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelDataIterable.class);
+
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private RandomAccessDataset dataset;
+    private NDManager manager;
+    private Batchifier dataBatchifier;
+    private Batchifier labelBatchifier;
+    private Pipeline pipeline;
+    private Pipeline targetPipeline;
+    private Device device;
+    private boolean ordered;
+    private Metrics metrics;
+
+    private Iterator<List<Long>> sample;
+    private ExecutorService workers;
+    private Queue<CompletableFuture<Batch>> pending;
+    private BlockingQueue<CompletableFuture<Batch>> ready;
+    private int inFlight;
+    private int prefetchNumber;
+    private AtomicInteger progressCounter;
+    private boolean closed;
+
+    /**
+     * Creates a new instance of {@code ParallelDataIterable} with the given parameters.
+     *
+     * @param dataset the dataset to iterate on
+     * @param manager the manager to create the arrays
+     * @param sampler a sampler to sample data with
+     * @param dataBatchifier a batchifier for data
+     * @param labelBatchifier a batchifier for labels
+     * @param pipeline the pipeline of transforms to apply on the data
+     * @param targetPipeline the pipeline of transforms to apply on the labels
+     * @param numWorkers the number of worker threads loading records
+     * @param prefetchNumber the maximum number of batches loading or ready at once
+     * @param ordered whether batches must be delivered in sampling order
+     * @param metrics the {@link Metrics} to record the loading time in, may be {@code null}
+     * @param device the {@link Device}
+     */
+    public ParallelDataIterable(
+            RandomAccessDataset dataset,
+            NDManager manager,
+            Sampler sampler,
+            Batchifier dataBatchifier,
+            Batchifier labelBatchifier,
+            Pipeline pipeline,
+            Pipeline targetPipeline,
+            int numWorkers,
+            int prefetchNumber,
+            boolean ordered,
+            Metrics metrics,
+            Device device) {
+        if (numWorkers < 1 || prefetchNumber < 1) {
+            throw new IllegalArgumentException(
+                    "numWorkers and prefetchNumber must be positive, got "
+                            + numWorkers
+                            + " and "
+                            + prefetchNumber);
+        }
+        this.dataset = dataset;
+        this.manager = manager.newSubManager();
+        this.dataBatchifier = dataBatchifier;
+        this.labelBatchifier = labelBatchifier;
+        this.pipeline = pipeline;
+        this.targetPipeline = targetPipeline;
+        this.prefetchNumber = prefetchNumber;
+        this.ordered = ordered;
+        this.metrics = metrics;
+        this.device = device;
+        progressCounter = new AtomicInteger(0);
+
+        AtomicInteger threadId = new AtomicInteger();
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        numWorkers,
+                        numWorkers,
+                        KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        r -> {
+                            Thread thread =
+                                    new Thread(r, "data-loader-" + threadId.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        // the workers of an abandoned iteration must not live forever
+        executor.allowCoreThreadTimeOut(true);
+        workers = executor;
+        pending = new ArrayDeque<>();
+        ready = new LinkedBlockingQueue<>();
+
+        sample = sampler.sample(dataset);
+        for (int i = 0; i < prefetchNumber; i++) {
+            preFetch();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Batch> iterator() {
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+        if (inFlight == 0) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Batch next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long begin = System.nanoTime();
+        try {
+            CompletableFuture<Batch> future = ordered ? pending.poll() : ready.take();
+            Batch batch = future.get();
+            --inFlight;
+            if (metrics != null) {
+                metrics.addMetric("DataWait", System.nanoTime() - begin, "nano");
+            }
+            preFetch();
+            return batch;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Data loading interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            logger.error(cause.getMessage());
+            close();
+            throw new IllegalStateException("Data loading failed", cause);
+        }
+    }
+
+    private void preFetch() {
+        if (closed || !sample.hasNext() || inFlight >= prefetchNumber) {
+            return;
+        }
+        List<Long> indices = sample.next();
+        int progress = progressCounter.getAndAdd(indices.size());
+        NDManager subManager = manager.newSubManager();
+        int batchSize = indices.size();
+
+        long begin = System.nanoTime();
+        List<CompletableFuture<Record>> records = new ArrayList<>(batchSize);
+        for (long index : indices) {
+            records.add(CompletableFuture.supplyAsync(() -> load(subManager, index), workers));
+        }
+        CompletableFuture<Batch> future =
+                CompletableFuture.allOf(records.toArray(new CompletableFuture<?>[0]))
+                        .thenApplyAsync(
+                                v -> assemble(subManager, records, progress, begin), workers);
+        future.whenComplete(
+                (batch, t) -> {
+                    if (t != null) {
+                        subManager.close();
+                    }
+                });
+        if (ordered) {
+            pending.offer(future);
+        } else {
+            future.whenComplete((batch, t) -> ready.offer(future));
+        }
+        ++inFlight;
+    }
+
+    private Record load(NDManager subManager, long index) {
+        try {
+            Record record = dataset.get(subManager, index);
+            if (pipeline == null) {
+                return record;
+            }
+            return new Record(pipeline.transform(record.getData()), record.getLabels());
+        } catch (IOException | TranslateException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private Batch assemble(
+            NDManager subManager,
+            List<CompletableFuture<Record>> records,
+            int progress,
+            long begin) {
+        long loaded = System.nanoTime();
+        if (metrics != null) {
+            metrics.addMetric("DataLoad", loaded - begin, "nano");
+        }
+        int batchSize = records.size();
+        NDList[] data = new NDList[batchSize];
+        NDList[] labels = new NDList[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            Record record = records.get(i).join();
+            data[i] = record.getData();
+            labels[i] = record.getLabels();
+        }
+        NDList batchData = dataBatchifier.batchify(data);
+        NDList batchLabels = labelBatchifier.batchify(labels);
+
+        for (int i = 0; i < batchSize; i++) {
+            data[i].close();
+            labels[i].close();
+        }
+
+        // apply label transform
+        if (targetPipeline != null) {
+            batchLabels = targetPipeline.transform(batchLabels);
+        }
+        // pin to a specific device
+        if (device != null) {
+            batchData = batchData.asInDevice(device, false);
+            batchLabels = batchLabels.asInDevice(device, false);
+        }
+        if (metrics != null) {
+            metrics.addMetric("Batchify", System.nanoTime() - loaded, "nano");
+        }
+        return new Batch(
+                subManager,
+                batchData,
+                batchLabels,
+                batchSize,
+                dataBatchifier,
+                labelBatchifier,
+                progress,
+                dataset.size());
+    }
+
+    /**
+     * Stops loading batches and closes the worker threads.
+     *
+     * <p>This is called automatically when the last batch has been returned or loading fails.
+     * Batches that have already been returned are not closed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        inFlight = 0;
+        workers.shutdownNow();
+        String close = System.getProperty("ai.djl.dataiterator.autoclose", "true");
+        if (Boolean.parseBoolean(close)) {
+            manager.close();
+        }
+    }
+}
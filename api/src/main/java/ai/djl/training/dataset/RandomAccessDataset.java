@@ -13,6 +13,7 @@
 package ai.djl.training.dataset;
 
 import ai.djl.Device;
+import ai.djl.metric.Metrics;
 import ai.djl.ndarray.NDManager;
 import ai.djl.translate.Batchifier;
 import ai.djl.translate.Pipeline;
@@ -37,6 +38,9 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
     protected Pipeline targetPipeline;
     protected ExecutorService executor;
     protected int prefetchNumber;
+    protected int numWorkers;
+    protected boolean ordered;
+    protected Metrics metrics;
     protected long limit;
     protected Device device;
 
@@ -56,6 +60,9 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
         this.targetPipeline = builder.targetPipeline;
         this.executor = builder.executor;
         this.prefetchNumber = builder.prefetchNumber;
+        this.numWorkers = builder.numWorkers;
+        this.ordered = builder.ordered;
+        this.metrics = builder.metrics;
         this.limit = builder.limit;
         this.device = builder.device;
     }
@@ -75,17 +82,7 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
     /** {@inheritDoc} */
     @Override
     public Iterable<Batch> getData(NDManager manager) {
-        return new DataIterable(
-                this,
-                manager,
-                sampler,
-                dataBatchifier,
-                labelBatchifier,
-                pipeline,
-                targetPipeline,
-                executor,
-                prefetchNumber,
-                device);
+        return getData(manager, sampler);
     }
 
     /**
@@ -96,6 +93,21 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
      * @return an {@link Iterable} of {@link Batch} that contains batches of data from the dataset
      */
     public Iterable<Batch> getData(NDManager manager, Sampler sampler) {
+        if (numWorkers > 0) {
+            return new ParallelDataIterable(
+                    this,
+                    manager,
+                    sampler,
+                    dataBatchifier,
+                    labelBatchifier,
+                    pipeline,
+                    targetPipeline,
+                    numWorkers,
+                    prefetchNumber,
+                    ordered,
+                    metrics,
+                    device);
+        }
         return new DataIterable(
                 this,
                 manager,
@@ -170,6 +182,9 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
         protected Pipeline targetPipeline;
         protected ExecutorService executor;
         protected int prefetchNumber;
+        protected int numWorkers;
+        protected boolean ordered = true;
+        protected Metrics metrics;
         protected long limit = Long.MAX_VALUE;
         protected Device device;
 
@@ -285,6 +300,50 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
             return self();
         }
 
+        /**
+         * Sets the number of worker threads of the built-in data loader.
+         *
+         * <p>The data loader loads the records of each batch in parallel on its own worker threads,
+         * and keeps at most {@code prefetchNumber} batches loading or ready to be consumed. This
+         * takes precedence over {@link #optExecutor(ExecutorService, int)}.
+         *
+         * @param numWorkers the number of worker threads loading records
+         * @param prefetchNumber the maximum number of batches loading or ready at once
+         * @return this {@code BaseBuilder}
+         * @see ParallelDataIterable
+         */
+        public T optDataLoader(int numWorkers, int prefetchNumber) {
+            this.numWorkers = numWorkers;
+            this.prefetchNumber = prefetchNumber;
+            return self();
+        }
+
+        /**
+         * Sets whether the built-in data loader delivers batches in sampling order, defaults to
+         * {@code true}.
+         *
+         * <p>Unordered delivery returns batches as soon as they are loaded, which avoids waiting
+         * on a batch containing slow records.
+         *
+         * @param ordered whether batches are delivered in sampling order
+         * @return this {@code BaseBuilder}
+         */
+        public T optOrdered(boolean ordered) {
+            this.ordered = ordered;
+            return self();
+        }
+
+        /**
+         * Sets the {@link Metrics} the built-in data loader records its timing in.
+         *
+         * @param metrics the {@link Metrics} to record the data loading timing in
+         * @return this {@code BaseBuilder}
+         */
+        public T optMetrics(Metrics metrics) {
+            this.metrics = metrics;
+            return self();
+        }
+
         /**
          * Sets the {@link Device}.
          *
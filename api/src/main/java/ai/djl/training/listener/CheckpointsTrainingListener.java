@@ -12,21 +12,57 @@
  */
 package ai.djl.training.listener;
 
+import ai.djl.BaseModel;
+import ai.djl.Device;
 import ai.djl.Model;
+import ai.djl.ndarray.NDManager;
+import ai.djl.nn.SnapshotOutputStream;
 import ai.djl.training.Trainer;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** A {@link TrainingListener} that saves a model checkpoint after each epoch. */
+/**
+ * A {@link TrainingListener} that saves a model checkpoint after each epoch.
+ *
+ * <p>Checkpoints can also be saved every N training steps with {@link #setSaveEveryNSteps(int)},
+ * and only the latest checkpoints are kept if {@link #setMaxCheckpoints(int)} is set. Checkpoints
+ * are numbered consecutively, and the number is stored in the "Epoch" property of the model.
+ *
+ * <p>In asynchronous mode, the training thread only copies the parameters to the CPU, which takes a
+ * consistent snapshot of them. The snapshot is encoded to a temporary file, flushed to the disk and
+ * renamed on a background thread, so a crash never leaves a partial checkpoint behind. At most one
+ * checkpoint is written at a time: if the previous one is still being written, the training thread
+ * waits for it before taking the next snapshot. Asynchronous mode requires the model to be a {@link
+ * BaseModel}, other models are saved synchronously.
+ */
 public class CheckpointsTrainingListener implements TrainingListener {
 
     private static final Logger logger = LoggerFactory.getLogger(CheckpointsTrainingListener.class);
 
     private String outputDir;
     private String overrideModelName;
-    private int epoch;
+    private int checkpoint;
+    private boolean asynchronous;
+    private int saveEveryNSteps;
+    private int maxCheckpoints;
+    private int step;
+
+    private ExecutorService writer;
+    private Future<?> pending;
 
     /**
      * Constructs a {@link CheckpointsTrainingListener} using the model's name.
@@ -58,24 +94,18 @@ public class CheckpointsTrainingListener implements TrainingListener {
         if (outputDir == null) {
             return;
         }
-        epoch++;
         // save model at end of each epoch
-        Model model = trainer.getModel();
-        String modelName = model.getName();
-        if (overrideModelName != null) {
-            modelName = overrideModelName;
-        }
-        try {
-            model.setProperty("Epoch", String.valueOf(epoch));
-            model.save(Paths.get(outputDir), modelName);
-        } catch (IOException e) {
-            logger.error("Failed to save checkpoint", e);
-        }
+        saveCheckpoint(trainer.getModel());
     }
 
     /** {@inheritDoc} */
     @Override
-    public void onTrainingBatch(Trainer trainer, BatchData batchData) {}
+    public void onTrainingBatch(Trainer trainer, BatchData batchData) {
+        step++;
+        if (saveEveryNSteps > 0 && step % saveEveryNSteps == 0) {
+            saveCheckpoint(trainer.getModel());
+        }
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -87,7 +117,13 @@ public class CheckpointsTrainingListener implements TrainingListener {
 
     /** {@inheritDoc} */
     @Override
-    public void onTrainingEnd(Trainer trainer) {}
+    public void onTrainingEnd(Trainer trainer) {
+        awaitPending();
+        if (writer != null) {
+            writer.shutdown();
+            writer = null;
+        }
+    }
 
     /**
      * Returns the override model name to save checkpoints with.
@@ -106,4 +142,142 @@ public class CheckpointsTrainingListener implements TrainingListener {
     public void setOverrideModelName(String overrideModelName) {
         this.overrideModelName = overrideModelName;
     }
+
+    /**
+     * Returns whether checkpoints are written on a background thread.
+     *
+     * @return whether checkpoints are written on a background thread
+     */
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    /**
+     * Sets whether checkpoints are written on a background thread.
+     *
+     * @param asynchronous whether checkpoints are written on a background thread
+     */
+    public void setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
+    /**
+     * Sets the number of training steps between checkpoints, in addition to the checkpoint saved
+     * after each epoch.
+     *
+     * @param saveEveryNSteps the number of training steps between checkpoints, or 0 to only save
+     *     after each epoch
+     */
+    public void setSaveEveryNSteps(int saveEveryNSteps) {
+        this.saveEveryNSteps = saveEveryNSteps;
+    }
+
+    /**
+     * Sets the number of latest checkpoints to keep, older checkpoints are deleted.
+     *
+     * @param maxCheckpoints the number of checkpoints to keep, or 0 to keep all of them
+     */
+    public void setMaxCheckpoints(int maxCheckpoints) {
+        this.maxCheckpoints = maxCheckpoints;
+    }
+
+    /**
+     * Waits for the checkpoint being written in the background, if any.
+     *
+     * <p>This is called automatically at the end of training.
+     */
+    public void awaitPending() {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Failed to save checkpoint", e.getCause());
+        }
+        pending = null;
+    }
+
+    private void saveCheckpoint(Model model) {
+        String modelName = model.getName();
+        if (overrideModelName != null) {
+            modelName = overrideModelName;
+        }
+        checkpoint++;
+        model.setProperty("Epoch", String.valueOf(checkpoint));
+        Path dir = Paths.get(outputDir);
+        int number = checkpoint;
+        try {
+            if (!asynchronous || !(model instanceof BaseModel)) {
+                model.save(dir, modelName);
+                deleteOldCheckpoints(dir, modelName, number);
+                return;
+            }
+
+            // a single snapshot being written at a time
+            awaitPending();
+            Path file = dir.resolve(String.format("%s-%04d.params", modelName, number));
+            NDManager manager = model.getNDManager().newSubManager(Device.cpu());
+            SnapshotOutputStream snapshot = new SnapshotOutputStream(manager);
+            try {
+                ((BaseModel) model).save(snapshot, modelName);
+            } catch (IOException | RuntimeException e) {
+                manager.close();
+                throw e;
+            }
+            if (writer == null) {
+                writer =
+                        Executors.newSingleThreadExecutor(
+                                r -> {
+                                    Thread thread = new Thread(r, "checkpoint-writer");
+                                    thread.setDaemon(true);
+                                    return thread;
+                                });
+            }
+            String name = modelName;
+            pending =
+                    writer.submit(
+                            () -> {
+                                try {
+                                    write(snapshot, dir, name, number, file);
+                                } finally {
+                                    manager.close();
+                                }
+                                return null;
+                            });
+        } catch (IOException e) {
+            logger.error("Failed to save checkpoint", e);
+        }
+    }
+
+    private void write(
+            SnapshotOutputStream snapshot, Path dir, String modelName, int number, Path file)
+            throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(file.getFileName() + ".tmp");
+        try (FileChannel fc =
+                        FileChannel.open(
+                                tmp,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE,
+                                StandardOpenOption.TRUNCATE_EXISTING);
+                OutputStream os = new BufferedOutputStream(Channels.newOutputStream(fc))) {
+            snapshot.writeTo(os);
+            fc.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        logger.debug("Checkpoint saved: {}", file);
+        deleteOldCheckpoints(dir, modelName, number);
+    }
+
+    private void deleteOldCheckpoints(Path dir, String modelName, int number) throws IOException {
+        for (int i = number - maxCheckpoints; maxCheckpoints > 0 && i > 0; --i) {
+            Path file = dir.resolve(String.format("%s-%04d.params", modelName, i));
+            if (!Files.deleteIfExists(file)) {
+                break;
+            }
+        }
+    }
 }
@@ -164,6 +164,13 @@ public class LoggingTrainingListener implements TrainingListener {
         p90 = metrics.percentile("backward", 90).getValue().longValue() / 1_000_000f;
         logger.info(String.format("backward P50: %.3f ms, P90: %.3f ms", p50, p90));
 
+        if (metrics.hasMetric("device-skew")) {
+            // only recorded when training on multiple devices
+            p50 = metrics.percentile("device-skew", 50).getValue().longValue() / 1_000_000f;
+            p90 = metrics.percentile("device-skew", 90).getValue().longValue() / 1_000_000f;
+            logger.info(String.format("device-skew P50: %.3f ms, P90: %.3f ms", p50, p90));
+        }
+
         p50 = metrics.percentile("step", 50).getValue().longValue() / 1_000_000f;
         p90 = metrics.percentile("step", 90).getValue().longValue() / 1_000_000f;
         logger.info(String.format("step P50: %.3f ms, P90: %.3f ms", p50, p90));
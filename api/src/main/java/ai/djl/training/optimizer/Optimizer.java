@@ -100,6 +100,23 @@ public abstract class Optimizer {
      */
     public abstract void update(String parameterId, NDArray weight, NDArray grad);
 
+    /**
+     * Updates several parameters according to their gradients.
+     *
+     * <p>The default implementation calls {@link #update(String, NDArray, NDArray)} for each
+     * parameter. Optimizers that support fused multi-tensor updates override it to update the
+     * parameters in as few operator calls as possible.
+     *
+     * @param parameterIds the parameters to be updated
+     * @param weights the weights of each parameter
+     * @param grads the gradients of each parameter
+     */
+    public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+        for (int i = 0; i < parameterIds.length; ++i) {
+            update(parameterIds[i], weights[i], grads[i]);
+        }
+    }
+
     protected NDArray withDefaultState(
             Map<String, Map<Device, NDArray>> state,
             String key,
@@ -16,7 +16,11 @@ import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.internal.NDArrayEx;
+import ai.djl.ndarray.types.SparseFormat;
 import ai.djl.training.optimizer.learningrate.LearningRateTracker;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -33,6 +37,9 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class Sgd extends Optimizer {
 
+    // maximum number of weights updated by a single fused operator call
+    private static final int MAX_FUSED_WEIGHTS = 60;
+
     private LearningRateTracker learningRateTracker;
     private float momentum;
     private Map<String, Map<Device, NDArray>> momentumStates;
@@ -52,9 +59,13 @@ public class Sgd extends Optimizer {
     /** {@inheritDoc} */
     @Override
     public void update(String parameterId, NDArray weight, NDArray grad) {
+        float learningRate = learningRateTracker.getNewLearningRate(updateCount(parameterId));
+        update(parameterId, weight, grad, learningRate);
+    }
+
+    private void update(String parameterId, NDArray weight, NDArray grad, float learningRate) {
         // TODO: Support Mixed precision Sparse
         float weightDecay = getWeightDecay();
-        float learningRate = learningRateTracker.getNewLearningRate(updateCount(parameterId));
         NDList inputs;
         if (momentum != 0f) {
             NDArray state =
@@ -74,6 +85,82 @@ public class Sgd extends Optimizer {
                 inputs, weights, learningRate, weightDecay, rescaleGrad, clipGrad, momentum, true);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Dense parameters that are on the same device and have the same data type are updated
+     * together with a single fused operator call.
+     */
+    @Override
+    public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+        // the learning rates depend on the order of the updates, compute them in the same order
+        // as the parameter by parameter updates
+        float[] learningRates = new float[parameterIds.length];
+        for (int i = 0; i < parameterIds.length; ++i) {
+            learningRates[i] = learningRateTracker.getNewLearningRate(updateCount(parameterIds[i]));
+        }
+
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < parameterIds.length; ++i) {
+            NDArray weight = weights[i];
+            if (grads[i].getSparseFormat() != SparseFormat.DENSE) {
+                update(parameterIds[i], weight, grads[i], learningRates[i]);
+                continue;
+            }
+            String key = weight.getDevice().toString() + '/' + weight.getDataType();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        for (List<Integer> group : groups.values()) {
+            for (int start = 0; start < group.size(); start += MAX_FUSED_WEIGHTS) {
+                List<Integer> chunk =
+                        group.subList(start, Math.min(start + MAX_FUSED_WEIGHTS, group.size()));
+                if (chunk.size() == 1) {
+                    int index = chunk.get(0);
+                    update(parameterIds[index], weights[index], grads[index], learningRates[index]);
+                } else {
+                    fusedUpdate(chunk, parameterIds, weights, grads, learningRates);
+                }
+            }
+        }
+    }
+
+    private void fusedUpdate(
+            List<Integer> indices,
+            String[] parameterIds,
+            NDArray[] weights,
+            NDArray[] grads,
+            float[] learningRates) {
+        int size = indices.size();
+        float weightDecay = getWeightDecay();
+        float[] chunkLearningRates = new float[size];
+        float[] weightDecays = new float[size];
+        NDList inputs = new NDList(size * (momentum != 0f ? 3 : 2));
+        NDList outputs = new NDList(size);
+        for (int i = 0; i < size; ++i) {
+            int index = indices.get(i);
+            String parameterId = parameterIds[index];
+            NDArray weight = weights[index];
+            chunkLearningRates[i] = learningRates[index];
+            weightDecays[i] = weightDecay;
+            inputs.add(weight);
+            inputs.add(grads[index]);
+            if (momentum != 0f) {
+                inputs.add(
+                        withDefaultState(
+                                momentumStates,
+                                parameterId,
+                                weight.getDevice(),
+                                k -> weight.zerosLike()));
+            }
+            outputs.add(weight);
+        }
+
+        NDArrayEx ex = outputs.head().getNDArrayInternal();
+        ex.multiSgdUpdate(
+                inputs, outputs, chunkLearningRates, weightDecays, rescaleGrad, clipGrad, momentum);
+    }
+
     /** The Builder to construct an {@link Sgd} object. */
     public static final class Builder extends OptimizerBuilder<Builder> {
 
@@ -18,11 +18,16 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.index.NDIndex;
 import ai.djl.ndarray.types.Shape;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * The padding stack batchifier is a {@link StackBatchifier} that also pads elements to reach the
  * same length.
+ *
+ * <p>By default, the elements are padded to the length of the longest element of the batch. When
+ * buckets are set with {@link Builder#optBuckets(int...)}, they are padded to the smallest bucket
+ * that fits the longest element instead, so that the batches only take a few distinct shapes.
  */
 public final class PaddingStackBatchifier implements Batchifier {
 
@@ -31,6 +36,7 @@ public final class PaddingStackBatchifier implements Batchifier {
     private List<NDArraySupplier> paddingSuppliers;
     private List<Integer> paddingSizes;
     private boolean includeValidLengths;
+    private int[] buckets;
 
     private PaddingStackBatchifier(Builder builder) {
         arraysToPad = builder.arraysToPad;
@@ -38,6 +44,7 @@ public final class PaddingStackBatchifier implements Batchifier {
         paddingSuppliers = builder.paddingSuppliers;
         paddingSizes = builder.paddingSizes;
         includeValidLengths = builder.includeValidLengths;
+        buckets = builder.buckets;
     }
 
     @Override
@@ -59,7 +66,7 @@ public final class PaddingStackBatchifier implements Batchifier {
                 throw new IllegalArgumentException(
                         "The batchifier padding size is too small " + maxSize + " " + paddingSize);
             }
-            maxSize = Math.max(maxSize, paddingSize);
+            maxSize = getBucket(Math.max(maxSize, paddingSize));
             for (int j = 0; j < inputs.length; j++) {
                 NDArray array = inputs[j].get(arrayIndex);
                 long validLength = array.getShape().get(dimIndex);
@@ -130,6 +137,24 @@ public final class PaddingStackBatchifier implements Batchifier {
         return split;
     }
 
+    /**
+     * Returns the length that elements of the given length are padded to.
+     *
+     * @param length the length of the longest element of a batch
+     * @return the smallest bucket that is not shorter than {@code length}, or {@code length} if
+     *     there is no such bucket
+     */
+    public long getBucket(long length) {
+        if (buckets != null) {
+            for (int bucket : buckets) {
+                if (bucket >= length) {
+                    return bucket;
+                }
+            }
+        }
+        return length;
+    }
+
     /**
      * Returns a {@link PaddingStackBatchifier.Builder}.
      *
@@ -147,6 +172,7 @@ public final class PaddingStackBatchifier implements Batchifier {
         private List<NDArraySupplier> paddingSuppliers;
         private List<Integer> paddingSizes;
         private boolean includeValidLengths;
+        private int[] buckets;
 
         private Builder() {
             arraysToPad = new ArrayList<>();
@@ -166,6 +192,21 @@ public final class PaddingStackBatchifier implements Batchifier {
             return this;
         }
 
+        /**
+         * Sets the lengths that the padded dimensions are rounded up to.
+         *
+         * <p>Elements longer than the largest bucket are padded to the longest element of the
+         * batch.
+         *
+         * @param buckets the lengths to pad to
+         * @return this builder
+         */
+        public Builder optBuckets(int... buckets) {
+            this.buckets = buckets.clone();
+            Arrays.sort(this.buckets);
+            return this;
+        }
+
         /**
          * Adds a new dimension to be padded in the input {@link NDList}.
          *
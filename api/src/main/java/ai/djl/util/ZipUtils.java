@@ -17,7 +17,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -53,6 +60,54 @@ public final class ZipUtils {
         }
     }
 
+    /**
+     * Unzips a zip file to a given path, extracting the entries in parallel.
+     *
+     * @param file the zip file to unzip
+     * @param dest the path to store the unzipped files
+     * @param executor the {@link ExecutorService} to extract the entries with
+     * @throws IOException for failures to unzip the file and create files in the dest path
+     */
+    public static void unzip(Path file, Path dest, ExecutorService executor) throws IOException {
+        try (ZipFile zipFile = new ZipFile(file.toFile())) {
+            List<Future<?>> futures = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                Path path = dest.resolve(entry.getName()).toAbsolutePath();
+                if (entry.isDirectory()) {
+                    Files.createDirectories(path);
+                    continue;
+                }
+                Path parentFile = path.getParent();
+                if (parentFile == null) {
+                    throw new AssertionError("Parent path should never be null: " + path);
+                }
+                Files.createDirectories(parentFile);
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    try (InputStream is = zipFile.getInputStream(entry)) {
+                                        Files.copy(is, path);
+                                    }
+                                    return null;
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Unzip interrupted: " + file, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to unzip " + file, cause);
+        }
+    }
+
     /**
      * Zips an input directory to a given file.
      *
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.Collections;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class HistogramMetricsTest {
+
+    @Test
+    public void testHistogramMetrics() {
+        Metrics metrics = new HistogramMetrics("m1");
+        metrics.addMetric(new Metric("m1", 1L));
+        metrics.addMetric("m1", 3L, "count");
+        metrics.addMetric("m1", 2L);
+        Assert.assertEquals(metrics.percentile("m1", 50).getValue().longValue(), 2L);
+        Assert.assertEquals(metrics.mean("m1"), 2d);
+        Assert.assertEquals(metrics.latestMetric("m1").getValue().longValue(), 2L);
+        Assert.assertEquals(metrics.getMetric("m1").size(), 1);
+
+        metrics.addMetric("m2", 1.5d);
+        metrics.addMetric("m2", 2.5d);
+        Assert.assertEquals(metrics.getMetric("m2").size(), 2);
+        Assert.assertEquals(metrics.mean("m2"), 2d);
+
+        // only the selected metrics are recorded into histograms
+        metrics.addMetric("m4", 1L);
+        metrics.addMetric("m4", 2L);
+        Assert.assertEquals(metrics.getMetric("m4").size(), 2);
+        Assert.assertNull(((HistogramMetrics) metrics).getHistogram("m4"));
+        Assert.assertThrows(
+                IllegalStateException.class, () -> ((HistogramMetrics) metrics).addHistogram("m4"));
+
+        // a histogram metric is never split into individual samples
+        Assert.assertThrows(IllegalArgumentException.class, () -> metrics.addMetric("m1", 1.5d));
+        Assert.assertThrows(IllegalArgumentException.class, () -> metrics.addMetric("m1", -1));
+        Assert.assertEquals(metrics.getMetric("m1").size(), 1);
+
+        Assert.assertTrue(metrics.hasMetric("m1"));
+        Assert.assertTrue(metrics.hasMetric("m2"));
+        Assert.assertFalse(metrics.hasMetric("m3"));
+    }
+
+    @Test
+    public void testHistogramPrecision() {
+        HistogramMetrics metrics = new HistogramMetrics("latency");
+        for (long i = 1; i <= 100_000; ++i) {
+            metrics.addMetric("latency", i * 1000, "nano");
+        }
+        Histogram histogram = metrics.getHistogram("latency");
+        Assert.assertEquals(histogram.getCount(), 100_000);
+        Assert.assertEquals(histogram.getMin(), 1000);
+        Assert.assertEquals(histogram.getMax(), 100_000_000);
+
+        long p50 = metrics.percentile("latency", 50).getValue().longValue();
+        Assert.assertTrue(Math.abs(p50 - 50_000_000) < 50_000_000 / 64, "p50: " + p50);
+        long p99 = metrics.percentile("latency", 99).getValue().longValue();
+        Assert.assertTrue(Math.abs(p99 - 99_000_000) < 99_000_000 / 64, "p99: " + p99);
+        Assert.assertEquals(metrics.getUnit("latency"), "nano");
+
+        metrics.reset();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getBuckets().length, 0);
+        Assert.assertThrows(IllegalArgumentException.class, () -> metrics.mean("latency"));
+        Assert.assertNull(MetricSummary.of(metrics, "latency", Collections.emptyMap()));
+        Assert.assertTrue(metrics.getMetric("latency").isEmpty());
+        Assert.assertThrows(IllegalArgumentException.class, () -> metrics.latestMetric("latency"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPercentileException() {
+        Metrics metrics = new HistogramMetrics("not_found");
+        metrics.percentile("not_found", 1);
+    }
+}
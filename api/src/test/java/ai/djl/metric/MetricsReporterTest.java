@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import ai.djl.util.Utils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MetricsReporterTest {
+
+    @Test
+    public void testPrometheusExporter() throws IOException {
+        HistogramMetrics metrics = new HistogramMetrics("Inference");
+        metrics.addMetric("Inference", 100L, "nano");
+        metrics.addMetric("Inference", 300L, "nano");
+        metrics.addMetric("Inference", 200L, "nano");
+
+        try (MetricsReporter reporter = new MetricsReporter(new PrometheusExporter())) {
+            reporter.register("resnet", metrics);
+            StringWriter writer = new StringWriter();
+            reporter.export(writer);
+            String text = writer.toString();
+            Assert.assertTrue(text.contains("# TYPE djl_Inference summary\n"), text);
+            Assert.assertTrue(
+                    text.contains("djl_Inference{model=\"resnet\",quantile=\"0.5\"} 200\n"), text);
+            Assert.assertTrue(text.contains("djl_Inference_count{model=\"resnet\"} 3\n"), text);
+            Assert.assertTrue(text.contains("djl_Inference_sum{model=\"resnet\"} 600\n"), text);
+            Assert.assertTrue(text.contains("djl_Inference_latest{model=\"resnet\"} 200\n"), text);
+        }
+    }
+
+    @Test
+    public void testJsonLinesExporter() throws IOException {
+        Metrics metrics = new Metrics();
+        metrics.addMetric("loss", 0.5f);
+        metrics.addMetric("loss", 1.5f);
+
+        try (MetricsReporter reporter = new MetricsReporter(new JsonLinesExporter())) {
+            reporter.register("mlp", metrics);
+            StringWriter writer = new StringWriter();
+            reporter.export(writer);
+            String[] lines = writer.toString().split("\n");
+            Assert.assertEquals(lines.length, 1);
+            Assert.assertTrue(lines[0].startsWith("{\"name\":\"loss\""), lines[0]);
+            Assert.assertTrue(lines[0].contains("\"labels\":{\"model\":\"mlp\"}"), lines[0]);
+            Assert.assertTrue(lines[0].contains("\"mean\":1.0"), lines[0]);
+        }
+    }
+
+    @Test
+    public void testServer() throws IOException {
+        Metrics metrics = new Metrics();
+        metrics.addMetric("loss", 0.5f);
+
+        try (MetricsReporter reporter = new MetricsReporter(new JsonLinesExporter())) {
+            reporter.register("mlp", metrics);
+            Assert.assertNull(reporter.getServerAddress());
+            reporter.startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            InetSocketAddress address = reporter.getServerAddress();
+            Assert.assertThrows(IllegalStateException.class, () -> reporter.startServer(address));
+
+            String host = address.getHostString();
+            URL url = new URL("http://" + host + ':' + address.getPort() + "/metrics");
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            try (InputStream is = conn.getInputStream()) {
+                Assert.assertEquals(conn.getResponseCode(), 200);
+                Assert.assertEquals(conn.getContentType(), reporter.getContentType());
+                String body = Utils.toString(is);
+                Assert.assertTrue(body.startsWith("{\"name\":\"loss\""), body);
+            } finally {
+                conn.disconnect();
+            }
+
+            reporter.close();
+            Assert.assertNull(reporter.getServerAddress());
+        }
+    }
+
+    @Test
+    public void testFileExport() throws IOException, InterruptedException {
+        Metrics metrics = new Metrics();
+        metrics.addMetric("loss", 0.5f);
+
+        Path dir = Files.createTempDirectory("metrics");
+        Path file = dir.resolve("metrics.txt");
+        try (MetricsReporter reporter = new MetricsReporter(new JsonLinesExporter())) {
+            reporter.register("mlp", metrics);
+            reporter.startFileExport(file, 10, TimeUnit.MILLISECONDS);
+            long deadline = System.currentTimeMillis() + 10000;
+            while (!Files.exists(file) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            reporter.close();
+
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            Assert.assertEquals(lines.size(), 1);
+            Assert.assertTrue(lines.get(0).startsWith("{\"name\":\"loss\""), lines.get(0));
+            // the temporary files are replaced atomically and never left behind
+            try (Stream<Path> files = Files.list(dir)) {
+                Assert.assertEquals(files.count(), 1);
+            }
+        } finally {
+            Utils.deleteQuietly(dir);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TokenIndexTest {
+
+    @Test
+    public void testIndexOf() {
+        List<String> tokens = Arrays.asList("the", "quick", "", "brown", "fox", "the", "日本");
+        TokenIndex index = TokenIndex.of(tokens);
+        Assert.assertEquals(index.size(), 7);
+        Assert.assertEquals(index, tokens);
+        Assert.assertEquals(index.indexOf("quick"), 1);
+        Assert.assertEquals(index.indexOf(""), 2);
+        Assert.assertEquals(index.indexOf("the"), 0);
+        Assert.assertEquals(index.indexOf(new StringBuilder("fox")), 4);
+        Assert.assertEquals(index.indexOf("日本"), 6);
+        Assert.assertEquals(index.indexOf("jumps"), -1);
+        Assert.assertEquals(index.indexOf(1), -1);
+        Assert.assertTrue(index.contains("brown"));
+        Assert.assertEquals(index.indicesOf("fox", "jumps", "the"), new long[] {4, -1, 0});
+
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i) {
+            many.add("token" + i);
+        }
+        index = TokenIndex.of(many);
+        for (int i = 0; i < many.size(); ++i) {
+            Assert.assertEquals(index.indexOf(many.get(i)), i);
+        }
+        Assert.assertEquals(TokenIndex.of(new ArrayList<>()).indexOf("the"), -1);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        List<String> tokens = Arrays.asList("deep", "java", "library", "日本");
+        Path file = Files.createTempFile("tokens", ".idx");
+        try {
+            TokenIndex.of(tokens).save(file);
+            TokenIndex index = TokenIndex.load(file);
+            Assert.assertEquals(index, tokens);
+            Assert.assertEquals(index.indexOf("library"), 2);
+            Assert.assertEquals(index.indexOf("日本"), 3);
+            Assert.assertEquals(index.indexOf("python"), -1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadMalformed() throws IOException {
+        List<String> tokens = Arrays.asList("deep", "java", "library");
+        Path file = Files.createTempFile("tokens", ".idx");
+        try {
+            TokenIndex.of(tokens).save(file);
+            byte[] valid = Files.readAllBytes(file);
+            ByteOrder order = valid[8] == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            int capacity = ByteBuffer.wrap(valid).order(order).getInt(16);
+
+            // an offset past the end of the pool
+            byte[] bytes = valid.clone();
+            ByteBuffer.wrap(bytes).order(order).putInt(TokenIndex.HEADER_SIZE + 4, 1000);
+            Files.write(file, bytes);
+            Assert.assertThrows(IOException.class, () -> TokenIndex.load(file));
+
+            // offsets that go backwards
+            bytes = valid.clone();
+            ByteBuffer.wrap(bytes).order(order).putInt(TokenIndex.HEADER_SIZE + 8, 1);
+            Files.write(file, bytes);
+            Assert.assertThrows(IOException.class, () -> TokenIndex.load(file));
+
+            // a table entry that points past the last token
+            bytes = valid.clone();
+            int table = TokenIndex.HEADER_SIZE + (tokens.size() + 1) * 4;
+            ByteBuffer.wrap(bytes).order(order).putInt(table, tokens.size() + 1);
+            Files.write(file, bytes);
+            Assert.assertThrows(IOException.class, () -> TokenIndex.load(file));
+
+            // a full table, where a lookup would never stop probing
+            bytes = valid.clone();
+            ByteBuffer bb = ByteBuffer.wrap(bytes).order(order);
+            for (int i = 0; i < capacity; ++i) {
+                bb.putInt(table + i * 4, 1);
+            }
+            Files.write(file, bytes);
+            Assert.assertThrows(IOException.class, () -> TokenIndex.load(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSimpleVocabulary() {
+        SimpleVocabulary vocabulary =
+                new SimpleVocabulary.VocabularyBuilder()
+                        .optMinFrequency(2)
+                        .optReservedTokens(Arrays.asList("<pad>"))
+                        .add(Arrays.asList("a", "b", "a", "c", "<pad>"))
+                        .add(Arrays.asList("c", "d", "c"))
+                        .build();
+        Assert.assertEquals(vocabulary.size(), 4);
+        Assert.assertEquals(vocabulary.getIndex("a"), 0);
+        Assert.assertEquals(vocabulary.getIndex("c"), 1);
+        Assert.assertEquals(vocabulary.getIndex("b"), -1);
+        Assert.assertEquals(vocabulary.getIndex("z"), 0);
+        Assert.assertEquals(vocabulary.getIndices("c", "d", "a"), new long[] {1, -1, 0});
+        Assert.assertEquals(vocabulary.getToken(1), "c");
+        Assert.assertEquals(vocabulary.getToken(2), "<unk>");
+        Assert.assertTrue(vocabulary.isKnownToken("<pad>"));
+        Assert.assertTrue(vocabulary.isKnownToken("a"));
+        Assert.assertFalse(vocabulary.isKnownToken("d"));
+    }
+}
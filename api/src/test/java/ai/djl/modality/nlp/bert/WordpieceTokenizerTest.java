@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class WordpieceTokenizerTest {
+
+    private static final String VOCAB =
+            "[PAD]\n[UNK]\n[CLS]\n[SEP]\nwhen\ndid\nbbc\njapan\nstart\nbroad\n##cast\n##ing\n"
+                    + "?\n.\nun\n##want\n##ed\n,\nrun\ncafe\n";
+
+    private static WordpieceVocabulary vocabulary() {
+        return WordpieceVocabulary.parse(
+                new ByteArrayInputStream(VOCAB.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testVocabulary() {
+        WordpieceVocabulary vocabulary = vocabulary();
+        Assert.assertEquals(vocabulary.size(), 20);
+        Assert.assertEquals(vocabulary.getIndex("broad"), 9);
+        Assert.assertEquals(vocabulary.getIndex("##cast"), 10);
+        Assert.assertEquals(vocabulary.getIndex("cast"), 1);
+        Assert.assertEquals(vocabulary.getIndex("missing"), 1);
+        Assert.assertEquals(vocabulary.getToken(11), "##ing");
+    }
+
+    @Test
+    public void testTokenize() {
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocabulary());
+        List<String> tokens = tokenizer.tokenize("UNwanted,  broadcasting Café?");
+        Assert.assertEquals(
+                tokens,
+                Arrays.asList(
+                        "un", "##want", "##ed", ",", "broad", "##cast", "##ing", "cafe", "?"));
+        Assert.assertEquals(tokenizer.buildSentence(tokens), "unwanted , broadcasting cafe ?");
+
+        // words that cannot be split into pieces are unknown
+        Assert.assertEquals(tokenizer.tokenizeToIndices("runs japan"), new int[] {1, 7});
+    }
+
+    @Test
+    public void testEncode() {
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocabulary());
+        BertToken token =
+                tokenizer.encode("When did BBC Japan start broadcasting?", "BBC Japan.", 16);
+        Assert.assertEquals(
+                token.getIndices(),
+                new long[] {2, 4, 5, 6, 7, 8, 9, 10, 11, 12, 3, 6, 7, 13, 3, 0});
+        Assert.assertEquals(
+                token.getTokenTypeArray(),
+                new long[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 0});
+        Assert.assertEquals(
+                token.getAttentionMaskArray(),
+                new long[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 0});
+        Assert.assertEquals(token.getTokens().get(15), "[PAD]");
+        Assert.assertEquals(token.getValidLength(), 12);
+
+        // the paragraph is truncated to fit
+        token = tokenizer.encode("When did BBC Japan start broadcasting?", "BBC Japan.", 13);
+        Assert.assertEquals(
+                token.getIndices(), new long[] {2, 4, 5, 6, 7, 8, 9, 10, 11, 12, 3, 6, 3});
+
+        // the question is truncated if it does not fit by itself
+        token = tokenizer.encode("When did BBC Japan start broadcasting?", "BBC Japan.", 5);
+        Assert.assertEquals(token.getIndices(), new long[] {2, 4, 5, 3, 3});
+        Assert.assertEquals(token.getTokenTypeArray(), new long[] {0, 0, 0, 0, 1});
+        Assert.assertThrows(
+                IllegalArgumentException.class, () -> tokenizer.encode("when", "did", 2));
+
+        // without padding
+        token = tokenizer.encode("When did BBC Japan start broadcasting?", "BBC Japan.", 16, false);
+        Assert.assertEquals(token.getIndices().length, 15);
+        Assert.assertEquals(token.getTokens().size(), 15);
+    }
+}
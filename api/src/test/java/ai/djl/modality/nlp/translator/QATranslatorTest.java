@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.translator;
+
+import ai.djl.Model;
+import ai.djl.metric.Metrics;
+import ai.djl.modality.nlp.bert.WordpieceTokenizer;
+import ai.djl.modality.nlp.bert.WordpieceVocabulary;
+import ai.djl.modality.nlp.qa.QAInput;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.TranslatorContext;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class QATranslatorTest {
+
+    private static final String VOCAB =
+            "[PAD]\n[UNK]\n[CLS]\n[SEP]\nwhen\ndid\nbbc\njapan\nstart\nbroad\n##cast\n##ing\n";
+
+    @Test
+    public void testTokensOrder() {
+        TestTranslator translator = new TestTranslator();
+        TestContext ctx = new TestContext();
+        List<String> first = Arrays.asList("a");
+        List<String> second = Arrays.asList("b", "c");
+        translator.pushTokens(ctx, first);
+        translator.pushTokens(ctx, second);
+        Assert.assertSame(translator.pollTokens(ctx), first);
+        Assert.assertSame(translator.pollTokens(ctx), second);
+        Assert.assertThrows(IllegalStateException.class, () -> translator.pollTokens(ctx));
+    }
+
+    @Test
+    public void testStateless() {
+        // a single translator serves interleaved batches, each keeps its state in its context
+        TestTranslator translator = new TestTranslator();
+        TestContext batch1 = new TestContext();
+        TestContext batch2 = new TestContext();
+        translator.processInput(batch1, new QAInput("when did japan start", ""));
+        translator.processInput(batch2, new QAInput("broadcasting", ""));
+        translator.processInput(batch1, new QAInput("bbc", ""));
+        Assert.assertEquals(translator.processOutput(batch2, null), "broadcasting");
+        Assert.assertEquals(translator.processOutput(batch1, null), "when did japan start");
+        Assert.assertEquals(translator.processOutput(batch1, null), "bbc");
+    }
+
+    @Test
+    public void testConfigureBuckets() {
+        Map<String, Object> arguments = new HashMap<>();
+        Assert.assertNull(new TestBuilder().configure(arguments).buckets);
+
+        arguments.put("buckets", "128, 64");
+        Assert.assertEquals(new TestBuilder().configure(arguments).buckets, new int[] {128, 64});
+        arguments.put("buckets", Arrays.asList(32d, 16d));
+        Assert.assertEquals(new TestBuilder().configure(arguments).buckets, new int[] {32, 16});
+        arguments.put("buckets", new int[] {8});
+        Assert.assertEquals(new TestBuilder().configure(arguments).buckets, new int[] {8});
+    }
+
+    private static final class TestTranslator extends QATranslator {
+
+        private WordpieceTokenizer tokenizer =
+                new WordpieceTokenizer(
+                        WordpieceVocabulary.parse(
+                                new ByteArrayInputStream(VOCAB.getBytes(StandardCharsets.UTF_8))));
+
+        /** {@inheritDoc} */
+        @Override
+        public NDList processInput(TranslatorContext ctx, QAInput input) {
+            pushTokens(ctx, tokenizer.tokenize(input.getQuestion()));
+            return new NDList();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String processOutput(TranslatorContext ctx, NDList list) {
+            return tokenizer.buildSentence(pollTokens(ctx));
+        }
+    }
+
+    private static final class TestBuilder extends QATranslator.BaseBuilder<TestBuilder> {
+
+        /** {@inheritDoc} */
+        @Override
+        protected TestBuilder self() {
+            return this;
+        }
+    }
+
+    private static final class TestContext implements TranslatorContext {
+
+        private Map<String, Object> attachments = new HashMap<>();
+
+        /** {@inheritDoc} */
+        @Override
+        public Model getModel() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDManager getNDManager() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Metrics getMetrics() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Object getAttachment(String key) {
+            return attachments.get(key);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void setAttachment(String key, Object value) {
+            attachments.put(key, value);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            attachments = Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testReuse() {
+        BufferPool pool = new BufferPool(2, 1024);
+        ByteBuffer buffer = pool.acquire(100);
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(buffer.order(), ByteOrder.nativeOrder());
+        buffer.putInt(42);
+        pool.release(buffer);
+        Assert.assertEquals(pool.getPooledBytes(), 100);
+
+        Assert.assertNotSame(pool.acquire(200), buffer);
+        ByteBuffer reused = pool.acquire(100);
+        Assert.assertSame(reused, buffer);
+        Assert.assertEquals(reused.position(), 0);
+        Assert.assertEquals(reused.remaining(), 100);
+        Assert.assertEquals(pool.getPooledBytes(), 0);
+        Assert.assertEquals(pool.getHitCount(), 1);
+        Assert.assertEquals(pool.getMissCount(), 2);
+    }
+
+    @Test
+    public void testLimits() {
+        BufferPool pool = new BufferPool(2, 250);
+        for (int i = 0; i < 3; ++i) {
+            pool.release(ByteBuffer.allocateDirect(100));
+        }
+        // limited to 2 buffers per size
+        Assert.assertEquals(pool.getPooledBytes(), 200);
+
+        // limited to 250 bytes
+        pool.release(ByteBuffer.allocateDirect(60));
+        Assert.assertEquals(pool.getPooledBytes(), 200);
+        pool.release(ByteBuffer.allocateDirect(50));
+        Assert.assertEquals(pool.getPooledBytes(), 250);
+
+        pool.clear();
+        Assert.assertEquals(pool.getPooledBytes(), 0);
+        pool.acquire(100);
+        Assert.assertEquals(pool.getHitCount(), 0);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Hex;
+import ai.djl.util.Utils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class HttpDownloaderTest {
+
+    private HttpServer server;
+    private byte[] data;
+    private byte[] zip;
+    private List<String> ranges;
+    private AtomicInteger requests;
+    private Path dir;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        data = new byte[100_000];
+        new Random(1234).nextBytes(data);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry("model-0000.params"));
+            zos.write(data);
+            zos.putNextEntry(new ZipEntry("sub/synset.txt"));
+            zos.write("cat\ndog\n".getBytes(StandardCharsets.UTF_8));
+        }
+        zip = bos.toByteArray();
+
+        ranges = new CopyOnWriteArrayList<>();
+        requests = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/data.bin", exchange -> serve(exchange, data));
+        server.createContext("/model.zip", exchange -> serve(exchange, zip));
+        server.start();
+
+        dir = Paths.get("build/tmp/test/downloads");
+        Utils.deleteQuietly(dir);
+        Files.createDirectories(dir);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        server.stop(0);
+        Utils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        Path target = dir.resolve("resume");
+        Files.write(target.resolveSibling("resume.part"), Arrays.copyOf(data, 1000));
+        ranges.clear();
+
+        HttpDownloader downloader = new HttpDownloader(getUrl("/data.bin"), target, 4, null);
+        downloader.download(sha1(data));
+
+        Assert.assertEquals(ranges, Collections.singletonList("bytes=1000-"));
+        Assert.assertEquals(Files.readAllBytes(target), data);
+    }
+
+    @Test
+    public void testResumeCompleteFile() throws IOException {
+        Path target = dir.resolve("complete");
+        Files.write(target.resolveSibling("complete.part"), data);
+        requests.set(0);
+
+        HttpDownloader downloader = new HttpDownloader(getUrl("/data.bin"), target, 1, null);
+        downloader.download(sha1(data));
+
+        Assert.assertEquals(requests.get(), 0);
+        Assert.assertEquals(Files.readAllBytes(target), data);
+    }
+
+    @Test
+    public void testRestartUnsatisfiableRange() throws IOException {
+        Path target = dir.resolve("restart");
+        Files.write(target.resolveSibling("restart.part"), new byte[data.length + 10]);
+        ranges.clear();
+        requests.set(0);
+
+        HttpDownloader downloader = new HttpDownloader(getUrl("/data.bin"), target, 1, null);
+        downloader.download(sha1(data));
+
+        Assert.assertEquals(ranges, Collections.singletonList("bytes=" + (data.length + 10) + '-'));
+        Assert.assertEquals(requests.get(), 2);
+        Assert.assertEquals(Files.readAllBytes(target), data);
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        Path target = dir.resolve("chunks");
+        // a partial chunk is resumed
+        Files.write(target.resolveSibling("chunks.part1"), Arrays.copyOfRange(data, 16384, 16484));
+        ranges.clear();
+
+        HttpDownloader downloader =
+                new HttpDownloader(getUrl("/data.bin"), target, 4, null, 16_384);
+        downloader.download(sha1(data));
+
+        Assert.assertEquals(ranges.size(), 7);
+        Assert.assertTrue(ranges.contains("bytes=0-16383"));
+        Assert.assertTrue(ranges.contains("bytes=16484-32767"));
+        Assert.assertTrue(ranges.contains("bytes=98304-99999"));
+        Assert.assertEquals(Files.readAllBytes(target), data);
+        Assert.assertTrue(Files.notExists(target.resolveSibling("chunks.part1")));
+    }
+
+    @Test
+    public void testChecksumError() throws IOException {
+        Path target = dir.resolve("checksum");
+        HttpDownloader downloader = new HttpDownloader(getUrl("/data.bin"), target, 4, null);
+        Assert.assertThrows(IOException.class, () -> downloader.download(sha1(zip)));
+        Assert.assertTrue(Files.notExists(target));
+    }
+
+    @Test
+    public void testPrepare() throws IOException {
+        String cacheDir = System.getProperty("DJL_CACHE_DIR");
+        System.setProperty("DJL_CACHE_DIR", dir.resolve("cache").toString());
+        try {
+            Repository repository = Repository.newInstance("test", getUrl("/model.zip").toString());
+            MRL mrl = repository.getResources().get(0);
+            Artifact artifact = repository.resolve(mrl, null, null);
+            repository.prepare(artifact);
+
+            Path resourceDir = repository.getResourceDirectory(artifact);
+            Assert.assertEquals(Files.readAllBytes(resourceDir.resolve("model-0000.params")), data);
+            Assert.assertTrue(Files.isRegularFile(resourceDir.resolve("sub/synset.txt")));
+        } finally {
+            if (cacheDir == null) {
+                System.clearProperty("DJL_CACHE_DIR");
+            } else {
+                System.setProperty("DJL_CACHE_DIR", cacheDir);
+            }
+        }
+    }
+
+    private URL getUrl(String path) throws IOException {
+        InetSocketAddress address = server.getAddress();
+        return new URL("http://127.0.0.1:" + address.getPort() + path);
+    }
+
+    private void serve(HttpExchange exchange, byte[] content) throws IOException {
+        exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(content.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        requests.incrementAndGet();
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = content.length - 1;
+        int code = 200;
+        if (range != null) {
+            ranges.add(range);
+            String[] tokens = range.substring("bytes=".length()).split("-", -1);
+            start = Integer.parseInt(tokens[0]);
+            if (!tokens[1].isEmpty()) {
+                end = Integer.parseInt(tokens[1]);
+            }
+            code = 206;
+            if (start >= content.length) {
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+        }
+        exchange.sendResponseHeaders(code, end - start + 1);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(content, start, end - start + 1);
+        }
+    }
+
+    private static String sha1(byte[] content) {
+        try {
+            return Hex.toHexString(MessageDigest.getInstance("SHA1").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository.zoo;
+
+import ai.djl.Application;
+import ai.djl.Device;
+import ai.djl.repository.Artifact;
+import ai.djl.test.mock.MockModel;
+import ai.djl.util.Progress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ModelCacheTest {
+
+    @Test
+    public void testHitAndMiss() throws Exception {
+        TestZoo zoo = new TestZoo();
+        Criteria<String, String> criteria = zoo.criteria();
+        try (ModelCache cache = ModelCache.builder().build()) {
+            ZooModel<String, String> model;
+            try (ModelCache.CachedModel<String, String> cached = cache.acquire(criteria)) {
+                model = cached.getModel();
+            }
+            try (ModelCache.CachedModel<String, String> cached = cache.acquire(criteria)) {
+                Assert.assertSame(cached.getModel(), model);
+            }
+            Assert.assertEquals(zoo.loader.loads.get(), 1);
+            Assert.assertTrue(cache.contains(criteria));
+
+            try (ModelCache.CachedModel<String, String> cached =
+                    cache.acquire("other", zoo.criteria())) {
+                Assert.assertNotSame(cached.getModel(), model);
+            }
+            Assert.assertEquals(zoo.loader.loads.get(), 2);
+            Assert.assertEquals(cache.size(), 2);
+
+            Assert.assertTrue(cache.invalidate("other"));
+            Assert.assertFalse(cache.contains("other"));
+            Assert.assertEquals(cache.size(), 1);
+        }
+    }
+
+    @Test
+    public void testEvictionByWeight() throws Exception {
+        TestZoo zoo = new TestZoo();
+        try (ModelCache cache = ModelCache.builder().optMaxWeight(25).optWeigher(m -> 10).build()) {
+            ModelCache.CachedModel<String, String> first = cache.acquire("a", zoo.criteria());
+            TestModel a = zoo.loader.models.get(0);
+            cache.acquire("b", zoo.criteria()).close();
+            TestModel b = zoo.loader.models.get(1);
+
+            // "a" is in use, so the least recently used idle model is evicted
+            cache.acquire("c", zoo.criteria()).close();
+            Assert.assertEquals(cache.getTotalWeight(), 20);
+            Assert.assertTrue(b.closed);
+            Assert.assertFalse(a.closed);
+
+            first.close();
+            cache.acquire("b", zoo.criteria()).close();
+            Assert.assertTrue(a.closed);
+            Assert.assertEquals(zoo.loader.loads.get(), 4);
+            Assert.assertEquals(cache.size(), 2);
+            Assert.assertFalse(cache.contains("a"));
+            Assert.assertTrue(cache.contains("b"));
+        }
+        ZooModel<?, ?> model = new ZooModel<>(zoo.loader.models.get(0), null);
+        Assert.assertEquals(ModelCache.estimateParameterSize(model), 0);
+    }
+
+    @Test
+    public void testQueryDoesNotAffectEviction() throws Exception {
+        TestZoo zoo = new TestZoo();
+        try (ModelCache cache = ModelCache.builder().optMaxModels(2).build()) {
+            cache.acquire("a", zoo.criteria()).close();
+            cache.acquire("b", zoo.criteria()).close();
+
+            // polling the cache is not an access, "a" stays the least recently used model
+            Assert.assertTrue(cache.contains("a"));
+            cache.acquire("c", zoo.criteria()).close();
+            Assert.assertFalse(cache.contains("a"));
+            Assert.assertTrue(cache.contains("b"));
+            Assert.assertTrue(zoo.loader.models.get(0).closed);
+        }
+    }
+
+    @Test
+    public void testConcurrentLoad() throws Exception {
+        TestZoo zoo = new TestZoo();
+        zoo.loader.latch = new CountDownLatch(1);
+        Criteria<String, String> criteria = zoo.criteria();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (ModelCache cache = ModelCache.builder().build()) {
+            List<Future<ModelCache.CachedModel<String, String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                futures.add(executor.submit(() -> cache.acquire(criteria)));
+            }
+            zoo.loader.latch.countDown();
+            ZooModel<String, String> model = null;
+            for (Future<ModelCache.CachedModel<String, String>> future : futures) {
+                try (ModelCache.CachedModel<String, String> cached = future.get()) {
+                    if (model == null) {
+                        model = cached.getModel();
+                    }
+                    Assert.assertSame(cached.getModel(), model);
+                }
+            }
+            Assert.assertEquals(zoo.loader.loads.get(), 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        TestZoo zoo = new TestZoo();
+        ModelCache cache = ModelCache.builder().build();
+        ModelCache.CachedModel<String, String> inUse = cache.acquire("a", zoo.criteria());
+        cache.acquire("b", zoo.criteria()).close();
+
+        // a model that finishes loading after the cache is closed is closed as well
+        zoo.loader.latch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ModelCache.CachedModel<String, String>> loading =
+                    executor.submit(() -> cache.acquire("c", zoo.criteria()));
+            while (zoo.loader.waiting.get() == 0) {
+                Thread.sleep(1);
+            }
+            cache.close();
+            zoo.loader.latch.countDown();
+            try {
+                loading.get(10, TimeUnit.SECONDS);
+                Assert.fail("acquire() should fail once the cache is closed");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (TestModel model : zoo.loader.models) {
+            Assert.assertTrue(model.closed);
+        }
+        Assert.assertEquals(zoo.loader.models.size(), 3);
+        inUse.close();
+        Assert.assertThrows(IllegalStateException.class, () -> cache.acquire("a", zoo.criteria()));
+    }
+
+    private static final class TestModel extends MockModel {
+
+        volatile boolean closed;
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static final class TestLoader implements ModelLoader<String, String> {
+
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger waiting = new AtomicInteger();
+        List<TestModel> models = Collections.synchronizedList(new ArrayList<>());
+        volatile CountDownLatch latch;
+
+        /** {@inheritDoc} */
+        @Override
+        public String getArtifactId() {
+            return "test";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Application getApplication() {
+            return Application.UNDEFINED;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public <S, T> ZooModel<S, T> loadModel(Criteria<S, T> criteria)
+                throws ModelNotFoundException {
+            CountDownLatch wait = latch;
+            if (wait != null) {
+                waiting.incrementAndGet();
+                try {
+                    wait.await();
+                } catch (InterruptedException e) {
+                    throw new ModelNotFoundException("Interrupted", e);
+                }
+            }
+            loads.incrementAndGet();
+            TestModel model = new TestModel();
+            models.add(model);
+            return new ZooModel<>(model, null);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ZooModel<String, String> loadModel(
+                Map<String, String> filters, Device device, Progress progress) {
+            throw new UnsupportedOperationException();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<Artifact> listModels() {
+            return Collections.emptyList();
+        }
+    }
+
+    private static final class TestZoo implements ModelZoo {
+
+        TestLoader loader = new TestLoader();
+
+        Criteria<String, String> criteria() {
+            return Criteria.builder()
+                    .setTypes(String.class, String.class)
+                    .optModelZoo(this)
+                    .build();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<ModelLoader<?, ?>> getModelLoaders() {
+            return Collections.singletonList(loader);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getGroupId() {
+            return "test";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Set<String> getSupportedEngines() {
+            return Collections.emptySet();
+        }
+    }
+}
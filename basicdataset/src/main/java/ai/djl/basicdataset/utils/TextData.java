@@ -25,8 +25,17 @@ import ai.djl.ndarray.NDManager;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * {@link TextData} is a utility for managing textual data within a {@link
@@ -36,7 +45,10 @@ import java.util.Locale;
  */
 public class TextData {
 
-    private List<NDArray> textEmbeddingList;
+    private static final int MIN_FREQUENCY = 3;
+
+    private int[] offsets;
+    private int[] indices;
     private List<String> rawText;
     private List<TextProcessor> textProcessors;
     private List<String> reservedTokens;
@@ -44,6 +56,7 @@ public class TextData {
     private SimpleVocabulary vocabulary;
     private String unknownToken;
     private int embeddingSize;
+    private int parallelism;
     private int size;
 
     /**
@@ -57,6 +70,7 @@ public class TextData {
         this.embeddingSize = config.embeddingSize;
         this.unknownToken = config.unknownToken;
         this.reservedTokens = config.reservedTokens;
+        this.parallelism = config.parallelism != null ? config.parallelism : 1;
     }
 
     /**
@@ -81,44 +95,130 @@ public class TextData {
     /**
      * Preprocess the textData into {@link NDArray} by providing the data from the dataset.
      *
-     * @param manager the
+     * <p>The text is split into contiguous shards that are tokenized and counted independently,
+     * on a {@link ForkJoinPool} of {@link Configuration#setParallelism(int)} threads if it is
+     * greater than one. The token counts of the shards are merged to build the vocabulary, and the
+     * embedding indices of all the text are packed into a single array.
+     *
+     * <p>As when the text is scanned sentence by sentence, the tokens are indexed in the order in
+     * which they reach the minimum frequency, so the vocabulary does not depend on the
+     * parallelism.
+     *
+     * @param manager the manager, unused since the embeddings are created by {@link
+     *     #getEmbedding(NDManager, long)}
      * @param newTextData the data from the dataset
      */
     public void preprocess(NDManager manager, List<String> newTextData) {
         rawText = newTextData;
-        SimpleVocabulary.VocabularyBuilder vocabularyBuilder =
-                new SimpleVocabulary.VocabularyBuilder();
-        vocabularyBuilder
-                .optMinFrequency(3)
-                .optReservedTokens(reservedTokens)
-                .optUnknownToken(unknownToken);
-        List<List<String>> textData = new ArrayList<>();
-        for (String textDatum : newTextData) {
-            List<String> tokens = Collections.singletonList(textDatum);
-            for (TextProcessor processor : textProcessors) {
-                tokens = processor.preprocess(tokens);
+        size = newTextData.size();
+        int numShards = parallelism > 1 ? Math.max(1, Math.min(size, parallelism * 4)) : 1;
+        List<Shard> shards = new ArrayList<>(numShards);
+        for (int i = 0; i < numShards; i++) {
+            int from = (int) ((long) size * i / numShards);
+            int to = (int) ((long) size * (i + 1) / numShards);
+            shards.add(new Shard(newTextData.subList(from, to)));
+        }
+
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            forEach(pool, shards, shard -> shard.tokenize(textProcessors));
+
+            vocabulary =
+                    new SimpleVocabulary.VocabularyBuilder()
+                            .optMinFrequency(MIN_FREQUENCY)
+                            .optReservedTokens(reservedTokens)
+                            .optUnknownToken(unknownToken)
+                            .addTokenCounts(mergeTokenCounts(shards))
+                            .build();
+            if (textEmbedding == null) {
+                textEmbedding =
+                        new TrainableTextEmbedding(
+                                new TrainableWordEmbedding(vocabulary, embeddingSize));
+            }
+
+            forEach(pool, shards, shard -> shard.embed(vocabulary, textEmbedding));
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        offsets = new int[size + 1];
+        int index = 0;
+        for (Shard shard : shards) {
+            for (int[] sentence : shard.indices) {
+                offsets[index + 1] = offsets[index] + sentence.length;
+                index++;
+            }
+        }
+        indices = new int[offsets[size]];
+        index = 0;
+        for (Shard shard : shards) {
+            for (int[] sentence : shard.indices) {
+                System.arraycopy(sentence, 0, indices, offsets[index++], sentence.length);
             }
-            vocabularyBuilder.add(tokens);
-            textData.add(tokens);
         }
-        vocabulary = vocabularyBuilder.build();
-        if (textEmbedding == null) {
-            textEmbedding =
-                    new TrainableTextEmbedding(
-                            new TrainableWordEmbedding(vocabulary, embeddingSize));
+    }
+
+    /**
+     * Merges the token counts of the shards, ordered by the position at which each token reaches
+     * the minimum frequency in the whole text.
+     */
+    private static Map<String, Integer> mergeTokenCounts(List<Shard> shards) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Map<String, Long> crossings = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get(i);
+            for (Map.Entry<String, TokenCount> entry : shard.tokenCounts.entrySet()) {
+                String token = entry.getKey();
+                TokenCount tokenCount = entry.getValue();
+                int before = counts.getOrDefault(token, 0);
+                counts.put(token, before + tokenCount.count);
+                if (before < MIN_FREQUENCY && before + tokenCount.count >= MIN_FREQUENCY) {
+                    int position = tokenCount.positions[MIN_FREQUENCY - before - 1];
+                    crossings.put(token, (long) i << 32 | position);
+                }
+            }
+            shard.tokenCounts = null;
+        }
+        List<String> indexed = new ArrayList<>(crossings.keySet());
+        indexed.sort(Comparator.comparing(crossings::get));
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        for (String token : indexed) {
+            ordered.put(token, counts.get(token));
+        }
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            ordered.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return ordered;
+    }
+
+    private static void forEach(ForkJoinPool pool, List<Shard> shards, Consumer<Shard> action) {
+        if (pool == null) {
+            shards.forEach(action);
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            tasks.add(
+                    () -> {
+                        action.accept(shard);
+                        return null;
+                    });
         }
-        size = textData.size();
-        textEmbeddingList = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-            List<String> tokenizedTextDatum = textData.get(i);
-            for (int j = 0; j < tokenizedTextDatum.size(); j++) {
-                if (!vocabulary.isKnownToken(tokenizedTextDatum.get(j))) {
-                    tokenizedTextDatum.set(j, vocabulary.getUnknownToken());
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while preprocessing text", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
                 }
+                throw new IllegalStateException("Failed to preprocess text", cause);
             }
-            textData.set(i, tokenizedTextDatum);
-            textEmbeddingList.add(
-                    manager.create(textEmbedding.preprocessTextToEmbed(tokenizedTextDatum)));
         }
     }
 
@@ -179,9 +279,8 @@ public class TextData {
      * @return the {@link NDArray} containing the text embedding
      */
     public NDArray getEmbedding(NDManager manager, long index) {
-        NDArray embedding = textEmbeddingList.get(Math.toIntExact(index)).duplicate();
-        embedding.attach(manager);
-        return embedding;
+        int i = Math.toIntExact(index);
+        return manager.create(Arrays.copyOfRange(indices, offsets[i], offsets[i + 1]));
     }
 
     /**
@@ -214,6 +313,7 @@ public class TextData {
         private Integer embeddingSize;
         private String unknownToken;
         private List<String> reservedTokens;
+        private Integer parallelism;
 
         /**
          * Sets the {@link TextProcessor}s to use for the text data.
@@ -270,6 +370,20 @@ public class TextData {
             return this;
         }
 
+        /**
+         * Sets the number of threads used to preprocess the text data (default 1).
+         *
+         * <p>With more than one thread, the {@link TextProcessor}s and the {@link TextEmbedding}
+         * are called concurrently and must be thread-safe.
+         *
+         * @param parallelism the number of threads
+         * @return this configuration
+         */
+        public Configuration setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
         /**
          * Updates this {@link Configuration} with the non-null values from another configuration.
          *
@@ -282,7 +396,64 @@ public class TextData {
             embeddingSize = other.embeddingSize != null ? other.embeddingSize : embeddingSize;
             unknownToken = other.unknownToken != null ? other.unknownToken : unknownToken;
             reservedTokens = other.reservedTokens != null ? other.reservedTokens : reservedTokens;
+            parallelism = other.parallelism != null ? other.parallelism : parallelism;
             return this;
         }
     }
+
+    /** A contiguous part of the text data that is preprocessed by a single thread. */
+    private static final class Shard {
+
+        private List<String> text;
+        private List<List<String>> tokens;
+        private Map<String, TokenCount> tokenCounts;
+        private List<int[]> indices;
+
+        Shard(List<String> text) {
+            this.text = text;
+        }
+
+        void tokenize(List<TextProcessor> textProcessors) {
+            tokens = new ArrayList<>(text.size());
+            tokenCounts = new HashMap<>();
+            int position = 0;
+            for (String textDatum : text) {
+                List<String> sentence = Collections.singletonList(textDatum);
+                for (TextProcessor processor : textProcessors) {
+                    sentence = processor.preprocess(sentence);
+                }
+                for (String token : sentence) {
+                    TokenCount tokenCount =
+                            tokenCounts.computeIfAbsent(token, k -> new TokenCount());
+                    if (tokenCount.count < MIN_FREQUENCY) {
+                        tokenCount.positions[tokenCount.count] = position;
+                    }
+                    tokenCount.count++;
+                    position++;
+                }
+                tokens.add(sentence);
+            }
+        }
+
+        void embed(SimpleVocabulary vocabulary, TextEmbedding textEmbedding) {
+            indices = new ArrayList<>(tokens.size());
+            for (List<String> sentence : tokens) {
+                List<String> known = new ArrayList<>(sentence.size());
+                for (String token : sentence) {
+                    known.add(
+                            vocabulary.isKnownToken(token) ? token : vocabulary.getUnknownToken());
+                }
+                indices.add(textEmbedding.preprocessTextToEmbed(known));
+            }
+            tokens = null;
+        }
+    }
+
+    /** The number of occurrences of a token in a shard. */
+    private static final class TokenCount {
+
+        private int count;
+        // the positions in the shard of the first occurrences
+        private int[] positions = new int[MIN_FREQUENCY];
+    }
 }
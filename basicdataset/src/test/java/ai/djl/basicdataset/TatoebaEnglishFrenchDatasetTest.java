@@ -13,6 +13,7 @@
 package ai.djl.basicdataset;
 
 import ai.djl.basicdataset.utils.TextData.Configuration;
+import ai.djl.modality.nlp.SimpleVocabulary;
 import ai.djl.modality.nlp.embedding.EmbeddingException;
 import ai.djl.ndarray.NDManager;
 import ai.djl.training.dataset.Record;
@@ -78,4 +79,50 @@ public class TatoebaEnglishFrenchDatasetTest {
             Assert.assertEquals(record.getLabels().get(0).getShape().dimension(), 1);
         }
     }
+
+    @Test
+    public void testGetDataInParallel() throws IOException {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            TatoebaEnglishFrenchDataset sequential = newDataset(1);
+            TatoebaEnglishFrenchDataset parallel = newDataset(4);
+
+            Assert.assertEquals(parallel.size(), 1000);
+            for (boolean source : new boolean[] {true, false}) {
+                SimpleVocabulary expected = sequential.getVocabulary(source);
+                SimpleVocabulary actual = parallel.getVocabulary(source);
+                Assert.assertEquals(actual.size(), expected.size());
+                for (String token : expected.getAllTokens()) {
+                    Assert.assertEquals(actual.getIndex(token), expected.getIndex(token), token);
+                }
+            }
+            for (int i = 0; i < parallel.size(); i++) {
+                Record expected = sequential.get(manager, i);
+                Record actual = parallel.get(manager, i);
+                Assert.assertEquals(
+                        actual.getData().head().toIntArray(),
+                        expected.getData().head().toIntArray());
+                Assert.assertEquals(
+                        actual.getLabels().head().toIntArray(),
+                        expected.getLabels().head().toIntArray());
+            }
+        }
+    }
+
+    private static TatoebaEnglishFrenchDataset newDataset(int parallelism) throws IOException {
+        TatoebaEnglishFrenchDataset dataset =
+                TatoebaEnglishFrenchDataset.builder()
+                        .setSourceConfiguration(
+                                new Configuration()
+                                        .setEmbeddingSize(EMBEDDING_SIZE)
+                                        .setParallelism(parallelism))
+                        .setTargetConfiguration(
+                                new Configuration()
+                                        .setEmbeddingSize(EMBEDDING_SIZE)
+                                        .setParallelism(parallelism))
+                        .setSampling(32, true)
+                        .optLimit(1000)
+                        .build();
+        dataset.prepare();
+        return dataset;
+    }
 }
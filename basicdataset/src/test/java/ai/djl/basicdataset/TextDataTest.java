@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset;
+
+import ai.djl.basicdataset.utils.TextData;
+import ai.djl.modality.nlp.SimpleVocabulary;
+import ai.djl.modality.nlp.preprocess.LowerCaseConvertor;
+import ai.djl.modality.nlp.preprocess.PunctuationSeparator;
+import ai.djl.modality.nlp.preprocess.SimpleTokenizer;
+import ai.djl.modality.nlp.preprocess.TextProcessor;
+import ai.djl.ndarray.NDManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TextDataTest {
+
+    @Test
+    public void testParallelPreprocess() {
+        Random random = new Random(1234);
+        List<String> text = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(8) + 1;
+            for (int j = 0; j < length; j++) {
+                // skewed, so that the tokens reach the minimum frequency at different positions
+                sb.append(" Word").append((int) Math.sqrt(random.nextInt(10000))).append(',');
+            }
+            text.add(sb.toString());
+        }
+        List<TextProcessor> textProcessors =
+                Arrays.asList(
+                        new SimpleTokenizer(),
+                        new LowerCaseConvertor(Locale.ENGLISH),
+                        new PunctuationSeparator());
+        List<String> reservedTokens = Arrays.asList("<bos>", "<eos>", "<pad>");
+
+        // the vocabulary built by adding the sentences one by one
+        SimpleVocabulary.VocabularyBuilder builder =
+                new SimpleVocabulary.VocabularyBuilder()
+                        .optMinFrequency(3)
+                        .optReservedTokens(reservedTokens)
+                        .optUnknownToken("<unk>");
+        for (String sentence : text) {
+            List<String> tokens = Collections.singletonList(sentence);
+            for (TextProcessor processor : textProcessors) {
+                tokens = processor.preprocess(tokens);
+            }
+            builder.add(tokens);
+        }
+        SimpleVocabulary expected = builder.build();
+
+        try (NDManager manager = NDManager.newBaseManager()) {
+            TextData sequential =
+                    new TextData(
+                            TextData.getDefaultConfiguration()
+                                    .setTextProcessors(textProcessors)
+                                    .setReservedTokens(reservedTokens));
+            sequential.preprocess(manager, text);
+            TextData parallel =
+                    new TextData(
+                            TextData.getDefaultConfiguration()
+                                    .setTextProcessors(textProcessors)
+                                    .setReservedTokens(reservedTokens)
+                                    .setParallelism(4));
+            parallel.preprocess(manager, text);
+
+            for (TextData textData : Arrays.asList(sequential, parallel)) {
+                SimpleVocabulary vocabulary = textData.getVocabulary();
+                Assert.assertEquals(vocabulary.size(), expected.size());
+                for (String token : expected.getAllTokens()) {
+                    Assert.assertEquals(vocabulary.getIndex(token), expected.getIndex(token));
+                }
+            }
+            for (int i = 0; i < text.size(); i++) {
+                Assert.assertEquals(
+                        parallel.getEmbedding(manager, i).toIntArray(),
+                        sequential.getEmbedding(manager, i).toIntArray());
+            }
+        }
+    }
+}
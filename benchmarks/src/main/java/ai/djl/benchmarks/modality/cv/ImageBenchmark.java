@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.benchmarks.modality.cv;
+
+import ai.djl.modality.cv.BufferedImageFactory;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.util.NDImageUtils;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures the conversion of images created by the {@link BufferedImageFactory}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageBenchmark {
+
+    private static final float[] MEAN = {0.485f, 0.456f, 0.406f};
+    private static final float[] STD = {0.229f, 0.224f, 0.225f};
+
+    @Param({"224", "512"})
+    int size;
+
+    @Param({"TYPE_3BYTE_BGR", "TYPE_INT_RGB", "TYPE_BYTE_GRAY", "TYPE_4BYTE_ABGR"})
+    String type;
+
+    private NDManager manager;
+    private ImageFactory factory;
+    private BufferedImage bufferedImage;
+    private Image image;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        manager = NDManager.newBaseManager();
+        factory = new BufferedImageFactory();
+        int imageType = BufferedImage.class.getField(type).getInt(null);
+        bufferedImage = new BufferedImage(size, size, imageType);
+        Random random = new Random(0);
+        for (int y = 0; y < size; ++y) {
+            for (int x = 0; x < size; ++x) {
+                bufferedImage.setRGB(x, y, random.nextInt());
+            }
+        }
+        image = factory.fromImage(bufferedImage);
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public void toNDArray(Blackhole blackhole) {
+        try (NDArray array = image.toNDArray(manager)) {
+            blackhole.consume(array);
+        }
+    }
+
+    @Benchmark
+    public void toGrayscaleNDArray(Blackhole blackhole) {
+        try (NDArray array = image.toNDArray(manager, Image.Flag.GRAYSCALE)) {
+            blackhole.consume(array);
+        }
+    }
+
+    @Benchmark
+    public void toTensor(Blackhole blackhole) {
+        try (NDArray array = image.toTensor(manager, Image.Flag.COLOR, MEAN, STD)) {
+            blackhole.consume(array);
+        }
+    }
+
+    @Benchmark
+    public void toTensorWithTransforms(Blackhole blackhole) {
+        try (NDManager scope = manager.newSubManager()) {
+            NDArray array = NDImageUtils.toTensor(image.toNDArray(scope));
+            blackhole.consume(NDImageUtils.normalize(array, MEAN, STD));
+        }
+    }
+
+    @Benchmark
+    public Image duplicate() {
+        return image.duplicate(Image.Type.TYPE_INT_ARGB);
+    }
+}
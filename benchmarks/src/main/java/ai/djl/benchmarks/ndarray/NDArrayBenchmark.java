@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.benchmarks.ndarray;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures the per-call overhead of copying data in and out of an {@link NDArray}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NDArrayBenchmark {
+
+    @Param({"16", "4096", "1048576"})
+    int size;
+
+    private NDManager manager;
+    private float[] data;
+    private NDArray array;
+
+    @Setup
+    public void setUp() {
+        manager = NDManager.newBaseManager();
+        data = new float[size];
+        for (int i = 0; i < size; ++i) {
+            data[i] = i;
+        }
+        array = manager.create(data);
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public void create(Blackhole blackhole) {
+        try (NDManager subManager = manager.newSubManager()) {
+            blackhole.consume(subManager.create(data));
+        }
+    }
+
+    @Benchmark
+    public void zeros(Blackhole blackhole) {
+        try (NDManager subManager = manager.newSubManager()) {
+            blackhole.consume(subManager.zeros(new Shape(size)));
+        }
+    }
+
+    @Benchmark
+    public void toByteBuffer(Blackhole blackhole) {
+        ByteBuffer buffer = array.toByteBuffer();
+        blackhole.consume(buffer.getFloat(0));
+    }
+
+    @Benchmark
+    public void toFloatArray(Blackhole blackhole) {
+        blackhole.consume(array.toFloatArray());
+    }
+
+    @Benchmark
+    public void set() {
+        array.set(data);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.benchmarks.ndarray;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.Shape;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures the per-call overhead of reading and writing an {@link NDArray} with an index. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NDIndexBenchmark {
+
+    private NDManager manager;
+    private NDArray array;
+    private NDArray value;
+    private NDIndex index;
+
+    @Setup
+    public void setUp() {
+        manager = NDManager.newBaseManager();
+        array = manager.arange(64f * 32 * 16).reshape(64, 32, 16);
+        value = manager.ones(new Shape(32, 8));
+        index = new NDIndex("1, :, 4:12");
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        blackhole.consume(new NDIndex("1, :, 4:12"));
+    }
+
+    @Benchmark
+    public void getScalar(Blackhole blackhole) {
+        try (NDArray slice = array.get(1, 2, 3)) {
+            blackhole.consume(slice);
+        }
+    }
+
+    @Benchmark
+    public void getSlice(Blackhole blackhole) {
+        try (NDArray slice = array.get(index)) {
+            blackhole.consume(slice);
+        }
+    }
+
+    @Benchmark
+    public void setArray() {
+        array.set(index, value);
+    }
+
+    @Benchmark
+    public void setNumber() {
+        array.set(index, 1f);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.benchmarks.ndarray;
+
+import ai.djl.ndarray.NDManager;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the resource tracking of an {@link NDManager} shared by 1 to 64
+ * threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NDManagerBenchmark {
+
+    private NDManager manager;
+
+    @Setup
+    public void setUp() {
+        manager = NDManager.newBaseManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void attachDetach1Thread(Resource resource) {
+        attachDetach(resource);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void attachDetach4Threads(Resource resource) {
+        attachDetach(resource);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void attachDetach16Threads(Resource resource) {
+        attachDetach(resource);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void attachDetach64Threads(Resource resource) {
+        attachDetach(resource);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void subManager1Thread() {
+        manager.newSubManager().close();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void subManager64Threads() {
+        manager.newSubManager().close();
+    }
+
+    private void attachDetach(Resource resource) {
+        manager.attach(resource.uid, resource);
+        manager.detach(resource.uid);
+    }
+
+    /** A resource owned by a single benchmark thread. */
+    @State(Scope.Thread)
+    public static class Resource implements AutoCloseable {
+
+        private static final AtomicInteger COUNTER = new AtomicInteger();
+
+        String uid = "resource-" + COUNTER.incrementAndGet();
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {}
+    }
+}
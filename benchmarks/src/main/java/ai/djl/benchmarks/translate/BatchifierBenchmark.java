@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.benchmarks.translate;
+
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.PaddingStackBatchifier;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures batching and unbatching with the built-in {@link Batchifier}s.
+ *
+ * <p>The batchifiers create their results in the manager of the inputs, so the inputs are created
+ * in a new manager before each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchifierBenchmark {
+
+    @Param({"1", "8", "32"})
+    int batchSize;
+
+    private NDManager manager;
+    private NDManager subManager;
+    private NDList[] inputs;
+    private NDList[] variableInputs;
+    private NDList batch;
+    private Batchifier padding;
+
+    @Setup
+    public void setUp() {
+        manager = NDManager.newBaseManager();
+        padding =
+                PaddingStackBatchifier.builder()
+                        .optIncludeValidLengths(true)
+                        .addPad(0, 0, m -> m.zeros(new Shape(1)))
+                        .build();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareInputs() {
+        subManager = manager.newSubManager();
+        inputs = new NDList[batchSize];
+        variableInputs = new NDList[batchSize];
+        for (int i = 0; i < batchSize; ++i) {
+            inputs[i] = new NDList(subManager.ones(new Shape(3, 32, 32)), subManager.create(i));
+            // sequences of 64 to 127 tokens
+            long length = 64 + i * 63L / batchSize;
+            variableInputs[i] = new NDList(subManager.ones(new Shape(length)));
+        }
+        batch = new NDList(subManager.ones(new Shape(batchSize, 3, 32, 32)));
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeInputs() {
+        subManager.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public NDList stack() {
+        return Batchifier.STACK.batchify(inputs);
+    }
+
+    @Benchmark
+    public NDList[] unstack() {
+        return Batchifier.STACK.unbatchify(batch);
+    }
+
+    @Benchmark
+    public NDList paddingStack() {
+        return padding.batchify(variableInputs);
+    }
+}
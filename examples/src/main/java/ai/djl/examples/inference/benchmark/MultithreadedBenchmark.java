@@ -15,12 +15,15 @@ package ai.djl.examples.inference.benchmark;
 import ai.djl.ModelException;
 import ai.djl.examples.inference.benchmark.util.AbstractBenchmark;
 import ai.djl.examples.inference.benchmark.util.Arguments;
+import ai.djl.examples.inference.benchmark.util.LoadGenerator;
+import ai.djl.examples.inference.benchmark.util.LoadReport;
 import ai.djl.inference.Predictor;
 import ai.djl.metric.Metrics;
 import ai.djl.repository.zoo.ZooModel;
 import ai.djl.training.listener.MemoryTrainingListener;
 import ai.djl.translate.TranslateException;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -49,6 +52,9 @@ public class MultithreadedBenchmark extends AbstractBenchmark {
             throws IOException, ModelException, ClassNotFoundException {
         Object inputData = arguments.getInputData();
         ZooModel<?, ?> model = loadModel(arguments, metrics);
+        if (arguments.isOpenLoop()) {
+            return predictOpenLoop(model, inputData, arguments);
+        }
 
         int numOfThreads = arguments.getThreads();
         AtomicInteger counter = new AtomicInteger(iteration);
@@ -85,6 +91,23 @@ public class MultithreadedBenchmark extends AbstractBenchmark {
         return classification;
     }
 
+    private Object predictOpenLoop(ZooModel<?, ?> model, Object inputData, Arguments arguments)
+            throws IOException {
+        LoadGenerator generator = new LoadGenerator(model, inputData, arguments);
+        try {
+            LoadReport report = generator.run();
+            Path file = arguments.getReport();
+            if (file != null) {
+                report.save(file);
+                logger.info("Load report saved to {}.", file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("", e);
+        }
+        return generator.getLastResult();
+    }
+
     private static class PredictorCallable implements Callable<Object> {
 
         @SuppressWarnings("rawtypes")
@@ -132,9 +132,15 @@ public abstract class AbstractBenchmark {
                 long totalTime = System.currentTimeMillis() - begin;
 
                 logger.info("Inference result: {}", lastResult);
-                String throughput = String.format("%.2f", iteration * 1000d / totalTime);
-                logger.info(
-                        "Throughput: {}, {} iteration / {} ms.", throughput, iteration, totalTime);
+                // an open-loop run reports its achieved rate in its load report instead
+                if (!arguments.isOpenLoop()) {
+                    String throughput = String.format("%.2f", iteration * 1000d / totalTime);
+                    logger.info(
+                            "Throughput: {}, {} iteration / {} ms.",
+                            throughput,
+                            iteration,
+                            totalTime);
+                }
 
                 if (metrics.hasMetric("LoadModel")) {
                     long loadModelTime =
@@ -48,6 +48,11 @@ public class Arguments {
     private String inputClass;
     private String outputClass;
     private Shape inputShape;
+    private double rate;
+    private String arrival;
+    private int warmup;
+    private int loadDuration;
+    private String report;
 
     public Arguments(CommandLine cmd) {
         modelDir = cmd.getOptionValue("model-dir");
@@ -68,6 +73,16 @@ public class Arguments {
         } else {
             threads = Runtime.getRuntime().availableProcessors() * 2 - 1;
         }
+        if (cmd.hasOption("rate")) {
+            rate = Double.parseDouble(cmd.getOptionValue("rate"));
+        }
+        arrival = cmd.getOptionValue("arrival", "constant");
+        if (!"constant".equals(arrival) && !"poisson".equals(arrival)) {
+            throw new IllegalArgumentException("Unsupported arrival: " + arrival);
+        }
+        warmup = Integer.parseInt(cmd.getOptionValue("warmup", "10"));
+        loadDuration = Integer.parseInt(cmd.getOptionValue("load-duration", "60"));
+        report = cmd.getOptionValue("report");
         if (cmd.hasOption("criteria")) {
             Type type = new TypeToken<Map<String, String>>() {}.getType();
             criteria = new Gson().fromJson(cmd.getOptionValue("criteria"), type);
@@ -161,6 +176,41 @@ public class Arguments {
                         .argName("CRITERIA")
                         .desc("The criteria used for the model.")
                         .build());
+        options.addOption(
+                Option.builder("R")
+                        .longOpt("rate")
+                        .hasArg()
+                        .argName("RATE")
+                        .desc("Target requests per second, enables the open-loop mode.")
+                        .build());
+        options.addOption(
+                Option.builder("a")
+                        .longOpt("arrival")
+                        .hasArg()
+                        .argName("ARRIVAL")
+                        .desc("Request arrivals in open-loop mode: constant or poisson.")
+                        .build());
+        options.addOption(
+                Option.builder("w")
+                        .longOpt("warmup")
+                        .hasArg()
+                        .argName("WARMUP")
+                        .desc("Warm-up time in seconds in open-loop mode, default 10.")
+                        .build());
+        options.addOption(
+                Option.builder("l")
+                        .longOpt("load-duration")
+                        .hasArg()
+                        .argName("LOAD-DURATION")
+                        .desc("Measured time in seconds in open-loop mode, default 60.")
+                        .build());
+        options.addOption(
+                Option.builder("f")
+                        .longOpt("report")
+                        .hasArg()
+                        .argName("REPORT")
+                        .desc("File to append the open-loop report to, as CSV or JSON lines.")
+                        .build());
         return options;
     }
 
@@ -259,4 +309,28 @@ public class Arguments {
     public Shape getInputShape() {
         return inputShape;
     }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public boolean isOpenLoop() {
+        return rate > 0;
+    }
+
+    public String getArrival() {
+        return arrival;
+    }
+
+    public int getWarmup() {
+        return warmup;
+    }
+
+    public int getLoadDuration() {
+        return loadDuration;
+    }
+
+    public Path getReport() {
+        return report == null ? null : Paths.get(report);
+    }
 }
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.examples.inference.benchmark.util;
+
+import ai.djl.engine.Engine;
+import ai.djl.inference.Predictor;
+import ai.djl.metric.Histogram;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslateException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An open-loop load generator that sends requests to a model at a target rate.
+ *
+ * <p>Requests are scheduled at a constant interval or with exponentially distributed intervals
+ * (Poisson arrivals), independently of how fast they are served. Requests that arrive while all
+ * the workers are busy wait in a queue, and their latency is measured from the time they were
+ * scheduled rather than from the time a worker picked them up. This avoids the coordinated
+ * omission of closed-loop benchmarks, which stop sending requests when the model falls behind and
+ * therefore hide the queueing delay.
+ *
+ * <p>Requests scheduled during the warm-up phase are served but not recorded.
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final long STOP = Long.MIN_VALUE;
+
+    private ZooModel<?, ?> model;
+    private Object inputData;
+    private Arguments arguments;
+    private Random random;
+    private Object lastResult;
+
+    /**
+     * Creates a new {@code LoadGenerator}.
+     *
+     * @param model the model to send requests to
+     * @param inputData the input of each request
+     * @param arguments the arguments of the run
+     */
+    public LoadGenerator(ZooModel<?, ?> model, Object inputData, Arguments arguments) {
+        this.model = model;
+        this.inputData = inputData;
+        this.arguments = arguments;
+        random = new Random();
+    }
+
+    /**
+     * Sends requests for the warm-up and measured durations and waits for all of them to complete.
+     *
+     * @return the report of the measured requests
+     * @throws InterruptedException if interrupted while sending requests
+     */
+    public LoadReport run() throws InterruptedException {
+        int numOfThreads = arguments.getThreads();
+        double rate = arguments.getRate();
+        boolean poisson = "poisson".equalsIgnoreCase(arguments.getArrival());
+        double interval = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(arguments.getWarmup());
+        long end = measureStart + TimeUnit.SECONDS.toNanos(arguments.getLoadDuration());
+
+        BlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+        Recorder recorder = new Recorder(measureStart);
+        List<Worker> workers = new ArrayList<>(numOfThreads);
+        for (int i = 0; i < numOfThreads; ++i) {
+            workers.add(new Worker(queue, recorder));
+        }
+
+        logger.info(
+                "Open-loop inference at {} requests/s ({} arrivals) with {} threads.",
+                rate,
+                poisson ? "poisson" : "constant",
+                numOfThreads);
+        ExecutorService executorService = Executors.newFixedThreadPool(numOfThreads);
+        try {
+            List<Future<Object>> futures = new ArrayList<>(numOfThreads);
+            for (Worker worker : workers) {
+                futures.add(executorService.submit(worker));
+            }
+
+            double next = start;
+            long maxBacklog = 0;
+            while ((long) next < end) {
+                long scheduled = (long) next;
+                long delay;
+                while ((delay = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                queue.put(scheduled);
+                maxBacklog = Math.max(maxBacklog, queue.size());
+                next += poisson ? -Math.log(1 - random.nextDouble()) * interval : interval;
+            }
+            for (int i = 0; i < numOfThreads; ++i) {
+                queue.put(STOP);
+            }
+            if (maxBacklog > numOfThreads) {
+                logger.warn(
+                        "Up to {} requests were queued, the target rate exceeds the capacity.",
+                        maxBacklog);
+            }
+
+            for (Future<Object> future : futures) {
+                try {
+                    Object result = future.get();
+                    if (result != null) {
+                        lastResult = result;
+                    }
+                } catch (ExecutionException e) {
+                    logger.error("", e);
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+            workers.forEach(Worker::close);
+        }
+
+        LoadReport report =
+                new LoadReport(
+                        model.getName(),
+                        Engine.getInstance().getEngineName(),
+                        arguments,
+                        recorder.latency.getCount(),
+                        recorder.errors.get(),
+                        recorder.getAchievedRate(),
+                        recorder.latency,
+                        recorder.serviceTime);
+        logger.info("Load report: {}", report);
+        return report;
+    }
+
+    /**
+     * Returns the result of the last request served by a worker.
+     *
+     * @return the result of the last request, or {@code null} if all the requests failed
+     */
+    public Object getLastResult() {
+        return lastResult;
+    }
+
+    /** Collects the latencies of the requests scheduled after the warm-up phase. */
+    private static final class Recorder {
+
+        long measureStart;
+        // 8 precision bits report the percentiles within 1% of the recorded latencies
+        Histogram latency = new Histogram(8);
+        Histogram serviceTime = new Histogram(8);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong lastDone = new AtomicLong(Long.MIN_VALUE);
+
+        Recorder(long measureStart) {
+            this.measureStart = measureStart;
+        }
+
+        void record(long scheduled, long begin, long done, boolean failed) {
+            if (scheduled < measureStart) {
+                return;
+            }
+            if (failed) {
+                errors.incrementAndGet();
+                return;
+            }
+            latency.record(Math.max(done - scheduled, 0));
+            serviceTime.record(Math.max(done - begin, 0));
+            lastDone.accumulateAndGet(done, Math::max);
+        }
+
+        double getAchievedRate() {
+            long elapsed = lastDone.get() - measureStart;
+            if (elapsed <= 0) {
+                return 0;
+            }
+            return latency.getCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+    }
+
+    /** Serves the queued requests with its own {@link Predictor}. */
+    private final class Worker implements Callable<Object> {
+
+        @SuppressWarnings("rawtypes")
+        private Predictor predictor;
+
+        private BlockingQueue<Long> queue;
+        private Recorder recorder;
+
+        Worker(BlockingQueue<Long> queue, Recorder recorder) {
+            this.queue = queue;
+            this.recorder = recorder;
+            predictor = model.newPredictor();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object call() throws InterruptedException {
+            Object result = null;
+            while (true) {
+                long scheduled = queue.take();
+                if (scheduled == STOP) {
+                    return result;
+                }
+                long begin = System.nanoTime();
+                boolean failed = false;
+                try {
+                    result = predictor.predict(inputData);
+                } catch (TranslateException | RuntimeException e) {
+                    logger.debug("Request failed", e);
+                    failed = true;
+                }
+                recorder.record(scheduled, begin, System.nanoTime(), failed);
+            }
+        }
+
+        void close() {
+            predictor.close();
+        }
+    }
+}
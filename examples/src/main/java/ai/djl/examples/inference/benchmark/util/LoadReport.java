@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.examples.inference.benchmark.util;
+
+import ai.djl.metric.Histogram;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The result of an open-loop run of a {@link LoadGenerator}.
+ *
+ * <p>Reports can be appended to a file to compare runs, either as CSV rows or as JSON lines
+ * depending on the file extension.
+ */
+public class LoadReport {
+
+    private Map<String, Object> values;
+
+    LoadReport(
+            String model,
+            String engine,
+            Arguments arguments,
+            long requests,
+            long errors,
+            double achievedRate,
+            Histogram latency,
+            Histogram serviceTime) {
+        values = new LinkedHashMap<>();
+        values.put("timestamp", Instant.now().toString());
+        values.put("model", model);
+        values.put("engine", engine);
+        values.put("threads", arguments.getThreads());
+        values.put("arrival", arguments.getArrival());
+        values.put("warmup_s", arguments.getWarmup());
+        values.put("duration_s", arguments.getLoadDuration());
+        values.put("target_rps", arguments.getRate());
+        values.put("achieved_rps", round(achievedRate));
+        values.put("requests", requests);
+        values.put("errors", errors);
+        values.put("latency_mean_ms", millis(latency.getMean()));
+        values.put("latency_p50_ms", millis(latency.getValueAtPercentile(50)));
+        values.put("latency_p90_ms", millis(latency.getValueAtPercentile(90)));
+        values.put("latency_p99_ms", millis(latency.getValueAtPercentile(99)));
+        values.put("latency_p999_ms", millis(latency.getValueAtPercentile(99.9)));
+        values.put("latency_max_ms", millis(latency.getMax()));
+        values.put("service_p50_ms", millis(serviceTime.getValueAtPercentile(50)));
+        values.put("service_p99_ms", millis(serviceTime.getValueAtPercentile(99)));
+    }
+
+    /**
+     * Returns the reported values by name, in the order they are reported.
+     *
+     * @return the reported values
+     */
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+    /**
+     * Appends this report to a file, as a CSV row if the file name ends with {@code .csv} and as a
+     * JSON line otherwise.
+     *
+     * <p>A CSV header is written when the file is created.
+     *
+     * @param file the file to append the report to
+     * @throws IOException if the report cannot be written
+     */
+    public void save(Path file) throws IOException {
+        boolean csv = file.toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        boolean header = csv && (Files.notExists(file) || Files.size(file) == 0);
+        try (Writer writer =
+                Files.newBufferedWriter(
+                        file,
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND)) {
+            if (!csv) {
+                writer.write(new Gson().toJson(values));
+            } else {
+                if (header) {
+                    writer.write(String.join(",", values.keySet()));
+                    writer.write(System.lineSeparator());
+                }
+                StringBuilder sb = new StringBuilder();
+                for (Object value : values.values()) {
+                    if (sb.length() > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(value);
+                }
+                writer.write(sb.toString());
+            }
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format(
+                "target: %s rps, achieved: %s rps, requests: %s, errors: %s, latency P50: %s ms,"
+                        + " P90: %s ms, P99: %s ms, P99.9: %s ms, max: %s ms, service time P50: %s"
+                        + " ms, P99: %s ms",
+                values.get("target_rps"),
+                values.get("achieved_rps"),
+                values.get("requests"),
+                values.get("errors"),
+                values.get("latency_p50_ms"),
+                values.get("latency_p90_ms"),
+                values.get("latency_p99_ms"),
+                values.get("latency_p999_ms"),
+                values.get("latency_max_ms"),
+                values.get("service_p50_ms"),
+                values.get("service_p99_ms"));
+    }
+
+    private static double millis(double nanos) {
+        return round(nanos / 1_000_000d);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000d) / 1000d;
+    }
+}
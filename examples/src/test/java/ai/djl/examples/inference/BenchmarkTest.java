@@ -14,6 +14,15 @@ package ai.djl.examples.inference;
 
 import ai.djl.examples.inference.benchmark.Benchmark;
 import ai.djl.examples.inference.benchmark.MultithreadedBenchmark;
+import ai.djl.util.Utils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class BenchmarkTest {
@@ -45,4 +54,51 @@ public class BenchmarkTest {
         };
         new MultithreadedBenchmark().runBenchmark(args);
     }
+
+    @Test
+    public void testOpenLoopBenchmark() throws IOException {
+        Path dir = Files.createTempDirectory("benchmark");
+        try {
+            Path report = dir.resolve("report.csv");
+            String[] args = {
+                "-i",
+                "src/test/resources/segmentation.jpg",
+                "-r",
+                "{'layers':'18','flavor':'v1'}",
+                "-t",
+                "2",
+                "--rate",
+                "5",
+                "--arrival",
+                "poisson",
+                "--warmup",
+                "1",
+                "--load-duration",
+                "2",
+                "--report",
+                report.toString()
+            };
+            Assert.assertTrue(new MultithreadedBenchmark().runBenchmark(args));
+
+            List<String> lines = Files.readAllLines(report, StandardCharsets.UTF_8);
+            Assert.assertEquals(lines.size(), 2);
+            String[] names = lines.get(0).split(",");
+            String[] values = lines.get(1).split(",");
+            Assert.assertEquals(values.length, names.length);
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < names.length; ++i) {
+                row.put(names[i], values[i]);
+            }
+            Assert.assertEquals(Double.parseDouble(row.get("target_rps")), 5d);
+            Assert.assertEquals(row.get("arrival"), "poisson");
+            Assert.assertEquals(Long.parseLong(row.get("errors")), 0);
+            Assert.assertTrue(Long.parseLong(row.get("requests")) > 0, lines.get(1));
+            Assert.assertTrue(Double.parseDouble(row.get("achieved_rps")) > 0, lines.get(1));
+            double p50 = Double.parseDouble(row.get("latency_p50_ms"));
+            double p99 = Double.parseDouble(row.get("latency_p99_ms"));
+            Assert.assertTrue(p50 > 0 && p50 <= p99, lines.get(1));
+        } finally {
+            Utils.deleteQuietly(dir);
+        }
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.inference;
+
+import ai.djl.Model;
+import ai.djl.inference.BatchingPredictor;
+import ai.djl.inference.Predictor;
+import ai.djl.integration.tests.inference.InferenceTestUtils.TestTranslator;
+import ai.djl.metric.Metrics;
+import ai.djl.translate.TranslateException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BatchingPredictorTest {
+
+    @Test
+    public void testBatchingPredictor()
+            throws TranslateException, InterruptedException, ExecutionException {
+        try (Model model = InferenceTestUtils.newLinearModel("batching")) {
+            float expected;
+            try (Predictor<Float, Float> predictor = model.newPredictor(new TestTranslator())) {
+                expected = predictor.predict(1f);
+            }
+
+            Metrics metrics = new Metrics();
+            try (BatchingPredictor<Float, Float> predictor =
+                    new BatchingPredictor<>(
+                            model.newPredictor(new TestTranslator()), 4, 1, TimeUnit.SECONDS)) {
+                predictor.setMetrics(metrics);
+                List<CompletableFuture<Float>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; ++i) {
+                    futures.add(predictor.predictAsync(1f));
+                }
+                for (CompletableFuture<Float> future : futures) {
+                    Assert.assertEquals(future.get(), expected);
+                }
+                Assert.assertEquals(predictor.predict(1f), expected);
+            }
+            Assert.assertEquals(metrics.getMetric("BatchSize").size(), 3);
+            Assert.assertEquals(metrics.getMetric("BatchSize").get(0).getValue().intValue(), 4);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.inference;
+
+import ai.djl.Model;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Block;
+import ai.djl.nn.core.Linear;
+import ai.djl.training.initializer.Initializer;
+import ai.djl.translate.Translator;
+import ai.djl.translate.TranslatorContext;
+
+final class InferenceTestUtils {
+
+    private InferenceTestUtils() {}
+
+    /**
+     * Creates a model with a {@link Linear} block that sums an input of shape (1, 2).
+     *
+     * @param name the name of the model
+     * @return the model
+     */
+    static Model newLinearModel(String name) {
+        Block block = Linear.builder().setOutChannels(1).build();
+        block.setInitializer(Initializer.ONES);
+        Model model = Model.newInstance(name);
+        block.initialize(model.getNDManager(), DataType.FLOAT32, new Shape(1, 2));
+        model.setBlock(block);
+        return model;
+    }
+
+    /** A {@link Translator} that feeds {@code [x, x]} to the model and returns its first output. */
+    static final class TestTranslator implements Translator<Float, Float> {
+
+        /** {@inheritDoc} */
+        @Override
+        public NDList processInput(TranslatorContext ctx, Float input) {
+            return new NDList(ctx.getNDManager().create(new float[] {input, input}));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Float processOutput(TranslatorContext ctx, NDList list) {
+            return list.singletonOrThrow().toFloatArray()[0];
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.inference;
+
+import ai.djl.Model;
+import ai.djl.inference.PipelinedPredictor;
+import ai.djl.inference.Predictor;
+import ai.djl.integration.tests.inference.InferenceTestUtils.TestTranslator;
+import ai.djl.metric.Metrics;
+import ai.djl.translate.TranslateException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PipelinedPredictorTest {
+
+    @Test
+    public void testPipelinedPredictor() throws TranslateException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Model model = InferenceTestUtils.newLinearModel("pipelined")) {
+            List<Float> expected;
+            List<Float> inputs = Arrays.asList(1f, 2f, 3f);
+            try (Predictor<Float, Float> predictor = model.newPredictor(new TestTranslator())) {
+                expected = predictor.batchPredict(inputs);
+            }
+
+            Metrics metrics = new Metrics();
+            try (PipelinedPredictor<Float, Float> predictor =
+                    new PipelinedPredictor<>(
+                            model.newPredictor(new TestTranslator()), executor, executor)) {
+                predictor.setMetrics(metrics);
+                List<CompletableFuture<List<Float>>> futures = new ArrayList<>();
+                for (int i = 0; i < 4; ++i) {
+                    futures.add(predictor.batchPredictAsync(inputs));
+                }
+                for (CompletableFuture<List<Float>> future : futures) {
+                    Assert.assertEquals(future.join(), expected);
+                }
+                Assert.assertEquals(predictor.batchPredict(inputs), expected);
+            }
+            Assert.assertEquals(metrics.getMetric("Inference").size(), 5);
+            Assert.assertEquals(metrics.getMetric("Total").size(), 5);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCloseWaitsForRequests() throws TranslateException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Model model = InferenceTestUtils.newLinearModel("pipelined")) {
+            List<Float> expected;
+            List<Float> inputs = Arrays.asList(1f, 2f, 3f);
+            try (Predictor<Float, Float> predictor = model.newPredictor(new TestTranslator())) {
+                expected = predictor.batchPredict(inputs);
+            }
+
+            PipelinedPredictor<Float, Float> predictor =
+                    new PipelinedPredictor<>(
+                            model.newPredictor(new TestTranslator()), executor, executor);
+            List<CompletableFuture<List<Float>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                futures.add(predictor.batchPredictAsync(inputs));
+            }
+            predictor.close();
+            for (CompletableFuture<List<Float>> future : futures) {
+                Assert.assertTrue(future.isDone());
+                Assert.assertEquals(future.join(), expected);
+            }
+            Assert.assertThrows(
+                    IllegalStateException.class, () -> predictor.batchPredictAsync(inputs));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
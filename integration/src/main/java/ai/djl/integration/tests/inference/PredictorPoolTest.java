@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.inference;
+
+import ai.djl.Model;
+import ai.djl.inference.Predictor;
+import ai.djl.inference.PredictorPool;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.NoopTranslator;
+import ai.djl.translate.TranslateException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PredictorPoolTest {
+
+    @Test
+    public void testBorrowRelease() throws TranslateException, InterruptedException {
+        try (Model model = InferenceTestUtils.newLinearModel("pool")) {
+            NDList warmup = new NDList(model.getNDManager().ones(new Shape(1, 2)));
+            try (PredictorPool<NDList, NDList> pool =
+                    PredictorPool.builder()
+                            .setModel(model)
+                            .setTranslator(new NoopTranslator())
+                            .optMaxSize(2)
+                            .optMinIdle(1)
+                            .optWarmupInput(warmup)
+                            .build()) {
+                Assert.assertEquals(pool.getSize(), 1);
+                Assert.assertEquals(pool.getIdleCount(), 1);
+
+                Predictor<NDList, NDList> first = pool.borrow();
+                Predictor<NDList, NDList> second = pool.borrow();
+                Assert.assertNotSame(first, second);
+                Assert.assertEquals(pool.getSize(), 2);
+                Assert.assertNull(pool.borrow(10, TimeUnit.MILLISECONDS));
+
+                pool.release(second);
+                Assert.assertSame(pool.borrow(), second);
+                pool.release(second);
+                pool.release(first);
+                Assert.assertEquals(pool.getIdleCount(), 2);
+
+                // duplicate releases and foreign predictors are rejected
+                Assert.assertThrows(IllegalArgumentException.class, () -> pool.release(first));
+                try (Predictor<NDList, NDList> other = model.newPredictor(new NoopTranslator())) {
+                    Assert.assertThrows(
+                            IllegalArgumentException.class, () -> pool.release(other));
+                }
+                Assert.assertEquals(pool.getIdleCount(), 2);
+
+                Assert.assertNotNull(pool.predict(warmup));
+                Assert.assertEquals(pool.getIdleCount(), 2);
+            }
+        }
+    }
+
+    @Test
+    public void testIdleEviction() throws TranslateException, InterruptedException {
+        try (Model model = InferenceTestUtils.newLinearModel("pool")) {
+            try (PredictorPool<NDList, NDList> pool =
+                    PredictorPool.builder()
+                            .setModel(model)
+                            .setTranslator(new NoopTranslator())
+                            .optMaxSize(3)
+                            .optMinIdle(1)
+                            .optIdleTimeout(50, TimeUnit.MILLISECONDS)
+                            .build()) {
+                Predictor<NDList, NDList> first = pool.borrow();
+                Predictor<NDList, NDList> second = pool.borrow();
+                Predictor<NDList, NDList> third = pool.borrow();
+                pool.release(first);
+                pool.release(second);
+                pool.release(third);
+                Assert.assertEquals(pool.getSize(), 3);
+
+                // the evictor closes the idle predictors down to minIdle
+                long deadline = System.currentTimeMillis() + 10000;
+                while (pool.getSize() > 1 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                Assert.assertEquals(pool.getSize(), 1);
+                Assert.assertEquals(pool.getIdleCount(), 1);
+                // the most recently used predictor is kept
+                Predictor<NDList, NDList> kept = pool.borrow();
+                Assert.assertSame(kept, third);
+                pool.release(kept);
+            }
+        }
+    }
+
+    @Test
+    public void testCloseWhileWaiting() throws TranslateException, InterruptedException {
+        try (Model model = InferenceTestUtils.newLinearModel("pool")) {
+            PredictorPool<NDList, NDList> pool =
+                    PredictorPool.builder()
+                            .setModel(model)
+                            .setTranslator(new NoopTranslator())
+                            .optMaxSize(1)
+                            .build();
+            Predictor<NDList, NDList> predictor = pool.borrow();
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            Thread waiting =
+                    new Thread(
+                            () -> {
+                                try {
+                                    pool.release(pool.borrow());
+                                } catch (Throwable t) {
+                                    error.set(t);
+                                }
+                            });
+            waiting.start();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (waiting.getState() != Thread.State.WAITING
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // the waiting borrower is woken up by the release, after the pool was closed
+            pool.close();
+            pool.release(predictor);
+            waiting.join();
+            Assert.assertTrue(error.get() instanceof IllegalStateException);
+            Assert.assertEquals(pool.getSize(), 0);
+        }
+    }
+}
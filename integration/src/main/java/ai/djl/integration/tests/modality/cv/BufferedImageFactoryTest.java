@@ -14,10 +14,14 @@ package ai.djl.integration.tests.modality.cv;
 
 import ai.djl.modality.cv.Image;
 import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.Shape;
+import ai.djl.testing.Assertions;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.Random;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -33,4 +37,76 @@ public class BufferedImageFactoryTest {
             Assert.assertEquals(new Shape(img.getHeight(), img.getWidth(), 3), array.getShape());
         }
     }
+
+    @Test
+    public void testToTensor() {
+        float[] mean = {0.485f, 0.456f, 0.406f};
+        float[] std = {0.229f, 0.224f, 0.225f};
+        int[] types = {
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_INT_RGB,
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_BYTE_GRAY,
+            BufferedImage.TYPE_4BYTE_ABGR
+        };
+        Random random = new Random(0);
+        try (NDManager manager = NDManager.newBaseManager()) {
+            ImageFactory factory = ImageFactory.getInstance();
+            for (int type : types) {
+                BufferedImage bufferedImage = new BufferedImage(12, 8, type);
+                for (int y = 0; y < 8; ++y) {
+                    for (int x = 0; x < 12; ++x) {
+                        bufferedImage.setRGB(x, y, random.nextInt());
+                    }
+                }
+                Image img = factory.fromImage(bufferedImage).getSubimage(2, 1, 9, 6);
+                // toTensor is compared with toNDArray, which is checked against the pixels first
+                assertPixels(img.toNDArray(manager), bufferedImage, false);
+                assertPixels(img.toNDArray(manager, Image.Flag.GRAYSCALE), bufferedImage, true);
+
+                NDArray expected = NDImageUtils.toTensor(img.toNDArray(manager));
+                expected = NDImageUtils.normalize(expected, mean, std);
+                NDArray array = img.toTensor(manager, Image.Flag.COLOR, mean, std);
+                Assertions.assertAlmostEquals(array, expected);
+
+                expected = NDImageUtils.toTensor(img.toNDArray(manager, Image.Flag.GRAYSCALE));
+                expected = expected.sub(0.5f).div(0.25f);
+                float[] grayMean = {0.5f};
+                float[] grayStd = {0.25f};
+                array = img.toTensor(manager, Image.Flag.GRAYSCALE, grayMean, grayStd);
+                Assertions.assertAlmostEquals(array, expected);
+            }
+        }
+    }
+
+    private static void assertPixels(NDArray array, BufferedImage image, boolean gray) {
+        // the subimage starts at (2, 1) and is 9 pixels wide and 6 pixels high
+        int channel = gray ? 1 : 3;
+        Assert.assertEquals(array.getShape(), new Shape(6, 9, channel));
+        byte[] data = array.toByteArray();
+        for (int y = 0; y < 6; ++y) {
+            for (int x = 0; x < 9; ++x) {
+                int[] expected = new int[3];
+                if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                    int value = image.getRaster().getSample(x + 2, y + 1, 0);
+                    expected = new int[] {value, value, value};
+                } else {
+                    int rgb = image.getRGB(x + 2, y + 1);
+                    expected[0] = (rgb >> 16) & 0xFF;
+                    expected[1] = (rgb >> 8) & 0xFF;
+                    expected[2] = rgb & 0xFF;
+                }
+                if (gray) {
+                    expected = new int[] {(expected[0] + expected[1] + expected[2]) / 3};
+                }
+                for (int c = 0; c < channel; ++c) {
+                    int actual = data[(y * 9 + x) * channel + c] & 0xFF;
+                    Assert.assertEquals(
+                            actual,
+                            expected[c],
+                            "type " + image.getType() + " at (" + x + ", " + y + ")");
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.ndarray;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDFile;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class NDFileTest {
+
+    @Test
+    public void testWriteAndMap() throws IOException {
+        Path file = Files.createTempFile("ndfile", ".ndf");
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray weight = manager.arange(12f).reshape(3, 4);
+            weight.setName("weight");
+            NDArray bias = manager.create(new int[] {1, 2, 3});
+            bias.setName("bias");
+            NDArray unnamed = manager.create(new double[] {0.5, 1.5});
+            NDFile.write(file, new NDList(weight, bias, unnamed));
+
+            try (NDFile ndFile = NDFile.open(file)) {
+                Assert.assertEquals(ndFile.getNames(), Arrays.asList("weight", "bias", "2"));
+                Assert.assertEquals(ndFile.getShape("weight"), new Shape(3, 4));
+                Assert.assertEquals(ndFile.getDataType("bias"), DataType.INT32);
+
+                NDArray mapped = ndFile.get(manager, "weight");
+                Assert.assertEquals(mapped, weight);
+                Assert.assertEquals(mapped.getName(), "weight");
+
+                NDList list = ndFile.load(manager);
+                Assert.assertEquals(list.size(), 3);
+                Assert.assertEquals(list.get(1), bias);
+                Assert.assertEquals(list.get(2), unnamed);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testInvalidFile() throws IOException {
+        Path file = Files.createTempFile("ndfile", ".ndf");
+        try {
+            Files.write(file, new byte[64]);
+            NDFile.open(file).close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.ndarray;
+
+import ai.djl.engine.EngineException;
+import ai.djl.ndarray.BaseNDManager;
+import ai.djl.ndarray.BufferPool;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class NDManagerTest {
+
+    @Test
+    public void testMemoryBudget() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            BaseNDManager parent = (BaseNDManager) manager.newSubManager();
+            AtomicInteger softLimitCount = new AtomicInteger();
+            parent.setMemoryBudget(400, 800, m -> softLimitCount.incrementAndGet());
+
+            BaseNDManager child = (BaseNDManager) parent.newSubManager();
+            // 50 float32 values take 200 bytes
+            NDArray array = child.zeros(new Shape(50));
+            Assert.assertEquals(child.getAllocatedBytes(), 200);
+            Assert.assertEquals(parent.getAllocatedBytes(), 200);
+
+            child.zeros(new Shape(75));
+            Assert.assertEquals(parent.getAllocatedBytes(), 500);
+            Assert.assertEquals(softLimitCount.get(), 1);
+
+            Assert.assertThrows(EngineException.class, () -> child.zeros(new Shape(100)));
+            Assert.assertEquals(parent.getAllocatedBytes(), 500);
+            // the rejected array leaves no trace in the managers below the limit
+            Assert.assertEquals(child.getAllocatedBytes(), 500);
+            Assert.assertEquals(child.getPeakBytes(), 500);
+
+            array.close();
+            Assert.assertEquals(child.getAllocatedBytes(), 300);
+            Assert.assertEquals(parent.getAllocatedBytes(), 300);
+
+            child.close();
+            Assert.assertEquals(parent.getAllocatedBytes(), 0);
+            Assert.assertEquals(parent.getPeakBytes(), 500);
+
+            // the budget only enables memory tracking for its own managers
+            if (!Boolean.getBoolean("ai.djl.ndarray.track_memory")) {
+                BaseNDManager other = (BaseNDManager) manager.newSubManager();
+                other.zeros(new Shape(50));
+                Assert.assertEquals(other.getAllocatedBytes(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentCloseAccounting() throws InterruptedException {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            BaseNDManager parent = (BaseNDManager) manager.newSubManager();
+            parent.setMemoryBudget(0, 0, null);
+            for (int i = 0; i < 10; ++i) {
+                NDManager child = parent.newSubManager();
+                Thread[] threads = new Thread[4];
+                for (int j = 0; j < threads.length; ++j) {
+                    threads[j] =
+                            new Thread(
+                                    () -> {
+                                        try {
+                                            while (true) {
+                                                child.zeros(new Shape(10));
+                                            }
+                                        } catch (IllegalStateException e) {
+                                            // the child manager has been closed
+                                        }
+                                    });
+                    threads[j].start();
+                }
+                Thread.sleep(5);
+                child.close();
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                // arrays attached while closing are released exactly once
+                Assert.assertEquals(parent.getAllocatedBytes(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testBufferPool() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            BufferPool pool = new BufferPool(4, 1024);
+            ((BaseNDManager) manager).setBufferPool(pool);
+
+            try (NDManager context = manager.newSubManager()) {
+                ByteBuffer buffer = context.allocateDirect(40);
+                buffer.asFloatBuffer().put(new float[] {1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f, 10f});
+                NDArray array = context.create(buffer.asFloatBuffer(), new Shape(10));
+
+                // the engine copied the buffer, so it is returned to the pool right away
+                long pooled = pool.getPooledBytes();
+                context.releaseDirect(buffer);
+                Assert.assertEquals(pool.getPooledBytes(), pooled + 40);
+                context.releaseDirect(buffer);
+                Assert.assertEquals(pool.getPooledBytes(), pooled + 40);
+
+                buffer.asFloatBuffer().put(new float[10]);
+                Assert.assertEquals(array.sum().getFloat(), 55f);
+            }
+
+            long hits = pool.getHitCount();
+            long pooled = pool.getPooledBytes();
+            try (NDManager context = manager.newSubManager()) {
+                context.allocateDirect(40);
+                Assert.assertEquals(pool.getHitCount(), hits + 1);
+                Assert.assertEquals(pool.getPooledBytes(), pooled - 40);
+            }
+            Assert.assertEquals(pool.getPooledBytes(), pooled);
+
+            // buffers returned to the caller are not pooled
+            float[] values;
+            try (NDManager context = manager.newSubManager()) {
+                values = context.arange(10f).toFloatArray();
+                Assert.assertEquals(pool.getHitCount(), hits + 1);
+            }
+            Assert.assertEquals(pool.getPooledBytes(), pooled);
+            Assert.assertEquals(values[9], 9f);
+        }
+    }
+}
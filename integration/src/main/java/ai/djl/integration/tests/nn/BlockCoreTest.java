@@ -50,6 +50,7 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -256,6 +257,83 @@ public class BlockCoreTest {
         }
     }
 
+    @Test
+    public void testPretrainedEmbedding() throws IOException, MalformedModelException {
+        TrainingConfig config =
+                new DefaultTrainingConfig(Loss.l2Loss()).optInitializer(Initializer.ONES);
+
+        try (Model model = Model.newInstance("model")) {
+            NDManager manager = model.getNDManager();
+            // row 0 is the embedding of unknown words
+            NDArray embedding = manager.arange(8f).reshape(4, 2);
+            TrainableWordEmbedding block =
+                    new TrainableWordEmbedding(embedding, Arrays.asList("a", "b", "c"));
+            Assert.assertEquals(block.preprocessWordToEmbed("a"), 1);
+            Assert.assertEquals(block.preprocessWordToEmbed("c"), 3);
+            Assert.assertEquals(block.preprocessWordToEmbed("x"), 0);
+            Assert.assertEquals(block.unembedWord(manager.create(2)), "b");
+            Assert.assertEquals(block.unembedWord(manager.create(0)), "<unk>");
+
+            model.setBlock(block);
+            try (Trainer trainer = model.newTrainer(config)) {
+                trainer.initialize(new Shape(2));
+
+                NDArray items = block.embed(manager, new String[] {"c", "x"});
+                Assert.assertEquals(
+                        trainer.forward(new NDList(items)).singletonOrThrow(),
+                        manager.create(new float[] {6, 7, 0, 1}, new Shape(2, 2)));
+            }
+        }
+    }
+
+    @Test
+    public void testEmbeddingSaveAndLoad() throws IOException, MalformedModelException {
+        TrainingConfig config =
+                new DefaultTrainingConfig(Loss.l2Loss()).optInitializer(Initializer.ONES);
+
+        TrainableWordEmbedding block =
+                TrainableWordEmbedding.builder()
+                        .setItems(Arrays.asList("deep", "java", "library"))
+                        .setEmbeddingSize(2)
+                        .build();
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(block);
+            model.setDataType(DataType.INT32);
+
+            try (Trainer trainer = model.newTrainer(config)) {
+                trainer.initialize(new Shape(2));
+                NDManager manager = trainer.getManager();
+
+                Path temp = Files.createTempFile("block", ".param");
+                try {
+                    try (DataOutputStream os = new DataOutputStream(Files.newOutputStream(temp))) {
+                        block.saveParameters(os);
+                    }
+                    TrainableWordEmbedding loaded =
+                            TrainableWordEmbedding.builder().setEmbeddingSize(2).build();
+                    try (DataInputStream is = new DataInputStream(Files.newInputStream(temp))) {
+                        loaded.loadParameters(manager, is);
+                    }
+
+                    Assert.assertTrue(loaded.vocabularyContains("java"));
+                    Assert.assertFalse(loaded.vocabularyContains("python"));
+                    for (String word : new String[] {"deep", "java", "library", "python"}) {
+                        int index = block.preprocessWordToEmbed(word);
+                        Assert.assertEquals(loaded.preprocessWordToEmbed(word), index);
+                        Assert.assertEquals(
+                                loaded.unembedWord(manager.create(index)),
+                                block.unembedWord(manager.create(index)));
+                    }
+                    Assert.assertEquals(
+                            loaded.getParameters().valueAt(0).getArray(),
+                            block.getParameters().valueAt(0).getArray());
+                } finally {
+                    Files.delete(temp);
+                }
+            }
+        }
+    }
+
     @Test
     public void testConv1D() throws IOException, MalformedModelException {
         TrainingConfig config =
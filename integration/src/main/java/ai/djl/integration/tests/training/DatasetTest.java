@@ -15,6 +15,7 @@ package ai.djl.integration.tests.training;
 import ai.djl.Device;
 import ai.djl.Model;
 import ai.djl.basicdataset.Cifar10;
+import ai.djl.metric.Metrics;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
@@ -26,6 +27,7 @@ import ai.djl.training.dataset.ArrayDataset;
 import ai.djl.training.dataset.Batch;
 import ai.djl.training.dataset.BatchSampler;
 import ai.djl.training.dataset.Dataset;
+import ai.djl.training.dataset.ParallelDataIterable;
 import ai.djl.training.dataset.RandomSampler;
 import ai.djl.training.dataset.SequenceSampler;
 import ai.djl.training.initializer.Initializer;
@@ -33,6 +35,8 @@ import ai.djl.training.loss.Loss;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -293,4 +297,80 @@ public class DatasetTest {
             }
         }
     }
+
+    @Test
+    public void testDataLoader() {
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(Blocks.identityBlock());
+            NDManager manager = model.getNDManager();
+
+            Metrics metrics = new Metrics();
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(
+                                    manager.arange(
+                                            0, 100, 1, DataType.INT64, Device.defaultDevice()))
+                            .setSampling(new BatchSampler(new SequenceSampler(), 10, false))
+                            .optDataLoader(4, 3)
+                            .optMetrics(metrics)
+                            .build();
+
+            List<Long> original = new ArrayList<>();
+            try (Trainer trainer = model.newTrainer(config)) {
+                for (Batch batch : trainer.iterateDataset(dataset)) {
+                    for (long value : batch.getData().singletonOrThrow().toLongArray()) {
+                        original.add(value);
+                    }
+                    batch.close();
+                }
+            }
+            List<Long> expected = LongStream.range(0, 100).boxed().collect(Collectors.toList());
+            Assert.assertEquals(original, expected, "DataLoader test failed");
+            Assert.assertEquals(metrics.getMetric("DataLoad").size(), 10);
+            Assert.assertEquals(metrics.getMetric("DataWait").size(), 10);
+        }
+    }
+
+    @Test
+    public void testDataLoaderUnordered() {
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(Blocks.identityBlock());
+            NDManager manager = model.getNDManager();
+
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(
+                                    manager.arange(
+                                            0, 100, 1, DataType.INT64, Device.defaultDevice()))
+                            .setSampling(new BatchSampler(new SequenceSampler(), 10, false))
+                            .optDataLoader(4, 3)
+                            .optOrdered(false)
+                            .build();
+
+            List<Long> values = new ArrayList<>();
+            try (Trainer trainer = model.newTrainer(config)) {
+                for (Batch batch : trainer.iterateDataset(dataset)) {
+                    long[] batchValues = batch.getData().singletonOrThrow().toLongArray();
+                    Assert.assertEquals(batchValues.length, 10);
+                    // each batch holds a contiguous range, whatever the order of the batches
+                    Assert.assertEquals(batchValues[0] % 10, 0);
+                    for (long value : batchValues) {
+                        values.add(value);
+                    }
+                    batch.close();
+                }
+            }
+            Collections.sort(values);
+            List<Long> expected = LongStream.range(0, 100).boxed().collect(Collectors.toList());
+            Assert.assertEquals(values, expected, "Unordered DataLoader test failed");
+
+            // an abandoned iteration stops its workers when closed
+            Iterable<Batch> data = dataset.getData(manager);
+            Assert.assertTrue(data instanceof ParallelDataIterable);
+            Iterator<Batch> it = data.iterator();
+            it.next().close();
+            ((ParallelDataIterable) data).close();
+            Assert.assertFalse(it.hasNext());
+        }
+    }
 }
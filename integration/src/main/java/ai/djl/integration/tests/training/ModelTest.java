@@ -14,16 +14,34 @@ package ai.djl.integration.tests.training;
 
 import ai.djl.MalformedModelException;
 import ai.djl.Model;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Parameter;
 import ai.djl.nn.ParameterList;
 import ai.djl.nn.SequentialBlock;
 import ai.djl.nn.convolutional.Conv2D;
+import ai.djl.nn.core.Linear;
 import ai.djl.nn.norm.BatchNorm;
 import ai.djl.testing.Assertions;
+import ai.djl.training.DefaultTrainingConfig;
+import ai.djl.training.EasyTrain;
+import ai.djl.training.Trainer;
+import ai.djl.training.TrainingConfig;
+import ai.djl.training.dataset.ArrayDataset;
+import ai.djl.training.initializer.Initializer;
 import ai.djl.training.initializer.XavierInitializer;
+import ai.djl.training.listener.CheckpointsTrainingListener;
+import ai.djl.training.loss.Loss;
+import ai.djl.util.Utils;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -50,6 +68,81 @@ public class ModelTest {
         }
     }
 
+    @Test
+    public void testLazyLoading() throws IOException, MalformedModelException {
+        SequentialBlock block = new SequentialBlock();
+        block.add(Conv2D.builder().setKernel(new Shape(1, 1)).setNumFilters(10).build());
+        block.add(BatchNorm.builder().build());
+        try (Model saveModel = Model.newInstance("saveModel");
+                Model loadModel = Model.newInstance("loadModel")) {
+            block.setInitializer(new XavierInitializer());
+            block.initialize(saveModel.getNDManager(), DataType.FLOAT32, new Shape(1, 3, 32, 32));
+            saveModel.setBlock(block);
+            saveModel.save(Paths.get("build/tmp/test/models"), "lazyLoading");
+            NDList expected = new NDList();
+            for (Parameter parameter : block.getParameters().values()) {
+                expected.add(parameter.getArray().duplicate());
+            }
+
+            Map<String, Object> lazy = new HashMap<>();
+            lazy.put("lazyLoading", "true");
+            Map<String, Object> parallel = new HashMap<>();
+            parallel.put("loadingThreads", "2");
+            for (Map<String, Object> options : Arrays.asList(lazy, parallel)) {
+                block.clear();
+                loadModel.setBlock(block);
+                loadModel.load(Paths.get("build/tmp/test/models"), "lazyLoading", options);
+                ParameterList loadedParameters = loadModel.getBlock().getParameters();
+                Assert.assertEquals(loadedParameters.size(), expected.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    Parameter parameter = loadedParameters.get(i).getValue();
+                    Assert.assertTrue(parameter.isInitialized());
+                    Assertions.assertAlmostEquals(parameter.getArray(), expected.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAsyncCheckpoints() throws IOException, MalformedModelException {
+        Path dir = Paths.get("build/tmp/test/checkpoints");
+        Utils.deleteQuietly(dir);
+        CheckpointsTrainingListener listener =
+                new CheckpointsTrainingListener(dir.toString(), "checkpoint");
+        listener.setAsynchronous(true);
+        listener.setSaveEveryNSteps(2);
+        listener.setMaxCheckpoints(2);
+        TrainingConfig config =
+                new DefaultTrainingConfig(Loss.l2Loss())
+                        .optInitializer(Initializer.ONES)
+                        .addTrainingListeners(listener);
+
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(Linear.builder().setOutChannels(1).build());
+            NDManager manager = model.getNDManager();
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(manager.ones(new Shape(20, 2)))
+                            .optLabels(manager.ones(new Shape(20, 1)))
+                            .setSampling(5, false)
+                            .build();
+            try (Trainer trainer = model.newTrainer(config)) {
+                trainer.initialize(new Shape(5, 2));
+                // 4 steps per epoch, 2 step checkpoints and 1 epoch checkpoint per epoch
+                EasyTrain.fit(trainer, 2, dataset, null);
+            }
+
+            Assert.assertEquals(Utils.getCurrentEpoch(dir, "checkpoint"), 6);
+            Assert.assertTrue(Files.exists(dir.resolve("checkpoint-0005.params")));
+            Assert.assertFalse(Files.exists(dir.resolve("checkpoint-0004.params")));
+            try (Model loadModel = Model.newInstance("model")) {
+                loadModel.setBlock(Linear.builder().setOutChannels(1).build());
+                loadModel.load(dir, "checkpoint");
+                Assert.assertEquals(loadModel.getProperty("Epoch"), "6");
+            }
+        }
+    }
+
     private void compareParameters(ParameterList savedParameters, ParameterList loadedParameters) {
         Assert.assertEquals(savedParameters.size(), loadedParameters.size());
         for (int i = 0; i < savedParameters.size(); i++) {
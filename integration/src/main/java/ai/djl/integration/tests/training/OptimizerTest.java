@@ -14,12 +14,16 @@ package ai.djl.integration.tests.training;
 
 import ai.djl.Device;
 import ai.djl.Model;
+import ai.djl.integration.util.TestUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDArrays;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Block;
+import ai.djl.nn.Parameter;
+import ai.djl.nn.SequentialBlock;
 import ai.djl.nn.core.Linear;
 import ai.djl.testing.Assertions;
 import ai.djl.training.DefaultTrainingConfig;
@@ -30,8 +34,22 @@ import ai.djl.training.dataset.Batch;
 import ai.djl.training.initializer.Initializer;
 import ai.djl.training.loss.Loss;
 import ai.djl.training.optimizer.Optimizer;
+import ai.djl.training.optimizer.Sgd;
 import ai.djl.training.optimizer.learningrate.LearningRateTracker;
 import ai.djl.translate.Batchifier;
+import ai.djl.util.Pair;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
 public class OptimizerTest {
@@ -70,6 +88,152 @@ public class OptimizerTest {
         }
     }
 
+    @Test
+    public void testGradientAccumulation() {
+        // the gradients of the micro-batches are weighted by their size, so the updates are the
+        // same as in testSgd even though the micro-batches have different sizes
+        Optimizer sgd =
+                Optimizer.sgd()
+                        .setLearningRateTracker(LearningRateTracker.fixedLearningRate(0.1f))
+                        .build();
+
+        Device[] devices = Device.getDevices(1);
+        TrainingConfig config =
+                new DefaultTrainingConfig(Loss.l2Loss())
+                        .optInitializer(Initializer.ONES)
+                        .optOptimizer(sgd)
+                        .optDevices(devices);
+        Block block = Linear.builder().setOutChannels(CHANNELS).build();
+        try (Model model = Model.newInstance("model", devices[0])) {
+            model.setBlock(block);
+
+            try (Trainer trainer = model.newTrainer(config)) {
+                int batchSize = config.getDevices().length * BATCH_SIZE;
+                trainer.initialize(new Shape(batchSize, CHANNELS));
+
+                NDManager manager = trainer.getManager();
+                NDArray result = runOptimizer(manager, trainer, block, batchSize, 4);
+                NDArray result2 = runOptimizer(manager, trainer, block, batchSize, 4);
+                Assertions.assertAlmostEquals(result, manager.create(new float[] {0.68f, -0.16f}));
+                Assertions.assertAlmostEquals(
+                        result2, manager.create(new float[] {0.4912f, -0.2544f}));
+            }
+        }
+    }
+
+    @Test
+    public void testEstimateMicroBatchSize() {
+        Optimizer sgd =
+                Optimizer.sgd()
+                        .setLearningRateTracker(LearningRateTracker.fixedLearningRate(0.1f))
+                        .build();
+
+        Device[] devices = Device.getDevices(1);
+        TrainingConfig config =
+                new DefaultTrainingConfig(Loss.l2Loss())
+                        .optInitializer(Initializer.ONES)
+                        .optOptimizer(sgd)
+                        .optDevices(devices);
+        Block block = Linear.builder().setOutChannels(CHANNELS).build();
+        try (Model model = Model.newInstance("model", devices[0])) {
+            model.setBlock(block);
+
+            try (Trainer trainer = model.newTrainer(config)) {
+                int batchSize = config.getDevices().length * BATCH_SIZE;
+                trainer.initialize(new Shape(batchSize, CHANNELS));
+
+                NDManager manager = trainer.getManager();
+                NDArray data = manager.ones(new Shape(batchSize, CHANNELS));
+                Batch batch =
+                        new Batch(
+                                manager,
+                                new NDList(data),
+                                new NDList(data),
+                                batchSize,
+                                Batchifier.STACK,
+                                Batchifier.STACK);
+                int size = EasyTrain.estimateMicroBatchSize(trainer, batch, 2, 1024 * 1024);
+                Assert.assertTrue(size > 1);
+                // the memory of a micro-batch grows with its size
+                int doubleSize = EasyTrain.estimateMicroBatchSize(trainer, batch, 2, 2048 * 1024);
+                Assert.assertTrue(doubleSize >= 2 * size);
+                Assert.assertEquals(EasyTrain.estimateMicroBatchSize(trainer, batch, 2, 1), 1);
+
+                // the gradients of the probes are overwritten, so the updates are the same as in
+                // testSgd
+                NDArray result = runOptimizer(manager, trainer, block, batchSize);
+                Assertions.assertAlmostEquals(result, manager.create(new float[] {0.68f, -0.16f}));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentDevices() {
+        // the gradients of the two devices are summed, so half the learning rate of testSgd gives
+        // the same updates
+        Optimizer sgd =
+                Optimizer.sgd()
+                        .setLearningRateTracker(LearningRateTracker.fixedLearningRate(0.05f))
+                        .build();
+
+        Device[] devices = Device.getDevices(2);
+        if (devices.length < 2) {
+            if (!TestUtils.isMxnet()) {
+                throw new SkipException("Training on two devices requires two GPUs.");
+            }
+            devices = new Device[] {Device.cpu(), Device.of(Device.Type.CPU, 1)};
+        }
+        // each split waits for the other one to start, which times out if they run sequentially
+        CyclicBarrier barrier = new CyclicBarrier(devices.length);
+        AtomicBoolean overlapped = new AtomicBoolean(true);
+        ExecutorService executor =
+                new ThreadPoolExecutor(
+                        devices.length,
+                        devices.length,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>()) {
+                    /** {@inheritDoc} */
+                    @Override
+                    protected void beforeExecute(Thread t, Runnable r) {
+                        try {
+                            barrier.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            overlapped.set(false);
+                        } catch (BrokenBarrierException | TimeoutException e) {
+                            overlapped.set(false);
+                            barrier.reset();
+                        }
+                    }
+                };
+        TrainingConfig config =
+                new DefaultTrainingConfig(Loss.l2Loss())
+                        .optInitializer(Initializer.ONES)
+                        .optOptimizer(sgd)
+                        .optDevices(devices)
+                        .optExecutorService(executor);
+        Block block = Linear.builder().setOutChannels(CHANNELS).build();
+        try (Model model = Model.newInstance("model", devices[0])) {
+            model.setBlock(block);
+
+            try (Trainer trainer = model.newTrainer(config)) {
+                int batchSize = config.getDevices().length * BATCH_SIZE;
+                trainer.initialize(new Shape(batchSize, CHANNELS));
+
+                NDManager manager = trainer.getManager();
+                NDArray result = runOptimizer(manager, trainer, block, batchSize);
+                NDArray result2 = runOptimizer(manager, trainer, block, batchSize);
+                Assertions.assertAlmostEquals(result, manager.create(new float[] {0.68f, -0.16f}));
+                Assertions.assertAlmostEquals(
+                        result2, manager.create(new float[] {0.4912f, -0.2544f}));
+                Assert.assertTrue(overlapped.get(), "The device splits did not run concurrently");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testSgdWithMomentum() {
         Optimizer optim =
@@ -109,6 +273,47 @@ public class OptimizerTest {
         }
     }
 
+    @Test
+    public void testFusedSgd() {
+        for (float momentum : new float[] {0f, 0.9f}) {
+            try (NDManager manager = NDManager.newBaseManager()) {
+                NDArray fused = trainDeepModel(manager, newSgd(momentum, true));
+                NDArray expected = trainDeepModel(manager, newSgd(momentum, false));
+                Assertions.assertAlmostEquals(fused, expected);
+            }
+        }
+    }
+
+    @Test
+    public void testFusedSgdGroups() {
+        for (float momentum : new float[] {0f, 0.9f}) {
+            try (NDManager manager = NDManager.newBaseManager()) {
+                Optimizer fusedSgd = newSgd(momentum, true);
+                Optimizer sgd = newSgd(momentum, false);
+                String[] parameterIds = {"w0", "w1", "w2", "w3", "w4"};
+                NDArray[] fused = createWeights(manager);
+                NDArray[] expected = createWeights(manager);
+                for (int step = 0; step < 3; ++step) {
+                    // the first parameter skips the second step, so the update counts differ
+                    int from = step == 1 ? 1 : 0;
+                    String[] ids = Arrays.copyOfRange(parameterIds, from, parameterIds.length);
+                    NDArray[] grads = createGrads(manager, step);
+                    fusedSgd.update(
+                            ids,
+                            Arrays.copyOfRange(fused, from, fused.length),
+                            Arrays.copyOfRange(grads, from, grads.length));
+                    sgd.update(
+                            ids,
+                            Arrays.copyOfRange(expected, from, expected.length),
+                            Arrays.copyOfRange(grads, from, grads.length));
+                }
+                for (int i = 0; i < fused.length; ++i) {
+                    Assertions.assertAlmostEquals(fused[i], expected[i]);
+                }
+            }
+        }
+    }
+
     @Test
     public void testNag() {
         Optimizer optim =
@@ -176,6 +381,11 @@ public class OptimizerTest {
     }
 
     private NDArray runOptimizer(NDManager manager, Trainer trainer, Block block, int batchSize) {
+        return runOptimizer(manager, trainer, block, batchSize, batchSize);
+    }
+
+    private NDArray runOptimizer(
+            NDManager manager, Trainer trainer, Block block, int batchSize, int microBatchSize) {
         NDArray data = manager.ones(new Shape(batchSize, CHANNELS)).mul(2);
         NDArray label = data.mul(2);
         Batch batch =
@@ -186,7 +396,7 @@ public class OptimizerTest {
                         batchSize,
                         Batchifier.STACK,
                         Batchifier.STACK);
-        EasyTrain.trainBatch(trainer, batch);
+        EasyTrain.trainBatch(trainer, batch, microBatchSize);
         trainer.step();
         return NDArrays.stack(
                 new NDList(
@@ -195,4 +405,90 @@ public class OptimizerTest {
                                 .map(paramPair -> paramPair.getValue().getArray().mean())
                                 .toArray(NDArray[]::new)));
     }
+
+    private static Optimizer newSgd(float momentum, boolean fused) {
+        Sgd.Builder builder =
+                Optimizer.sgd()
+                        .setLearningRateTracker(
+                                LearningRateTracker.factorTracker()
+                                        .optBaseLearningRate(0.01f)
+                                        .setStep(1)
+                                        .optFactor(0.9f)
+                                        .build())
+                        .optMomentum(momentum);
+        if (fused) {
+            return builder.build();
+        }
+        return new Sgd(builder) {
+            /** {@inheritDoc} */
+            @Override
+            public void update(String[] parameterIds, NDArray[] weights, NDArray[] grads) {
+                for (int i = 0; i < parameterIds.length; ++i) {
+                    update(parameterIds[i], weights[i], grads[i]);
+                }
+            }
+        };
+    }
+
+    private NDArray trainDeepModel(NDManager manager, Optimizer optimizer) {
+        Device[] devices = Device.getDevices(1);
+        TrainingConfig config =
+                new DefaultTrainingConfig(Loss.l2Loss())
+                        .optInitializer((m, s, t) -> m.ones(s, t, m.getDevice()).mul(0.1f))
+                        .optOptimizer(optimizer)
+                        .optDevices(devices);
+        SequentialBlock block = new SequentialBlock();
+        // 70 parameters, more than a single fused operator call updates
+        for (int i = 0; i < 35; ++i) {
+            block.add(Linear.builder().setOutChannels(CHANNELS).build());
+        }
+        try (Model model = Model.newInstance("model", devices[0])) {
+            model.setBlock(block);
+
+            try (Trainer trainer = model.newTrainer(config)) {
+                trainer.initialize(new Shape(BATCH_SIZE, CHANNELS));
+                for (int i = 0; i < 3; ++i) {
+                    runOptimizer(trainer.getManager(), trainer, block, BATCH_SIZE);
+                }
+                NDList weights = new NDList();
+                for (Pair<String, Parameter> pair : block.getParameters()) {
+                    weights.add(pair.getValue().getArray().flatten());
+                }
+                NDArray result = NDArrays.concat(weights);
+                result.attach(manager);
+                return result;
+            }
+        }
+    }
+
+    private static NDArray[] createWeights(NDManager manager) {
+        return new NDArray[] {
+            manager.ones(new Shape(4), DataType.FLOAT64),
+            manager.ones(new Shape(3, 2)),
+            manager.ones(new Shape(5)),
+            manager.ones(new Shape(2, 2), DataType.FLOAT64),
+            manager.ones(new Shape(4, 3))
+        };
+    }
+
+    private static NDArray[] createGrads(NDManager manager, int step) {
+        NDArray[] grads = {
+            manager.ones(new Shape(4), DataType.FLOAT64).mul(step + 1),
+            manager.ones(new Shape(3, 2)).mul(step + 2),
+            manager.ones(new Shape(5)).mul(step + 3),
+            manager.ones(new Shape(2, 2), DataType.FLOAT64).mul(step + 4),
+            manager.ones(new Shape(4, 3)).mul(step + 5)
+        };
+        if (TestUtils.isMxnet()) {
+            // sparse gradients are updated parameter by parameter
+            float[] values = {1f, 2f, 3f, 4f, 5f, 6f};
+            grads[4] =
+                    manager.createRowSparse(
+                            FloatBuffer.wrap(values),
+                            new Shape(2, 3),
+                            new long[] {0, 2},
+                            new Shape(4, 3));
+        }
+        return grads;
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.integration.tests.training;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.testing.Assertions;
+import ai.djl.training.LocalParameterServer;
+import ai.djl.training.ParameterServer;
+import ai.djl.training.optimizer.Optimizer;
+import ai.djl.training.optimizer.learningrate.LearningRateTracker;
+import org.testng.annotations.Test;
+
+public class ParameterServerTest {
+
+    private static final int NUM_DEVICES = 3;
+    private static final int NUM_PARAMETERS = 5;
+
+    @Test
+    public void testParallelReduce() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray[][] serial = runUpdate(manager, 1);
+            NDArray[][] parallel = runUpdate(manager, 4);
+            for (int i = 0; i < NUM_PARAMETERS; ++i) {
+                // sum of the gradients of all devices: 0 + 1 + 2 = 3
+                NDArray expected = manager.ones(serial[i][0].getShape()).mul(1 - 0.1f * 3);
+                for (int d = 0; d < NUM_DEVICES; ++d) {
+                    Assertions.assertAlmostEquals(
+                            serial[i][d].toDevice(Device.cpu(), true), expected);
+                    Assertions.assertAlmostEquals(
+                            parallel[i][d].toDevice(Device.cpu(), true), expected);
+                }
+            }
+        }
+    }
+
+    private NDArray[][] runUpdate(NDManager manager, int threads) {
+        Optimizer sgd =
+                Optimizer.sgd()
+                        .setLearningRateTracker(LearningRateTracker.fixedLearningRate(0.1f))
+                        .build();
+        String[] parameterIds = new String[NUM_PARAMETERS];
+        NDArray[][] grads = new NDArray[NUM_PARAMETERS][NUM_DEVICES];
+        NDArray[][] weights = new NDArray[NUM_PARAMETERS][NUM_DEVICES];
+        // the replicas share a device when there are fewer GPUs than replicas
+        Device[] devices = Device.getDevices(NUM_DEVICES);
+        for (int i = 0; i < NUM_PARAMETERS; ++i) {
+            parameterIds[i] = "param" + i;
+            for (int d = 0; d < NUM_DEVICES; ++d) {
+                Device device = devices[d % devices.length];
+                int size = (i + 1) * 10;
+                weights[i][d] = manager.ones(new Shape(size)).toDevice(device, true);
+                grads[i][d] = manager.ones(new Shape(size)).mul(d).toDevice(device, true);
+            }
+        }
+        try (ParameterServer ps = new LocalParameterServer(sgd, threads)) {
+            ps.update(parameterIds, grads, weights);
+        }
+        return weights;
+    }
+}
@@ -91,6 +91,43 @@ public class PaddingStackBatchifierTest {
         }
     }
 
+    @Test
+    public void testBatchifyWithBuckets() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDList[] input = new NDList[5];
+            for (int i = 0; i < 5; i++) {
+                input[i] = new NDList(manager.zeros(new Shape(10, i + 1)));
+            }
+            PaddingStackBatchifier batchifier =
+                    PaddingStackBatchifier.builder()
+                            .optIncludeValidLengths(false)
+                            .addPad(0, 1, (mngr) -> mngr.zeros(new Shape(10, 1)))
+                            .optBuckets(16, 8, 4)
+                            .build();
+            Assert.assertEquals(batchifier.getBucket(3), 4);
+            Assert.assertEquals(batchifier.getBucket(8), 8);
+            Assert.assertEquals(batchifier.getBucket(20), 20);
+
+            NDList actual = batchifier.batchify(input);
+            Assert.assertEquals(actual.get(0).getShape(), new Shape(5, 10, 8));
+
+            // a batch longer than the largest bucket is padded to its longest element
+            NDList[] longInput = {
+                new NDList(manager.zeros(new Shape(10, 17))),
+                new NDList(manager.zeros(new Shape(10, 2)))
+            };
+            actual = batchifier.batchify(longInput);
+            Assert.assertEquals(actual.get(0).getShape(), new Shape(2, 10, 17));
+
+            PaddingStackBatchifier noBuckets =
+                    PaddingStackBatchifier.builder()
+                            .optIncludeValidLengths(false)
+                            .addPad(0, 1, (mngr) -> mngr.zeros(new Shape(10, 1)))
+                            .build();
+            Assert.assertEquals(noBuckets.getBucket(3), 3);
+        }
+    }
+
     @Test
     public void testUnbatchify() {
         try (NDManager manager = NDManager.newBaseManager()) {
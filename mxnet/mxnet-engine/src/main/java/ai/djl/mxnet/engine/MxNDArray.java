@@ -32,6 +32,7 @@ import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -278,7 +279,9 @@ public class MxNDArray extends NativeResource implements LazyNDArray {
         DataType dType = getDataType();
         long product = sh.size();
         long len = dType.getNumOfBytes() * product;
-        ByteBuffer bb = manager.allocateDirect(Math.toIntExact(len));
+        // the buffer belongs to the caller, it must not come from the manager's buffer pool
+        ByteBuffer bb = ByteBuffer.allocateDirect(Math.toIntExact(len));
+        bb.order(ByteOrder.nativeOrder());
         Pointer pointer = Native.getDirectBufferPointer(bb);
         JnaUtils.syncCopyToCPU(getHandle(), pointer, Math.toIntExact(product));
         return bb;
@@ -323,6 +326,7 @@ public class MxNDArray extends NativeResource implements LazyNDArray {
                 throw new AssertionError("Show never happen");
         }
         JnaUtils.syncCopyFromCPU(getHandle(), buf, size);
+        manager.releaseDirect(buf);
     }
 
     /** {@inheritDoc} */
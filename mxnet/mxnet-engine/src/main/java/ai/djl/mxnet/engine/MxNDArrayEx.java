@@ -448,6 +448,31 @@ class MxNDArrayEx implements NDArrayEx {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void multiSgdUpdate(
+            NDList inputs,
+            NDList weights,
+            float[] learningRates,
+            float[] weightDecays,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum) {
+        MxOpParams params = new MxOpParams();
+        params.addTupleParam("lrs", learningRates);
+        params.addTupleParam("wds", weightDecays);
+        params.addParam("rescale_grad", rescaleGrad);
+        params.addParam("clip_gradient", clipGrad);
+        params.addParam("num_weights", weights.size());
+
+        if (momentum != 0) {
+            params.addParam("momentum", momentum);
+            getManager().invoke("multi_sgd_mom_update", inputs, weights, params);
+        } else {
+            getManager().invoke("multi_sgd_update", inputs, weights, params);
+        }
+    }
+
     ////////////////////////////////////////
     // Neural network
     ////////////////////////////////////////
@@ -26,8 +26,6 @@ import ai.djl.ndarray.types.SparseFormat;
 import ai.djl.util.PairList;
 import com.sun.jna.Pointer;
 import java.nio.Buffer;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.file.Path;
 
 /** {@code MxNDManager} is the MXNet implementation of {@link NDManager}. */
@@ -52,12 +50,6 @@ public class MxNDManager extends BaseNDManager {
         return SYSTEM_MANAGER;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
-    }
-
     /**
      * Creates an MxNDArray with the given Native Memory Pointer and attaches to this manager.
      *
@@ -95,7 +95,10 @@ public class BertQAModelLoader extends BaseModelLoader<QAInput, String> {
         @Override
         public Translator<QAInput, String> newInstance(Map<String, Object> arguments) {
             int seqLength = (int) arguments.getOrDefault("seqLength", 384);
-            return MxBertQATranslator.builder().setSeqLength(seqLength).build();
+            return MxBertQATranslator.builder()
+                    .setSeqLength(seqLength)
+                    .configure(arguments)
+                    .build();
         }
     }
 }
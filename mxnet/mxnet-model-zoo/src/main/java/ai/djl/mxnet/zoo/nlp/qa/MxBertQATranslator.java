@@ -14,55 +14,65 @@ package ai.djl.mxnet.zoo.nlp.qa;
 
 import ai.djl.Model;
 import ai.djl.modality.nlp.bert.BertToken;
-import ai.djl.modality.nlp.bert.BertTokenizer;
-import ai.djl.modality.nlp.bert.BertVocabulary;
+import ai.djl.modality.nlp.bert.WordpieceTokenizer;
 import ai.djl.modality.nlp.qa.QAInput;
 import ai.djl.modality.nlp.translator.QATranslator;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
 import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.PaddingStackBatchifier;
 import ai.djl.translate.TranslatorContext;
-import ai.djl.util.Utils;
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * The translator for {@link BertQAModelLoader}.
  *
+ * <p>The translator is stateless and batches requests by padding their sequences to the sequence
+ * length, or to the smallest of the buckets set with {@link Builder#optBuckets(int...)} that fits
+ * the longest sequence of the batch.
+ *
  * @see BertQAModelLoader
  */
 public class MxBertQATranslator extends QATranslator {
-    private List<String> tokens;
-    private BertVocabulary vocabulary;
-    private BertTokenizer tokenizer;
+
     private int seqLength;
+    private int[] buckets;
+    private WordpieceTokenizer tokenizer;
+    private Batchifier batchifier;
 
     MxBertQATranslator(Builder builder) {
         seqLength = builder.seqLength;
+        buckets = builder.getBuckets() == null ? new int[] {seqLength} : builder.getBuckets();
     }
 
     /** {@inheritDoc} */
     @Override
     public void prepare(NDManager manager, Model model) throws IOException {
-        vocabulary = model.getArtifact("vocab.json", MxBertVocabulary::parse);
-        tokenizer = new BertTokenizer();
+        // the vocabulary is loaded once per model and shared by its predictors
+        MxBertVocabulary vocabulary = model.getArtifact("vocab.json", MxBertVocabulary::parse);
+        tokenizer = new WordpieceTokenizer(vocabulary);
+
+        float padIndex = tokenizer.getPadIndex();
+        batchifier =
+                PaddingStackBatchifier.builder()
+                        .addPad(0, 0, m -> m.create(new float[] {padIndex}))
+                        .addPad(1, 0, m -> m.zeros(new Shape(1)))
+                        .optBuckets(buckets)
+                        .build();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDList processInput(TranslatorContext ctx, QAInput input) {
         BertToken token =
-                tokenizer.encode(
-                        input.getQuestion().toLowerCase(),
-                        input.getParagraph().toLowerCase(),
-                        seqLength);
-        tokens = token.getTokens();
-        List<Long> indices =
-                token.getTokens().stream().map(vocabulary::getIndex).collect(Collectors.toList());
-        float[] indexesFloat = Utils.toFloatArray(indices);
-        float[] types = Utils.toFloatArray(token.getTokenTypes());
+                tokenizer.encode(input.getQuestion(), input.getParagraph(), seqLength, false);
+        pushTokens(ctx, token.getTokens());
+        float[] indexesFloat = toFloatArray(token.getIndices());
+        float[] types = toFloatArray(token.getTokenTypeArray());
         int validLength = token.getValidLength();
 
         NDManager manager = ctx.getNDManager();
@@ -81,14 +91,33 @@ public class MxBertQATranslator extends QATranslator {
     /** {@inheritDoc} */
     @Override
     public String processOutput(TranslatorContext ctx, NDList list) {
+        List<String> tokens = pollTokens(ctx);
         NDArray array = list.singletonOrThrow();
-        NDList output = array.split(2, 2);
-        // Get the formatted logits result
-        NDArray startLogits = output.get(0).reshape(new Shape(1, -1));
-        NDArray endLogits = output.get(1).reshape(new Shape(1, -1));
-        int startIdx = (int) startLogits.argMax(1).getLong();
-        int endIdx = (int) endLogits.argMax(1).getLong();
-        return tokens.subList(startIdx, endIdx + 1).toString();
+        NDList output = array.split(2, array.getShape().dimension() - 1);
+        // Get the formatted logits result, ignoring the padding of the batch
+        NDIndex valid = new NDIndex().addSliceDim(0, tokens.size());
+        NDArray startLogits = output.get(0).reshape(-1).get(valid);
+        NDArray endLogits = output.get(1).reshape(-1).get(valid);
+        int startIdx = (int) startLogits.argMax().getLong();
+        int endIdx = (int) endLogits.argMax().getLong();
+        if (startIdx > endIdx) {
+            return "";
+        }
+        return tokenizer.buildSentence(tokens.subList(startIdx, endIdx + 1));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Batchifier getBatchifier() {
+        return batchifier;
+    }
+
+    private static float[] toFloatArray(long[] values) {
+        float[] ret = new float[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            ret[i] = values[i];
+        }
+        return ret;
     }
 
     /**
@@ -115,6 +144,10 @@ public class MxBertQATranslator extends QATranslator {
             return self();
         }
 
+        int[] getBuckets() {
+            return buckets;
+        }
+
         /**
          * Returns the builder.
          *
@@ -130,7 +163,7 @@ public class MxBertQATranslator extends QATranslator {
          *
          * @return the new translator
          */
-        protected MxBertQATranslator build() {
+        public MxBertQATranslator build() {
             if (seqLength == 0) {
                 throw new IllegalArgumentException("You must specify a seqLength with value > 0");
             }
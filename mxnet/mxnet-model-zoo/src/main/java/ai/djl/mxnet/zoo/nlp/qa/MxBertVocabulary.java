@@ -12,7 +12,7 @@
  */
 package ai.djl.mxnet.zoo.nlp.qa;
 
-import ai.djl.modality.nlp.bert.BertVocabulary;
+import ai.djl.modality.nlp.bert.WordpieceVocabulary;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.annotations.SerializedName;
@@ -22,18 +22,15 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
 
 /** A MXNet implementaion of BertVocabulary. */
-public class MxBertVocabulary extends BertVocabulary {
+public class MxBertVocabulary extends WordpieceVocabulary {
 
     private static final Gson GSON = new GsonBuilder().create();
 
-    @SerializedName("token_to_idx")
-    private Map<String, Long> token2idx;
-
-    @SerializedName("idx_to_token")
-    private List<String> idx2token;
+    private MxBertVocabulary(List<String> tokens) {
+        super(tokens);
+    }
 
     /**
      * Parses the vocabulary file and create {@code MxBertVocabulary}.
@@ -43,21 +40,16 @@ public class MxBertVocabulary extends BertVocabulary {
      */
     public static MxBertVocabulary parse(InputStream is) {
         try (Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
-            return GSON.fromJson(reader, MxBertVocabulary.class);
+            return new MxBertVocabulary(GSON.fromJson(reader, VocabularyFile.class).idx2token);
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public long getIndex(String token) {
-        return (token2idx.containsKey(token)) ? token2idx.get(token) : token2idx.get("[UNK]");
-    }
+    /** The content of a GluonNLP vocabulary file. */
+    private static final class VocabularyFile {
 
-    /** {@inheritDoc} */
-    @Override
-    public String getToken(long index) {
-        return idx2token.get((int) index);
+        @SerializedName("idx_to_token")
+        List<String> idx2token;
     }
 }
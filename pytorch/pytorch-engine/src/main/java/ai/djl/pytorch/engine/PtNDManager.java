@@ -26,7 +26,6 @@ import ai.djl.pytorch.jni.Pointer;
 import ai.djl.util.PairList;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -46,12 +45,6 @@ public class PtNDManager extends BaseNDManager {
         return SYSTEM_MANAGER;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
-    }
-
     /**
      * Creates an {@link PtNDArray} with the given Native Memory Pointer and attaches to this
      * manager.
@@ -103,8 +96,11 @@ public class PtNDManager extends BaseNDManager {
             default:
                 throw new AssertionError("Show never happen");
         }
-        return JniUtils.createNdFromByteBuffer(
-                this, buf, shape, dataType, SparseFormat.DENSE, device);
+        PtNDArray array =
+                JniUtils.createNdFromByteBuffer(
+                        this, buf, shape, dataType, SparseFormat.DENSE, device);
+        releaseDirect(buf);
+        return array;
     }
 
     /** {@inheritDoc} */
@@ -14,13 +14,16 @@ package ai.djl.pytorch.zoo.nlp.qa;
 
 import ai.djl.Model;
 import ai.djl.modality.nlp.bert.BertToken;
-import ai.djl.modality.nlp.bert.BertTokenizer;
-import ai.djl.modality.nlp.bert.BertVocabulary;
+import ai.djl.modality.nlp.bert.WordpieceTokenizer;
 import ai.djl.modality.nlp.qa.QAInput;
 import ai.djl.modality.nlp.translator.QATranslator;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.PaddingStackBatchifier;
 import ai.djl.translate.TranslatorContext;
 import java.io.IOException;
 import java.util.List;
@@ -28,53 +31,91 @@ import java.util.List;
 /**
  * The translator for {@link PtBertQATranslator}.
  *
+ * <p>The translator is stateless and batches requests by padding their sequences to the longest
+ * one of the batch, or to the buckets set with {@link Builder#optBuckets(int...)}.
+ *
  * @see BertQAModelLoader
  */
 public class PtBertQATranslator extends QATranslator {
 
-    private List<String> tokens;
-    private BertVocabulary vocabulary;
-    private BertTokenizer tokenizer;
+    private int[] buckets;
+    private WordpieceTokenizer tokenizer;
+    private Batchifier batchifier;
 
-    PtBertQATranslator() {}
+    PtBertQATranslator(Builder builder) {
+        buckets = builder.getBuckets();
+    }
 
     /** {@inheritDoc} */
     @Override
     public void prepare(NDManager manager, Model model) throws IOException {
-        vocabulary = model.getArtifact("bert-base-uncased-vocab.txt", PtBertVocabulary::parse);
-        tokenizer = new BertTokenizer();
+        // the vocabulary is loaded once per model and shared by its predictors
+        PtBertVocabulary vocabulary =
+                model.getArtifact("bert-base-uncased-vocab.txt", PtBertVocabulary::parse);
+        tokenizer = new WordpieceTokenizer(vocabulary);
+
+        long padIndex = tokenizer.getPadIndex();
+        PaddingStackBatchifier.Builder builder =
+                PaddingStackBatchifier.builder()
+                        .addPad(0, 0, m -> m.create(new long[] {padIndex}))
+                        .addPad(1, 0, m -> m.zeros(new Shape(1)))
+                        .addPad(2, 0, m -> m.zeros(new Shape(1)));
+        if (buckets != null) {
+            builder.optBuckets(buckets);
+        }
+        batchifier = builder.build();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDList processInput(TranslatorContext ctx, QAInput input) {
-        BertToken token =
-                tokenizer.encode(
-                        input.getQuestion().toLowerCase(), input.getParagraph().toLowerCase());
-        tokens = token.getTokens();
+        BertToken token = tokenizer.encode(input.getQuestion(), input.getParagraph());
+        pushTokens(ctx, token.getTokens());
         NDManager manager = ctx.getNDManager();
-        long[] indices = tokens.stream().mapToLong(vocabulary::getIndex).toArray();
-        long[] attentionMask = token.getAttentionMask().stream().mapToLong(i -> i).toArray();
-        long[] tokenType = token.getTokenTypes().stream().mapToLong(i -> i).toArray();
-        NDArray indicesArray = manager.create(indices);
-        NDArray attentionMaskArray = manager.create(attentionMask);
-        NDArray tokenTypeArray = manager.create(tokenType);
+        NDArray indicesArray = manager.create(token.getIndices());
+        NDArray attentionMaskArray = manager.create(token.getAttentionMaskArray());
+        NDArray tokenTypeArray = manager.create(token.getTokenTypeArray());
         return new NDList(indicesArray, attentionMaskArray, tokenTypeArray);
     }
 
     /** {@inheritDoc} */
     @Override
     public String processOutput(TranslatorContext ctx, NDList list) {
-        NDArray startLogits = list.get(0);
-        NDArray endLogits = list.get(1);
+        List<String> tokens = pollTokens(ctx);
+        // ignore the padding of the batch
+        NDIndex valid = new NDIndex().addSliceDim(0, tokens.size());
+        NDArray startLogits = list.get(0).get(valid);
+        NDArray endLogits = list.get(1).get(valid);
         int startIdx = (int) startLogits.argMax().getLong();
         int endIdx = (int) endLogits.argMax().getLong();
-        return tokens.subList(startIdx, endIdx + 1).toString();
+        if (startIdx > endIdx) {
+            return "";
+        }
+        return tokenizer.buildSentence(tokens.subList(startIdx, endIdx + 1));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Batchifier getBatchifier() {
+        return batchifier;
+    }
+
+    /**
+     * Creates a builder to build a {@code PtBertQATranslator}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     /** The builder for Bert QA translator. */
     public static class Builder extends BaseBuilder<Builder> {
 
+        int[] getBuckets() {
+            return buckets;
+        }
+
         /**
          * Returns the builder.
          *
@@ -90,8 +131,8 @@ public class PtBertQATranslator extends QATranslator {
          *
          * @return the new translator
          */
-        protected PtBertQATranslator build() {
-            return new PtBertQATranslator();
+        public PtBertQATranslator build() {
+            return new PtBertQATranslator(this);
         }
     }
 }
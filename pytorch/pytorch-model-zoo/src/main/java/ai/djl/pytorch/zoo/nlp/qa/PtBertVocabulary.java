@@ -12,35 +12,15 @@
  */
 package ai.djl.pytorch.zoo.nlp.qa;
 
-import ai.djl.modality.nlp.bert.BertVocabulary;
-import java.io.BufferedReader;
-import java.io.IOException;
+import ai.djl.modality.nlp.bert.WordpieceVocabulary;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.List;
 
 /** A PyTorch implementation of BertVocabulary. */
-public final class PtBertVocabulary extends BertVocabulary {
-    private Map<Long, String> vocabMap;
-    private Map<String, Long> indicesMap;
+public final class PtBertVocabulary extends WordpieceVocabulary {
 
-    private PtBertVocabulary(InputStream is) {
-        vocabMap = new LinkedHashMap<>();
-        indicesMap = new LinkedHashMap<>();
-        try (BufferedReader reader =
-                new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            long i = 0;
-            while (reader.ready()) {
-                String line = reader.readLine();
-                vocabMap.put(i, line);
-                indicesMap.put(line, i);
-                i++;
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
-        }
+    private PtBertVocabulary(List<String> tokens) {
+        super(tokens);
     }
 
     /**
@@ -50,18 +30,6 @@ public final class PtBertVocabulary extends BertVocabulary {
      * @return an instance of {@code PtBertVocabulary}
      */
     public static PtBertVocabulary parse(InputStream is) {
-        return new PtBertVocabulary(is);
-    }
-
-    /** {@inheritDoc} */
-    @Override
-    public long getIndex(String token) {
-        return (indicesMap.containsKey(token)) ? indicesMap.get(token) : indicesMap.get("[UNK]");
-    }
-
-    /** {@inheritDoc} */
-    @Override
-    public String getToken(long index) {
-        return vocabMap.get(index);
+        return new PtBertVocabulary(readLines(is));
     }
 }
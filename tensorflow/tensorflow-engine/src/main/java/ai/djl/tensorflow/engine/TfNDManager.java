@@ -24,7 +24,6 @@ import ai.djl.ndarray.types.Shape;
 import ai.djl.util.PairList;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -62,12 +61,6 @@ public class TfNDManager extends BaseNDManager {
         return SYSTEM_MANAGER;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
-    }
-
     EagerSession getEagerSession() {
         if (eagerSession == null) {
             eagerSession = EagerSession.options().async(true).build();
@@ -193,6 +186,7 @@ public class TfNDManager extends BaseNDManager {
 
         ByteDataBuffer db = DataBuffers.of(buf);
         Tensor<?> tensor = Tensor.of(TfDataType.toTf(dataType), TfNDArray.toTfShape(shape), db);
+        releaseDirect(buf);
         return new TfNDArray(this, tensor);
     }
 
@@ -444,7 +438,7 @@ public class TfNDManager extends BaseNDManager {
     /** {@inheritDoc} */
     @Override
     public void detach(String resourceId) {
-        resources.remove(resourceId);
+        removeResource(resourceId);
     }
 
     /** {@inheritDoc} */